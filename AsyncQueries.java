@@ -0,0 +1,164 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: AsyncQueries.java
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs DAO calls on a dedicated pool so a handler can issue independent queries
+ * at once and wait for all of them, rather than one after another.
+ *
+ * The pool has one platform thread per pooled connection ({@code db.async.threads}
+ * overrides): more could only queue for connections, and Connector/J blocks
+ * inside synchronized code, which would pin the carriers of virtual threads.
+ * It is separate from the executor requests run on, so a request waiting for its
+ * queries never holds a thread they need. At most {@code db.async.queueSize}
+ * calls wait for a thread; beyond that calls fail at once with
+ * {@link PoolExhaustedException}.
+ *
+ * Every call times out after {@code db.async.timeoutMs} (0 for never). When the
+ * returned future is cancelled or times out, a call still waiting for a thread
+ * is dropped and a running one is interrupted, which abandons a wait for a
+ * connection; a statement already running on the server completes and its
+ * result is discarded.
+ *
+ * A call reads from the primary if the calling thread's request has written
+ * (see {@link DatabaseConnection#isPinnedToPrimary()}). Writes made by a call
+ * do not pin the caller, so issue writes synchronously.
+ */
+public final class AsyncQueries {
+    public static final long TIMEOUT_MS = Long.getLong("db.async.timeoutMs", 30_000);
+    private static final int THREADS = Integer.getInteger("db.async.threads", 0);
+    private static final int QUEUE_SIZE = Integer.getInteger("db.async.queueSize", 1_000);
+
+    private static final ThreadPoolExecutor executor = createExecutor();
+
+    @FunctionalInterface
+    public interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    private AsyncQueries() {
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        int threads = THREADS > 0 ? THREADS : DatabaseConnection.getTotalPoolSize();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                Thread.ofPlatform().name("db-async-", 0).daemon(true).factory());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Starts {@code query} on the pool.
+     *
+     * @return a future completed with its result or exception; cancelling it, or
+     *         a timeout, stops the query as described above
+     */
+    public static <T> CompletableFuture<T> supply(Query<T> query) {
+        return supply(query, executor);
+    }
+
+    /**
+     * As {@link #supply(Query)}, running the query on the given executor.
+     */
+    static <T> CompletableFuture<T> supply(Query<T> query, Executor executor) {
+        boolean pinnedToPrimary = DatabaseConnection.isPinnedToPrimary();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> task = new FutureTask<>(() -> {
+            if (result.isDone()) {
+                return null;
+            }
+            DatabaseConnection.beginRequest(pinnedToPrimary);
+            try {
+                result.complete(query.run());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                DatabaseConnection.endRequest();
+            }
+            return null;
+        });
+        // Only a completion from outside stops the task. The task's own completion
+        // runs this callback while the task is still running, and cancelling it
+        // then would interrupt the worker.
+        result.whenComplete((value, failure) -> {
+            if (result.isCancelled() || failure instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        if (TIMEOUT_MS > 0) {
+            result.orTimeout(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new PoolExhaustedException(
+                    "Async query queue is full (" + QUEUE_SIZE + " waiting)"));
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a future from {@link #supply}, rethrowing what the query threw.
+     *
+     * @throws SQLTimeoutException if the call timed out
+     * @throws CancellationException if the future was cancelled
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for an async query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof TimeoutException) {
+                throw new SQLTimeoutException("Async query timed out after " + TIMEOUT_MS + " ms", cause);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException("Async query failed", cause);
+        }
+    }
+
+    public static int getThreadCount() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public static int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public static int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public static long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+}
@@ -0,0 +1,210 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: BatchLoader.java
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent point lookups into multi-key lookups, DataLoader style.
+ *
+ * The first caller to arrive opens a batch. If other lookups are in progress,
+ * it waits up to the batch window for more keys; callers arriving meanwhile add
+ * their key and wait for the result. A lookup with nothing else in progress is
+ * sent at once, so an uncontended miss pays no window. When the window ends, or
+ * the batch reaches its maximum size, the first caller runs one lookup for all
+ * the keys on its own thread and hands each waiter its row. No extra threads are
+ * involved. A key requested more than once in the same batch is looked up once,
+ * and every caller for it gets its own copy of the value.
+ */
+public class BatchLoader<K, V> {
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("db.batch.enabled", "true"));
+    // How long the first lookup of a batch waits for others to join it
+    public static final long WINDOW_MICROS = Long.getLong("db.batch.windowMicros", 500);
+    public static final int MAX_BATCH_SIZE = Math.min(Integer.getInteger("db.batch.maxSize", 64), InList.MAX_SIZE);
+
+    /**
+     * Looks up many keys at once, e.g. with a {@code WHERE id IN (...)} query.
+     * Keys with no value are left out of the result.
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        Map<K, V> loadAll(List<K> keys) throws SQLException;
+    }
+
+    // Callers waiting for one key of a batch
+    private static final class Pending<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        // Guarded by the loader; final once the batch is closed, which happens before dispatch
+        int requests = 1;
+    }
+
+    private final class Batch {
+        final Map<K, Pending<V>> waiters = new LinkedHashMap<>();
+        final long openedNanos = System.nanoTime();
+        boolean closed;
+        volatile long dispatchedNanos;
+    }
+
+    private final String name;
+    private final BatchFunction<K, V> function;
+    private final UnaryOperator<V> copier;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    // Batch still accepting keys; guarded by this
+    private Batch open;
+    // Calls to load() that have not returned yet, in any batch
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public BatchLoader(String name, BatchFunction<K, V> function, UnaryOperator<V> copier) {
+        this(name, function, copier, WINDOW_MICROS, MAX_BATCH_SIZE);
+    }
+
+    public BatchLoader(String name, BatchFunction<K, V> function, UnaryOperator<V> copier,
+                       long windowMicros, int maxBatchSize) {
+        this.name = name;
+        this.function = function;
+        this.copier = copier;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * Looks up one key as part of the current batch.
+     *
+     * @return the value, or {@code null} if the batch lookup found none for the key
+     * @throws SQLException if the batch lookup failed
+     */
+    public V load(K key) throws SQLException {
+        long arrivedNanos = System.nanoTime();
+        inFlight.incrementAndGet();
+        Batch batch;
+        boolean leader;
+        Pending<V> pending;
+        synchronized (this) {
+            leader = open == null;
+            if (leader) {
+                open = new Batch();
+            }
+            batch = open;
+            pending = batch.waiters.get(key);
+            if (pending != null) {
+                pending.requests++;
+            } else {
+                pending = new Pending<>();
+                batch.waiters.put(key, pending);
+            }
+            if (batch.waiters.size() >= maxBatchSize) {
+                close(batch);
+            }
+        }
+        loads.increment();
+
+        if (leader) {
+            awaitWindow(batch);
+            dispatch(batch);
+        }
+        try {
+            V value = pending.result.get();
+            // Callers sharing a key copy from the loaded value, so none of them may keep it
+            return pending.requests > 1 && value != null ? copier.apply(value) : value;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for batched " + name + " lookup", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Batched " + name + " lookup failed", cause);
+        } finally {
+            waitNanos.add(Math.max(0, batch.dispatchedNanos - arrivedNanos));
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void awaitWindow(Batch batch) {
+        synchronized (this) {
+            if (inFlight.get() == 1) {
+                // No other lookup in progress, so none is likely to join: send it now
+                close(batch);
+                return;
+            }
+            long deadline = batch.openedNanos + windowNanos;
+            long remaining;
+            while (!batch.closed && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    // Dispatch early; the waiters must not be left hanging
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            close(batch);
+        }
+    }
+
+    // Caller holds the lock
+    private void close(Batch batch) {
+        if (!batch.closed) {
+            batch.closed = true;
+            if (open == batch) {
+                open = null;
+            }
+            notifyAll();
+        }
+    }
+
+    private void dispatch(Batch batch) {
+        batch.dispatchedNanos = System.nanoTime();
+        batches.increment();
+        keys.add(batch.waiters.size());
+        try {
+            Map<K, V> values = function.loadAll(new ArrayList<>(batch.waiters.keySet()));
+            batch.waiters.forEach((key, waiter) -> waiter.result.complete(values.get(key)));
+        } catch (Throwable e) {
+            batch.waiters.values().forEach(waiter -> waiter.result.completeExceptionally(e));
+        }
+    }
+
+    public String getName() { return name; }
+    public long getLoads() { return loads.sum(); }
+    public long getBatches() { return batches.sum(); }
+
+    /**
+     * Distinct keys per batch lookup, on average.
+     */
+    public double getAverageBatchSize() {
+        long count = batches.sum();
+        return count == 0 ? 0 : (double) keys.sum() / count;
+    }
+
+    /**
+     * Time a lookup waited for its batch to be dispatched, i.e. the latency
+     * batching added on top of the query itself, on average.
+     */
+    public long getAverageWaitMicros() {
+        long count = loads.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.sum() / count);
+    }
+}
@@ -0,0 +1,189 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: BeanMapper.java
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * {@link ResultMapper} for model classes with a no-argument constructor and
+ * setters, derived from the class instead of written by hand. Each column goes
+ * to the setter named after its label, so {@code manager_id} goes to
+ * {@code setManagerId}. Columns without a setter are skipped.
+ *
+ * The setters are found once per class, and each is joined with the typed
+ * {@link ResultSet} getter for its type into a {@link MethodHandle} taking the
+ * column index. Binding a result set only resolves the column positions, so
+ * the same handles serve every query and the JIT can compile them. A row then
+ * costs a constructor call and one handle call per column: no reflection and
+ * no lookups by label. Enum columns are matched to constants by name, ignoring
+ * case, through a map built once per enum.
+ *
+ * Supported setter types: {@code int}, {@code long}, {@code double},
+ * {@code boolean}, their wrappers (null for SQL NULL), {@link String},
+ * {@link BigDecimal}, {@link LocalDate}, {@link LocalDateTime} and enums.
+ */
+public final class BeanMapper<T> implements ResultMapper<T> {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle GET_OBJECT;
+    private static final MethodHandle PARSE_ENUM;
+
+    static {
+        try {
+            GET_OBJECT = LOOKUP.findVirtual(ResultSet.class, "getObject",
+                    MethodType.methodType(Object.class, int.class, Class.class));
+            PARSE_ENUM = LOOKUP.findVirtual(EnumValues.class, "parse",
+                    MethodType.methodType(Enum.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Class<T> type;
+    // () -> Object
+    private final MethodHandle constructor;
+    // Property name, lower case without underscores -> (Object bean, ResultSet, int column) -> void
+    private final Map<String, MethodHandle> setters = new HashMap<>();
+
+    private BeanMapper(Class<T> type) {
+        this.type = type;
+        try {
+            constructor = LOOKUP.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            for (Method method : type.getMethods()) {
+                if (isSetter(method)) {
+                    Class<?> parameter = method.getParameterTypes()[0];
+                    MethodHandle setter = LOOKUP.unreflect(method)
+                            .asType(MethodType.methodType(void.class, Object.class, parameter));
+                    // Reads the column and passes it to the setter
+                    setters.put(normalize(method.getName().substring(3)),
+                            MethodHandles.collectArguments(setter, 1, getter(parameter)));
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(type.getName() + " cannot be mapped from rows", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code type} has no public no-argument constructor
+     */
+    public static <T> BeanMapper<T> of(Class<T> type) {
+        return new BeanMapper<>(type);
+    }
+
+    @Override
+    public RowCursor.RowMapper<T> bind(Columns columns) throws SQLException {
+        List<MethodHandle> filled = new ArrayList<>(columns.count());
+        int[] positions = new int[columns.count()];
+        for (int i = 1; i <= columns.count(); i++) {
+            MethodHandle setter = setters.get(normalize(columns.label(i)));
+            if (setter != null) {
+                positions[filled.size()] = i;
+                filled.add(setter);
+            }
+        }
+        MethodHandle[] handles = filled.toArray(new MethodHandle[0]);
+        return rs -> {
+            try {
+                Object bean = constructor.invokeExact();
+                for (int i = 0; i < handles.length; i++) {
+                    handles[i].invokeExact(bean, rs, positions[i]);
+                }
+                return type.cast(bean);
+            } catch (SQLException | RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new SQLException("Failed to map a row to " + type.getSimpleName(), e);
+            }
+        };
+    }
+
+    // (ResultSet, int) -> valueType
+    private static MethodHandle getter(Class<?> valueType) throws ReflectiveOperationException {
+        MethodHandle getter;
+        if (valueType.isEnum()) {
+            getter = MethodHandles.filterReturnValue(
+                    typedGetter(String.class), PARSE_ENUM.bindTo(EnumValues.of(valueType)));
+        } else if (valueType.isPrimitive() || valueType == String.class || valueType == BigDecimal.class) {
+            getter = typedGetter(valueType);
+        } else {
+            // Wrappers and java.time types: getObject returns null for SQL NULL
+            getter = MethodHandles.insertArguments(GET_OBJECT, 2, valueType);
+        }
+        return getter.asType(MethodType.methodType(valueType, ResultSet.class, int.class));
+    }
+
+    // (ResultSet, int) -> valueType, e.g. ResultSet.getInt(int)
+    private static MethodHandle typedGetter(Class<?> valueType) throws ReflectiveOperationException {
+        String name = valueType == BigDecimal.class ? "getBigDecimal"
+                : "get" + Character.toUpperCase(valueType.getSimpleName().charAt(0)) + valueType.getSimpleName().substring(1);
+        return LOOKUP.findVirtual(ResultSet.class, name, MethodType.methodType(valueType, int.class));
+    }
+
+    private static boolean isSetter(Method method) {
+        if (!method.getName().startsWith("set") || method.getName().length() == 3
+                || method.getParameterCount() != 1 || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+        Class<?> parameter = method.getParameterTypes()[0];
+        return parameter == int.class || parameter == long.class || parameter == double.class
+                || parameter == boolean.class || parameter == Integer.class || parameter == Long.class
+                || parameter == Double.class || parameter == Boolean.class || parameter == String.class
+                || parameter == BigDecimal.class || parameter == LocalDate.class
+                || parameter == LocalDateTime.class || parameter.isEnum();
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    // Enum constants by lower-case name, built once per enum class
+    static final class EnumValues {
+        private static final ClassValue<EnumValues> CACHE = new ClassValue<>() {
+            @Override
+            protected EnumValues computeValue(Class<?> type) {
+                return new EnumValues(type);
+            }
+        };
+
+        private final Class<?> type;
+        private final Map<String, Enum<?>> byName = new HashMap<>();
+
+        private EnumValues(Class<?> type) {
+            this.type = type;
+            for (Object constant : type.getEnumConstants()) {
+                Enum<?> value = (Enum<?>) constant;
+                byName.put(value.name().toLowerCase(Locale.ROOT), value);
+            }
+        }
+
+        static EnumValues of(Class<?> type) {
+            return CACHE.get(type);
+        }
+
+        Enum<?> parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            Enum<?> constant = byName.get(value.toLowerCase(Locale.ROOT));
+            if (constant == null) {
+                throw new IllegalArgumentException("No " + type.getSimpleName() + " named " + value);
+            }
+            return constant;
+        }
+    }
+}
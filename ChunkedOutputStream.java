@@ -0,0 +1,65 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: ChunkedOutputStream.java
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes an HTTP/1.1 {@code Transfer-Encoding: chunked} body. Every write
+ * becomes one chunk. {@link #close()} writes the terminating chunk but leaves the
+ * underlying connection stream open for the next response; {@link #abort()}
+ * gives up on a body that could not be completed.
+ */
+public class ChunkedOutputStream extends FilterOutputStream {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private boolean closed;
+
+    public ChunkedOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            // A zero-length chunk would end the body
+            return;
+        }
+        out.write(Integer.toHexString(len).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+        out.write(b, off, len);
+        out.write(CRLF);
+    }
+
+    /**
+     * Ends use of this stream without the terminating chunk, so the client sees
+     * an incomplete body instead of a complete but truncated one. The connection
+     * must then be closed.
+     */
+    public void abort() {
+        closed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        out.write(LAST_CHUNK);
+        out.flush();
+    }
+}
@@ -0,0 +1,122 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: ConditionalGet.java
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * ETag / Last-Modified validation for pages whose content depends only on a
+ * known set of tables. Validators come from {@link TableVersions}, so a matching
+ * {@code If-None-Match} or {@code If-Modified-Since} is answered with 304
+ * before any SQL runs.
+ */
+public class ConditionalGet {
+    // Compressed representations carry the coding as an ETag suffix, see HttpResponse
+    private static final String[] ENCODING_SUFFIXES = {"", "-" + ResponseCompression.GZIP, "-" + ResponseCompression.DEFLATE};
+
+    @FunctionalInterface
+    public interface ResponseSupplier {
+        HttpResponse get() throws SQLException;
+    }
+
+    private ConditionalGet() {}
+
+    /**
+     * Serves {@code page} with validators for {@code resource}, or a 304 if the
+     * client's copy is still current.
+     *
+     * <p>Validators are skipped (the page is served uncached) for non-GET requests
+     * and while a recent write may not have reached the read replicas yet. Otherwise
+     * a stale replica read could be stored under the new version.
+     */
+    public static HttpResponse serve(HttpRequest request, String resource, ResponseSupplier page,
+                                     String... tables) throws SQLException {
+        long lastModified = TableVersions.lastModified(tables);
+        long staleness = DatabaseConnection.getMaxReadStalenessMillis();
+        if (!"GET".equals(request.getMethod())
+                || (staleness > 0 && System.currentTimeMillis() - lastModified < staleness)) {
+            return page.get();
+        }
+
+        // Taken before the page runs its queries: a write racing with them only makes the tag older
+        String etag = etag(resource, tables);
+        String lastModifiedDate = httpDate(lastModified);
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            String matched = match(ifNoneMatch, etag);
+            if (matched != null) {
+                return HttpResponse.notModified(matched, lastModifiedDate);
+            }
+        } else if (notModifiedSince(request.getHeader("If-Modified-Since"), lastModified)) {
+            return HttpResponse.notModified(etag, lastModifiedDate);
+        }
+
+        return page.get()
+                .withHeader("ETag", etag)
+                .withHeader("Last-Modified", lastModifiedDate)
+                .withHeader("Cache-Control", "no-cache");
+    }
+
+    static String etag(String resource, String... tables) {
+        StringBuilder tag = new StringBuilder("\"").append(resource)
+                .append('-').append(Long.toHexString(TableVersions.getBootEpoch()));
+        for (String table : tables) {
+            tag.append('-').append(TableVersions.version(table));
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Weak comparison of an {@code If-None-Match} list against the current tag,
+     * accepting any of its per-encoding variants.
+     *
+     * @return the client's matching tag, or {@code null}
+     */
+    private static String match(String ifNoneMatch, String etag) {
+        String opaque = etag.substring(1, etag.length() - 1);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return etag;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            for (String suffix : ENCODING_SUFFIXES) {
+                if (tag.equals("\"" + opaque + suffix + "\"")) {
+                    return tag;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean notModifiedSince(String ifModifiedSince, long lastModified) {
+        if (ifModifiedSince == null) {
+            return false;
+        }
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toInstant().toEpochMilli();
+            // HTTP dates have one-second resolution
+            return lastModified / 1000 <= since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    static String httpDate(long epochMillis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                Instant.ofEpochMilli(epochMillis).atZone(ZoneOffset.UTC));
+    }
+}
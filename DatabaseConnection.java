@@ -6,77 +6,348 @@ package com.company.db;
  */
 // File: DatabaseConnection.java
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
 
 public class DatabaseConnection {
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/company_db";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = "";
-    
-    private static Connection connection = null;
-    
-    // Connection Pooling
-    private static final int MAX_POOL_SIZE = 10;
-    private static final Connection[] connectionPool = new Connection[MAX_POOL_SIZE];
-    private static boolean[] connectionInUse = new boolean[MAX_POOL_SIZE];
-    
+    private static final String DB_URL = System.getProperty("db.url", "jdbc:mysql://localhost:3306/company_db");
+    private static final String DB_USER = System.getProperty("db.user", "root");
+    private static final String DB_PASSWORD = System.getProperty("db.password", "");
+
+    // Connection Pooling (override with -Ddb.pool.<setting>=value)
+    private static final int MAX_POOL_SIZE = Integer.getInteger("db.pool.maxSize", 10);
+    private static final int MIN_IDLE = Integer.getInteger("db.pool.minIdle", MAX_POOL_SIZE);
+    private static final long CONNECTION_TIMEOUT_MS = Long.getLong("db.pool.connectionTimeoutMs", 5_000);
+    private static final long VALIDATION_TIMEOUT_MS = Long.getLong("db.pool.validationTimeoutMs", 2_000);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("db.pool.idleTimeoutMs", 600_000);
+    private static final long MAX_LIFETIME_MS = Long.getLong("db.pool.maxLifetimeMs", 1_800_000);
+    private static final long LEAK_DETECTION_MS = Long.getLong("db.pool.leakDetectionMs", 30_000);
+    // Callers allowed inside getConnection() at once; anyone beyond that is rejected immediately
+    private static final int MAX_WAITERS = Integer.getInteger("db.pool.maxWaiters", MAX_POOL_SIZE * 2);
+
+    // Per-connection prepared statement cache (server-side preparation)
+    private static final boolean SERVER_PREP_STMTS = Boolean.parseBoolean(System.getProperty("db.stmtCache.serverSide", "true"));
+    // Rows per round trip for streamed (server-side cursor) queries, see RowCursor
+    private static final int STREAM_FETCH_SIZE = Integer.getInteger("db.stream.fetchSize", 500);
+
+    // Read replicas: comma-separated JDBC URLs, same credentials as the primary unless overridden
+    private static final String REPLICA_URLS = System.getProperty("db.replica.urls", "");
+    private static final String REPLICA_USER = System.getProperty("db.replica.user", DB_USER);
+    private static final String REPLICA_PASSWORD = System.getProperty("db.replica.password", DB_PASSWORD);
+    private static final int REPLICA_POOL_SIZE = Integer.getInteger("db.replica.pool.maxSize", MAX_POOL_SIZE);
+    private static final int REPLICA_MAX_WAITERS = Integer.getInteger("db.replica.pool.maxWaiters", REPLICA_POOL_SIZE * 2);
+    // round-robin | least-outstanding
+    private static final String REPLICA_BALANCE = System.getProperty("db.replica.balance", "round-robin");
+    private static final long REPLICA_MAX_LAG_SECONDS = Long.getLong("db.replica.maxLagSeconds", 5);
+    private static final long REPLICA_LAG_CHECK_MS = Long.getLong("db.replica.lagCheckMs", 1_000);
+
+    private static final HikariDataSource dataSource;
+    private static final List<Replica> replicas = new ArrayList<>();
+    // Replicas reads may go to, rebuilt whenever a replica's health or lag changes
+    private static volatile List<Replica> eligibleReplicas = List.of();
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    private static ScheduledExecutorService lagMonitor;
+
+    // Set once the current request has written through the primary, so that its
+    // later reads see its own writes instead of a possibly lagging replica.
+    private static final ThreadLocal<Boolean> pinnedToPrimary = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    // Bounded acquisition queue for the primary. Each replica has its own, so a backlog
+    // on one pool never turns away callers of another, and each reports its own waits.
+    private static final AcquireQueue primaryQueue = new AcquireQueue(MAX_WAITERS);
+
     static {
         try {
             // Load MySQL JDBC Driver
             Class.forName("com.mysql.cj.jdbc.Driver");
-            initializeConnectionPool();
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("MySQL JDBC Driver not found", e);
         }
+        dataSource = new HikariDataSource(createPoolConfig("company-db", DB_URL, DB_USER, DB_PASSWORD, MAX_POOL_SIZE));
+        initializeReplicas();
+        Runtime.getRuntime().addShutdownHook(new Thread(DatabaseConnection::closeAllConnections));
     }
-    
-    private static void initializeConnectionPool() {
-        for (int i = 0; i < MAX_POOL_SIZE; i++) {
-            try {
-                connectionPool[i] = createNewConnection();
-                connectionInUse[i] = false;
-            } catch (SQLException e) {
-                System.err.println("Failed to create connection for pool index " + i);
-                e.printStackTrace();
+
+    private static void initializeReplicas() {
+        for (String url : REPLICA_URLS.split(",")) {
+            if (!url.isBlank()) {
+                String name = "company-db-replica-" + (replicas.size() + 1);
+                HikariDataSource replicaSource = new HikariDataSource(
+                        createPoolConfig(name, url.trim(), REPLICA_USER, REPLICA_PASSWORD, REPLICA_POOL_SIZE));
+                replicas.add(new Replica(name, url.trim(), replicaSource));
             }
         }
+        updateEligibleReplicas();
+        if (!replicas.isEmpty()) {
+            lagMonitor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "replica-lag-monitor");
+                t.setDaemon(true);
+                return t;
+            });
+            lagMonitor.scheduleWithFixedDelay(DatabaseConnection::checkReplicaLag,
+                    0, REPLICA_LAG_CHECK_MS, TimeUnit.MILLISECONDS);
+        }
     }
-    
-    private static Connection createNewConnection() throws SQLException {
+
+    private static HikariConfig createPoolConfig(String poolName, String url, String user, String password, int maxSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDataSource(new StatementWarmingDataSource(url, createConnectionProperties(user, password)));
+
+        config.setMaximumPoolSize(maxSize);
+        config.setMinimumIdle(Math.min(MIN_IDLE, maxSize));
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MS);
+        config.setValidationTimeout(VALIDATION_TIMEOUT_MS);
+        config.setIdleTimeout(IDLE_TIMEOUT_MS);
+        config.setMaxLifetime(MAX_LIFETIME_MS);
+        config.setLeakDetectionThreshold(LEAK_DETECTION_MS);
+        // Do not fail class initialisation when the database is down at startup;
+        // connections are created lazily and getConnection() reports the error.
+        config.setInitializationFailTimeout(-1);
+        return config;
+    }
+
+    private static Properties createConnectionProperties(String user, String password) {
         Properties connectionProps = new Properties();
-        connectionProps.put("user", DB_USER);
-        connectionProps.put("password", DB_PASSWORD);
+        connectionProps.put("user", user);
+        connectionProps.put("password", password);
         connectionProps.put("useSSL", "false");
         connectionProps.put("serverTimezone", "UTC");
         connectionProps.put("characterEncoding", "UTF-8");
         connectionProps.put("useUnicode", "true");
-        
-        return DriverManager.getConnection(DB_URL, connectionProps);
+
+        connectionProps.put("useServerPrepStmts", String.valueOf(SERVER_PREP_STMTS));
+        connectionProps.put("cachePrepStmts", "true");
+        connectionProps.put("prepStmtCacheSize", String.valueOf(StatementCache.CACHE_SIZE));
+        connectionProps.put("prepStmtCacheSqlLimit", String.valueOf(StatementCache.SQL_LIMIT));
+        // Statements with a fetch size > 0 read through a server-side cursor instead of
+        // buffering the whole result; others are unaffected
+        connectionProps.put("useCursorFetch", "true");
+        return connectionProps;
     }
-    
+
+    /**
+     * Borrows a connection to the primary. Closing the returned connection
+     * (e.g. via try-with-resources) hands it back to the pool.
+     * Use this for writes; the rest of the current request then reads from the primary too.
+     *
+     * @throws PoolExhaustedException if {@code db.pool.maxWaiters} callers are already
+     *         waiting; a {@link SQLTransientConnectionException} if no connection frees up
+     *         within {@code db.pool.connectionTimeoutMs}
+     */
     public static Connection getConnection() throws SQLException {
-        for (int i = 0; i < MAX_POOL_SIZE; i++) {
-            if (!connectionInUse[i] && connectionPool[i] != null && !connectionPool[i].isClosed()) {
-                connectionInUse[i] = true;
-                return connectionPool[i];
+        pinnedToPrimary.set(Boolean.TRUE);
+        return acquirePrimary();
+    }
+
+    /**
+     * Borrows a connection for a read-only query. Goes to a read replica that is
+     * within {@code db.replica.maxLagSeconds} of the primary, or to the primary when
+     * no replica is configured/eligible or the current request has already written.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (pinnedToPrimary.get()) {
+            return acquirePrimary();
+        }
+        Replica replica = chooseReplica();
+        if (replica == null) {
+            return acquirePrimary();
+        }
+        try {
+            return acquire(replica.dataSource, replica.acquireQueue);
+        } catch (SQLException e) {
+            if (!isConnectionFailure(e)) {
+                // The replica is busy, not down: its queue is full or no connection freed up in time
+                throw e;
             }
+            // Replica unreachable: take it out of rotation until the lag monitor sees it again
+            replica.healthy = false;
+            updateEligibleReplicas();
+            System.err.println("Read replica " + replica.name + " unavailable, using primary: " + e.getMessage());
+            return acquirePrimary();
         }
-        
-        // All connections are in use, create a new one (temporary)
-        System.out.println("Connection pool exhausted, creating temporary connection");
-        return createNewConnection();
     }
-    
-    public static void releaseConnection(Connection conn) {
-        for (int i = 0; i < MAX_POOL_SIZE; i++) {
-            if (connectionPool[i] == conn) {
-                connectionInUse[i] = false;
-                return;
+
+    /**
+     * Marks the start of a request on the current thread: reads go to replicas again
+     * until the request writes.
+     */
+    public static void beginRequest() {
+        pinnedToPrimary.set(Boolean.FALSE);
+    }
+
+    /**
+     * As {@link #beginRequest()}, for work done on another thread on behalf of a
+     * request: carries over whether that request has written.
+     */
+    static void beginRequest(boolean pinned) {
+        pinnedToPrimary.set(pinned);
+    }
+
+    public static void endRequest() {
+        pinnedToPrimary.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return pinnedToPrimary.get();
+    }
+
+    /**
+     * Whether a failure to borrow a connection means the server could not be
+     * reached. Hikari reports an acquisition timeout as a
+     * {@link SQLTransientConnectionException}; it carries the last failed
+     * connection attempt as its cause only when the pool could not connect. A
+     * timeout without a cause, or a {@link PoolExhaustedException}, just means
+     * every connection was in use.
+     */
+    static boolean isConnectionFailure(SQLException e) {
+        if (e instanceof SQLTransientConnectionException) {
+            return e.getCause() != null;
+        }
+        return true;
+    }
+
+    private static synchronized void updateEligibleReplicas() {
+        List<Replica> eligible = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isEligible()) {
+                eligible.add(replica);
             }
         }
-        
-        // If it's not from the pool, close it
+        eligibleReplicas = List.copyOf(eligible);
+    }
+
+    private static Replica chooseReplica() {
+        List<Replica> eligible = eligibleReplicas;
+        if (eligible.isEmpty()) {
+            return null;
+        }
+        if ("least-outstanding".equals(REPLICA_BALANCE)) {
+            Replica best = eligible.get(0);
+            for (Replica replica : eligible) {
+                if (replica.activeConnections() < best.activeConnections()) {
+                    best = replica;
+                }
+            }
+            return best;
+        }
+        return eligible.get(Math.floorMod(nextReplica.getAndIncrement(), eligible.size()));
+    }
+
+    private static void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            try (Connection conn = replica.dataSource.getConnection()) {
+                replica.lagSeconds = readReplicationLag(conn);
+                replica.healthy = replica.lagSeconds >= 0;
+            } catch (SQLException e) {
+                // A replica whose pool is merely busy keeps its last known state
+                if (isConnectionFailure(e)) {
+                    replica.healthy = false;
+                }
+            }
+        }
+        updateEligibleReplicas();
+    }
+
+    /**
+     * @return seconds behind the primary, 0 for a server that is not replicating
+     *         (e.g. a standalone instance used for local testing), -1 if replication is stopped
+     */
+    private static long readReplicationLag(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            ResultSet rs;
+            try {
+                rs = stmt.executeQuery("SHOW REPLICA STATUS");
+            } catch (SQLSyntaxErrorException e) {
+                // MariaDB and MySQL before 8.0.22
+                rs = stmt.executeQuery("SHOW SLAVE STATUS");
+            }
+            try (ResultSet status = rs) {
+                if (!status.next()) {
+                    return 0;
+                }
+                ResultSetMetaData meta = status.getMetaData();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    String column = meta.getColumnLabel(i);
+                    if (column.equals("Seconds_Behind_Source") || column.equals("Seconds_Behind_Master")) {
+                        long lag = status.getLong(i);
+                        return status.wasNull() ? -1 : lag;
+                    }
+                }
+                return 0;
+            }
+        }
+    }
+
+    private static Connection acquirePrimary() throws SQLException {
+        return acquire(dataSource, primaryQueue);
+    }
+
+    private static Connection acquire(HikariDataSource pool, AcquireQueue queue) throws SQLException {
+        if (!queue.gate.tryAcquire()) {
+            queue.rejections.increment();
+            throw new PoolExhaustedException(pool.getPoolName() + " connection wait queue is full ("
+                    + queue.maxWaiters + " waiting)");
+        }
+        long start = System.nanoTime();
+        try {
+            Connection conn = pool.getConnection();
+            queue.acquisitions.increment();
+            return conn;
+        } catch (SQLTransientConnectionException e) {
+            queue.timeouts.increment();
+            throw e;
+        } finally {
+            long waited = System.nanoTime() - start;
+            queue.totalWaitNanos.add(waited);
+            queue.maxWaitNanos.accumulateAndGet(waited, Math::max);
+            queue.gate.release();
+        }
+    }
+
+    /**
+     * Connections that can be in use at once across the primary and all replica pools.
+     */
+    public static int getTotalPoolSize() {
+        return MAX_POOL_SIZE + replicas.size() * REPLICA_POOL_SIZE;
+    }
+
+    public static int getStreamFetchSize() {
+        return STREAM_FETCH_SIZE;
+    }
+
+    /**
+     * Upper bound on how stale a {@link #getReadConnection()} read can be: the
+     * replica lag limit plus one lag-check period, or 0 when there are no replicas.
+     */
+    public static long getMaxReadStalenessMillis() {
+        return replicas.isEmpty() ? 0 : REPLICA_MAX_LAG_SECONDS * 1000 + REPLICA_LAG_CHECK_MS;
+    }
+
+    public static DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Returns a connection to the pool. Equivalent to {@link Connection#close()},
+     * kept for callers that do not use try-with-resources.
+     */
+    public static void releaseConnection(Connection conn) {
         try {
             if (conn != null && !conn.isClosed()) {
                 conn.close();
@@ -85,26 +356,44 @@ public class DatabaseConnection {
             e.printStackTrace();
         }
     }
-    
+
     public static void closeAllConnections() {
-        for (int i = 0; i < MAX_POOL_SIZE; i++) {
-            if (connectionPool[i] != null) {
-                try {
-                    if (!connectionPool[i].isClosed()) {
-                        connectionPool[i].close();
-                    }
-                } catch (SQLException e) {
-                    e.printStackTrace();
-                }
+        if (lagMonitor != null) {
+            lagMonitor.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (!replica.dataSource.isClosed()) {
+                replica.dataSource.close();
             }
         }
+        if (!dataSource.isClosed()) {
+            dataSource.close();
+        }
     }
-    
+
+    public static List<ReplicaStatus> getReplicaStatus() {
+        List<ReplicaStatus> status = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            status.add(new ReplicaStatus(replica.name, replica.url, replica.isEligible(),
+                    replica.lagSeconds, replica.activeConnections(),
+                    replica.acquireQueue.stats(replica.dataSource, REPLICA_POOL_SIZE)));
+        }
+        return Collections.unmodifiableList(status);
+    }
+
+    /**
+     * Statistics of the primary's pool and wait queue. Each replica's are in
+     * {@link #getReplicaStatus()}.
+     */
+    public static PoolStats getPoolStats() {
+        return primaryQueue.stats(dataSource, MAX_POOL_SIZE);
+    }
+
     public static void testConnection() {
         try (Connection conn = getConnection()) {
             if (conn != null && !conn.isClosed()) {
                 System.out.println("Database connection successful!");
-                
+
                 // Test with a simple query
                 try (Statement stmt = conn.createStatement()) {
                     ResultSet rs = stmt.executeQuery("SELECT 1");
@@ -118,4 +407,90 @@ public class DatabaseConnection {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    private static final class Replica {
+        final String name;
+        final String url;
+        final HikariDataSource dataSource;
+        final AcquireQueue acquireQueue = new AcquireQueue(REPLICA_MAX_WAITERS);
+        volatile boolean healthy = true;
+        volatile long lagSeconds;
+
+        Replica(String name, String url, HikariDataSource dataSource) {
+            this.name = name;
+            this.url = url;
+            this.dataSource = dataSource;
+        }
+
+        boolean isEligible() {
+            return healthy && lagSeconds <= REPLICA_MAX_LAG_SECONDS;
+        }
+
+        int activeConnections() {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() : 0;
+        }
+    }
+
+    /**
+     * Bounded acquisition queue of one pool, with its wait statistics. Hikari hands
+     * connections to waiters in FIFO order (its ConcurrentBag uses a fair
+     * SynchronousQueue); the gate caps how many may wait.
+     */
+    private static final class AcquireQueue {
+        final int maxWaiters;
+        final Semaphore gate;
+        final LongAdder acquisitions = new LongAdder();
+        final LongAdder rejections = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder totalWaitNanos = new LongAdder();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+
+        AcquireQueue(int maxWaiters) {
+            this.maxWaiters = maxWaiters;
+            this.gate = new Semaphore(maxWaiters);
+        }
+
+        PoolStats stats(HikariDataSource dataSource, int maxPoolSize) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            long count = acquisitions.sum() + timeouts.sum();
+            return new PoolStats(
+                    maxPoolSize,
+                    pool != null ? pool.getActiveConnections() : 0,
+                    pool != null ? pool.getIdleConnections() : 0,
+                    pool != null ? pool.getThreadsAwaitingConnection() : 0,
+                    maxWaiters,
+                    acquisitions.sum(),
+                    rejections.sum(),
+                    timeouts.sum(),
+                    count > 0 ? totalWaitNanos.sum() / count / 1_000 : 0,
+                    maxWaitNanos.get() / 1_000);
+        }
+    }
+
+    public static final class ReplicaStatus {
+        private final String name;
+        private final String url;
+        private final boolean eligible;
+        private final long lagSeconds;
+        private final int activeConnections;
+        private final PoolStats poolStats;
+
+        ReplicaStatus(String name, String url, boolean eligible, long lagSeconds, int activeConnections,
+                      PoolStats poolStats) {
+            this.name = name;
+            this.url = url;
+            this.eligible = eligible;
+            this.lagSeconds = lagSeconds;
+            this.activeConnections = activeConnections;
+            this.poolStats = poolStats;
+        }
+
+        public String getName() { return name; }
+        public String getUrl() { return url; }
+        public boolean isEligible() { return eligible; }
+        public long getLagSeconds() { return lagSeconds; }
+        public int getActiveConnections() { return activeConnections; }
+        public PoolStats getPoolStats() { return poolStats; }
+    }
+}
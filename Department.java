@@ -0,0 +1,50 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: Department.java
+
+import java.time.LocalDateTime;
+
+public class Department {
+    private int id;
+    private String name;
+    private String description;
+    private Integer managerId;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public Department() {}
+    
+    public Department(String name, String description) {
+        this.name = name;
+        this.description = description;
+    }
+    
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public Integer getManagerId() { return managerId; }
+    public void setManagerId(Integer managerId) { this.managerId = managerId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    @Override
+    public String toString() {
+        return "Department{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", managerId=" + managerId +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: DepartmentDAO.java
+
+import java.sql.*;
+import java.util.*;
+
+public class DepartmentDAO {
+    
+    private static final String SELECT_BY_ID = "SELECT * FROM departments WHERE id = ?";
+    private static final String SELECT_ALL = "SELECT * FROM departments ORDER BY name";
+    private static final String RENAME_DEPARTMENT = "UPDATE departments SET name = ? WHERE id = ?";
+    
+    // Statements pre-prepared on every pooled connection, see StatementCache
+    static final List<String> PREPARED_SQL = List.of(SELECT_BY_ID, SELECT_ALL, RENAME_DEPARTMENT);
+    
+    private static final BeanMapper<Department> DEPARTMENT = BeanMapper.of(Department.class);
+    
+    public Department getDepartmentById(int id) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_BY_ID)) {
+            
+            pstmt.setInt(1, id);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return DEPARTMENT.bind(rs).map(rs);
+                }
+            }
+        }
+        
+        return null;
+    }
+    
+    public List<Department> getAllDepartments() throws SQLException {
+        List<Department> departments = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_ALL);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            RowCursor.RowMapper<Department> rows = DEPARTMENT.bind(rs);
+            while (rs.next()) {
+                departments.add(rows.map(rs));
+            }
+        }
+        
+        return departments;
+    }
+    
+    public boolean renameDepartment(int id, String name) throws SQLException {
+        boolean updated;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, RENAME_DEPARTMENT)) {
+            
+            pstmt.setString(1, name);
+            pstmt.setInt(2, id);
+            
+            updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.DEPARTMENTS);
+                // Cached employees carry their department's name
+                EmployeeDAO.invalidateDepartment(id);
+            }
+        }
+        
+        if (updated) {
+            EmployeeSearchIndex.refreshDepartment(id);
+        }
+        return updated;
+    }
+}
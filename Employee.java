@@ -39,6 +39,29 @@ public class Employee {
         this.jobTitle = jobTitle;
     }
     
+    /**
+     * @return a copy that can be changed without affecting this employee (all
+     *         fields are immutable values, so copying the references is enough)
+     */
+    public Employee copy() {
+        Employee copy = new Employee();
+        copy.id = id;
+        copy.userId = userId;
+        copy.departmentId = departmentId;
+        copy.employeeCode = employeeCode;
+        copy.hireDate = hireDate;
+        copy.salary = salary;
+        copy.jobTitle = jobTitle;
+        copy.phone = phone;
+        copy.address = address;
+        copy.username = username;
+        copy.email = email;
+        copy.firstName = firstName;
+        copy.lastName = lastName;
+        copy.departmentName = departmentName;
+        return copy;
+    }
+    
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
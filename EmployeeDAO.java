@@ -8,16 +8,124 @@ package com.company.db;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public class EmployeeDAO {
     
+    private static final String SELECT_EMPLOYEE =
+            "SELECT e.*, u.username, u.email, u.first_name, u.last_name, u.role, " +
+            "d.name as department_name " +
+            "FROM employees e " +
+            "LEFT JOIN users u ON e.user_id = u.id " +
+            "LEFT JOIN departments d ON e.department_id = d.id ";
+    
+    private static final String INSERT_EMPLOYEE =
+            "INSERT INTO employees (user_id, department_id, employee_code, " +
+            "hire_date, salary, job_title, phone, address) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID = SELECT_EMPLOYEE + "WHERE e.id = ?";
+    // Newest hires first; id breaks ties so the order is total and pages never overlap
+    private static final String KEYSET_ORDER = "ORDER BY e.hire_date DESC, e.id DESC ";
+    private static final String SELECT_ALL = SELECT_EMPLOYEE + KEYSET_ORDER;
+    private static final String SELECT_FIRST_PAGE = SELECT_EMPLOYEE + KEYSET_ORDER + "LIMIT ?";
+    // Row-value comparison spelled out so it is a range on idx_hire_date_id
+    private static final String PAGE_AFTER = "WHERE e.hire_date <= ? AND (e.hire_date < ? OR e.id < ?) ";
+    private static final String SELECT_PAGE_AFTER = SELECT_EMPLOYEE + PAGE_AFTER + KEYSET_ORDER + "LIMIT ?";
+    private static final String COUNT_EMPLOYEES = "SELECT COUNT(*) FROM employees";
+    private static final String UPDATE_EMPLOYEE =
+            "UPDATE employees SET department_id = ?, employee_code = ?, " +
+            "hire_date = ?, salary = ?, job_title = ?, phone = ?, address = ? " +
+            "WHERE id = ?";
+    private static final String DELETE_EMPLOYEE = "DELETE FROM employees WHERE id = ?";
+    private static final String SELECT_BY_DEPARTMENT = SELECT_EMPLOYEE +
+            "WHERE e.department_id = ? " +
+            "ORDER BY e.job_title";
+    private static final String SEARCH_CONDITION =
+            "WHERE u.first_name LIKE ? OR u.last_name LIKE ? " +
+            "OR e.job_title LIKE ? OR e.employee_code LIKE ? " +
+            "OR d.name LIKE ?";
+    private static final String SEARCH = SELECT_EMPLOYEE + SEARCH_CONDITION;
+    // Each table is matched on its own FULLTEXT index, so every branch is an index
+    // lookup; an employee's relevance is the sum over the tables that matched
+    private static final String FULLTEXT_RANKED =
+            "JOIN (SELECT id, SUM(score) AS relevance FROM (" +
+            "SELECT e.id, " + FullTextSearch.match("e.job_title, e.employee_code") + " AS score " +
+            "FROM employees e WHERE " + FullTextSearch.match("e.job_title, e.employee_code") + " " +
+            "UNION ALL SELECT e.id, " + FullTextSearch.match("u.first_name, u.last_name") + " " +
+            "FROM users u JOIN employees e ON e.user_id = u.id " +
+            "WHERE " + FullTextSearch.match("u.first_name, u.last_name") + " " +
+            "UNION ALL SELECT e.id, " + FullTextSearch.match("d.name") + " " +
+            "FROM departments d JOIN employees e ON e.department_id = d.id " +
+            "WHERE " + FullTextSearch.match("d.name") + ") hits " +
+            "GROUP BY id ORDER BY relevance DESC LIMIT ?) m ON m.id = e.id " +
+            "ORDER BY m.relevance DESC, e.id";
+    // Not pre-prepared: preparing it fails on a schema without the FULLTEXT indexes
+    private static final String FULLTEXT_SEARCH = SELECT_EMPLOYEE + FULLTEXT_RANKED;
+    
+    // Tables read by SELECT_EMPLOYEE queries, and by the count, for SingleFlight keys
+    private static final String[] JOINED_TABLES =
+            {TableVersions.EMPLOYEES, TableVersions.USERS, TableVersions.DEPARTMENTS};
+    private static final String[] COUNTED_TABLES = {TableVersions.EMPLOYEES};
+    
+    // Statements pre-prepared on every pooled connection, see StatementCache
+    static final List<String> PREPARED_SQL = List.of(
+            INSERT_EMPLOYEE, SELECT_BY_ID, SELECT_ALL, SELECT_FIRST_PAGE, SELECT_PAGE_AFTER,
+            COUNT_EMPLOYEES, UPDATE_EMPLOYEE, DELETE_EMPLOYEE, SELECT_BY_DEPARTMENT, SEARCH);
+    // Most other statements built at run time: by-ids lookups (whole and projected), and
+    // projected scans, first pages, later pages and both searches, plus FULLTEXT_SEARCH
+    static final int DYNAMIC_SQL_SHAPES = InList.SHAPES * (1 + EmployeeField.PROJECTION_SHAPES)
+            + EmployeeField.PROJECTION_SHAPES * 5 + 1;
+    
+    // Rows of SELECT_EMPLOYEE queries
+    static final ResultMapper<Employee> EMPLOYEE = columns -> {
+        int id = columns.index("id");
+        int userId = columns.index("user_id");
+        int departmentId = columns.index("department_id");
+        int employeeCode = columns.index("employee_code");
+        int hireDate = columns.index("hire_date");
+        int salary = columns.index("salary");
+        int jobTitle = columns.index("job_title");
+        int phone = columns.index("phone");
+        int address = columns.index("address");
+        int username = columns.index("username");
+        int email = columns.index("email");
+        int firstName = columns.index("first_name");
+        int lastName = columns.index("last_name");
+        int departmentName = columns.index("department_name");
+        return rs -> {
+            Employee employee = new Employee();
+            employee.setId(rs.getInt(id));
+            employee.setUserId(rs.getInt(userId));
+            employee.setDepartmentId(rs.getInt(departmentId));
+            if (rs.wasNull()) {
+                employee.setDepartmentId(null);
+            }
+            employee.setEmployeeCode(rs.getString(employeeCode));
+            employee.setHireDate(rs.getDate(hireDate).toLocalDate());
+            employee.setSalary(rs.getBigDecimal(salary));
+            employee.setJobTitle(rs.getString(jobTitle));
+            employee.setPhone(rs.getString(phone));
+            employee.setAddress(rs.getString(address));
+            
+            // User details
+            employee.setUsername(rs.getString(username));
+            employee.setEmail(rs.getString(email));
+            employee.setFirstName(rs.getString(firstName));
+            employee.setLastName(rs.getString(lastName));
+            
+            // Department name
+            employee.setDepartmentName(rs.getString(departmentName));
+            
+            return employee;
+        };
+    };
+    
     public int createEmployee(Employee employee) throws SQLException {
-        String sql = "INSERT INTO employees (user_id, department_id, employee_code, " +
-                    "hire_date, salary, job_title, phone, address) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
+        int id = -1;
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, INSERT_EMPLOYEE, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setInt(1, employee.getUserId());
             pstmt.setObject(2, employee.getDepartmentId(), Types.INTEGER);
@@ -31,33 +139,54 @@ public class EmployeeDAO {
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
+                TableVersions.bump(TableVersions.EMPLOYEES);
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
-                        return generatedKeys.getInt(1);
+                        id = generatedKeys.getInt(1);
                     }
                 }
             }
-            
-            return -1;
         }
+        
+        if (id > 0) {
+            EmployeeSearchIndex.refresh(List.of(id));
+        }
+        return id;
     }
     
+    // Employees by id; the writes below (and user and department changes) invalidate them
+    private static final EntityCache<Integer, Employee> cache = new EntityCache<>("employees",
+            Integer.getInteger("cache.employees.maxSize", 1000), EntityCache.TTL_SECONDS, Employee::copy);
+    
+    // Concurrent getEmployeeById cache misses, from any DAO instance, share one IN-list query
+    private static final BatchLoader<Integer, Employee> byIdLoader = new BatchLoader<>("employees",
+            ids -> queryEmployeesByIds(ids, SELECT_EMPLOYEE, EMPLOYEE), Employee::copy);
+    
+    /**
+     * Served from the entity cache when possible (see {@link EntityCache}); misses
+     * from concurrent requests are batched into one query (see {@link BatchLoader}).
+     * A request that has written reads straight from the primary instead.
+     */
     public Employee getEmployeeById(int id) throws SQLException {
-        String sql = "SELECT e.*, u.username, u.email, u.first_name, u.last_name, u.role, " +
-                    "d.name as department_name " +
-                    "FROM employees e " +
-                    "LEFT JOIN users u ON e.user_id = u.id " +
-                    "LEFT JOIN departments d ON e.department_id = d.id " +
-                    "WHERE e.id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        if (DatabaseConnection.isPinnedToPrimary()) {
+            return queryEmployeeById(id);
+        }
+        return EntityCache.ENABLED ? cache.get(id, EmployeeDAO::loadEmployeeById) : loadEmployeeById(id);
+    }
+    
+    private static Employee loadEmployeeById(int id) throws SQLException {
+        return BatchLoader.ENABLED ? byIdLoader.load(id) : queryEmployeeById(id);
+    }
+    
+    private static Employee queryEmployeeById(int id) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_BY_ID)) {
             
             pstmt.setInt(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToEmployee(rs);
+                    return EMPLOYEE.bind(rs).map(rs);
                 }
             }
         }
@@ -65,34 +194,248 @@ public class EmployeeDAO {
         return null;
     }
     
+    /**
+     * Looks up many employees in one round trip per {@link InList#MAX_SIZE} ids
+     * rather than one per id. Duplicate ids are looked up once, and ids in the
+     * entity cache are not looked up at all.
+     *
+     * @return the employees found, keyed by id, in the order the ids were given
+     */
+    public Map<Integer, Employee> getEmployeesByIds(Collection<Integer> ids) throws SQLException {
+        return getEmployeesByIds(ids, SELECT_EMPLOYEE, EMPLOYEE, true);
+    }
+    
+    /**
+     * As {@link #getEmployeesByIds(Collection)}, but selecting only the columns for
+     * {@code fields}, which must include {@link EmployeeField#ID}. Cached employees
+     * are returned whole.
+     */
+    public Map<Integer, Employee> getEmployeesByIds(Collection<Integer> ids, Set<EmployeeField> fields)
+            throws SQLException {
+        return getEmployeesByIds(ids, selectFields(fields, false, false), projectionMapper(fields, false), false);
+    }
+    
+    public BatchLoader<Integer, Employee> getByIdLoader() {
+        return byIdLoader;
+    }
+    
+    public EntityCache<Integer, Employee> getCache() {
+        return cache;
+    }
+    
+    private static Map<Integer, Employee> getEmployeesByIds(Collection<Integer> ids, String select,
+                                                            ResultMapper<Employee> mapper,
+                                                            boolean wholeRows) throws SQLException {
+        List<Integer> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        boolean cached = EntityCache.ENABLED && !DatabaseConnection.isPinnedToPrimary();
+        Map<Integer, Employee> found = new HashMap<>(unique.size() * 2);
+        List<Integer> missing = unique;
+        if (cached) {
+            missing = new ArrayList<>();
+            for (Integer id : unique) {
+                Employee employee = cache.getIfPresent(id);
+                if (employee != null) {
+                    found.put(id, employee);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+        
+        long generation = cache.getGeneration();
+        Map<Integer, Employee> loaded = queryEmployeesByIds(missing, select, mapper);
+        found.putAll(loaded);
+        if (cached && wholeRows) {
+            loaded.forEach((id, employee) -> cache.putIfCurrent(id, employee, generation));
+        }
+        
+        Map<Integer, Employee> ordered = new LinkedHashMap<>(found.size() * 2);
+        for (Integer id : unique) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                ordered.put(id, employee);
+            }
+        }
+        return ordered;
+    }
+    
+    private static Map<Integer, Employee> queryEmployeesByIds(List<Integer> ids, String select,
+                                                              ResultMapper<Employee> mapper) throws SQLException {
+        Map<Integer, Employee> found = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return found;
+        }
+        
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            for (List<Integer> chunk : InList.chunks(ids)) {
+                String sql = select + "WHERE e.id IN " + InList.placeholders(chunk.size());
+                try (PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
+                    InList.bind(pstmt, 1, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        RowCursor.RowMapper<Employee> rows = mapper.bind(rs);
+                        while (rs.next()) {
+                            Employee employee = rows.map(rs);
+                            found.put(employee.getId(), employee);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Drops cached employees that show a user's details, after the user changed.
+     */
+    static void invalidateUser(int userId) {
+        cache.invalidateIf(employee -> employee.getUserId() == userId);
+    }
+    
+    /**
+     * Drops cached employees that show a department's name, after it changed.
+     */
+    static void invalidateDepartment(int departmentId) {
+        cache.invalidateIf(employee -> employee.getDepartmentId() != null && employee.getDepartmentId() == departmentId);
+    }
+    
+    /**
+     * Concurrent identical calls (e.g. from a busy home page) share one execution,
+     * see {@link SingleFlight}.
+     */
     public List<Employee> getAllEmployees() throws SQLException {
+        return SingleFlight.execute(SELECT_ALL, List.of(), JOINED_TABLES,
+                SingleFlight.listCopier(Employee::copy), EmployeeDAO::queryAllEmployees);
+    }
+    
+    private static List<Employee> queryAllEmployees() throws SQLException {
         List<Employee> employees = new ArrayList<>();
-        String sql = "SELECT e.*, u.username, u.email, u.first_name, u.last_name, u.role, " +
-                    "d.name as department_name " +
-                    "FROM employees e " +
-                    "LEFT JOIN users u ON e.user_id = u.id " +
-                    "LEFT JOIN departments d ON e.department_id = d.id " +
-                    "ORDER BY e.hire_date DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_ALL);
+             ResultSet rs = pstmt.executeQuery()) {
             
+            RowCursor.RowMapper<Employee> rows = EMPLOYEE.bind(rs);
             while (rs.next()) {
-                employees.add(mapResultSetToEmployee(rs));
+                employees.add(rows.map(rs));
             }
         }
         
         return employees;
     }
     
-    public boolean updateEmployee(Employee employee) throws SQLException {
-        String sql = "UPDATE employees SET department_id = ?, employee_code = ?, " +
-                    "hire_date = ?, salary = ?, job_title = ?, phone = ?, address = ? " +
-                    "WHERE id = ?";
+    /**
+     * Opens a cursor over all employees, in {@link #getAllEmployees()} order, that
+     * fetches {@code db.stream.fetchSize} rows per round trip. Callers can write
+     * rows out as they arrive instead of holding the whole table. The caller must
+     * close the cursor.
+     */
+    public RowCursor<Employee> openAllEmployees() throws SQLException {
+        return openAllEmployees(SELECT_ALL, EMPLOYEE);
+    }
+    
+    /**
+     * As {@link #openAllEmployees()}, but selecting only the columns for {@code fields};
+     * the other properties of the returned employees are left unset.
+     */
+    public RowCursor<Employee> openAllEmployees(Set<EmployeeField> fields) throws SQLException {
+        return openAllEmployees(selectFields(fields, false, false) + KEYSET_ORDER, projectionMapper(fields, false));
+    }
+    
+    private static RowCursor<Employee> openAllEmployees(String sql, ResultMapper<Employee> mapper) throws SQLException {
+        return RowCursor.open(sql, pstmt -> { }, mapper);
+    }
+    
+    /**
+     * All employees, in {@link #getAllEmployees()} order, read lazily through a
+     * server-side cursor (see {@link #openAllEmployees()}) so heap use stays flat
+     * however many there are. The stream holds a pooled connection until it is
+     * closed or fully read: use it in try-with-resources. Unlike
+     * {@link #getAllEmployees()}, concurrent calls each run their own query.
+     */
+    public Stream<Employee> streamAllEmployees() throws SQLException {
+        return openAllEmployees().stream();
+    }
+    
+    /**
+     * {@link #getEmployeesByDepartment(int)} as a lazy stream; see {@link #streamAllEmployees()}.
+     */
+    public Stream<Employee> streamEmployeesByDepartment(int departmentId) throws SQLException {
+        return RowCursor.open(SELECT_BY_DEPARTMENT, pstmt -> pstmt.setInt(1, departmentId), EMPLOYEE).stream();
+    }
+    
+    /**
+     * Reads up to {@code limit} employees in {@link #getAllEmployees()} order,
+     * starting after {@code after} (or from the start if null). The query seeks on
+     * (hire_date, id), so every page costs the same however deep it is.
+     */
+    public Page<Employee> getEmployeesPage(PageToken after, int limit) throws SQLException {
+        return getEmployeesPage(after, limit,
+                after == null ? SELECT_FIRST_PAGE : SELECT_PAGE_AFTER, EMPLOYEE);
+    }
+    
+    /**
+     * As {@link #getEmployeesPage(PageToken, int)}, but selecting only the columns for
+     * {@code fields} (and the hire date, which the page token needs).
+     */
+    public Page<Employee> getEmployeesPage(PageToken after, int limit, Set<EmployeeField> fields) throws SQLException {
+        String sql = selectFields(fields, true, false) + (after == null ? "" : PAGE_AFTER) + KEYSET_ORDER + "LIMIT ?";
+        return getEmployeesPage(after, limit, sql, projectionMapper(fields, true));
+    }
+    
+    private Page<Employee> getEmployeesPage(PageToken after, int limit, String sql,
+                                            ResultMapper<Employee> mapper) throws SQLException {
+        List<Employee> employees = new ArrayList<>(limit + 1);
+        
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
+            
+            int index = 1;
+            if (after != null) {
+                if (after.getDate() == null) {
+                    throw new IllegalArgumentException("Employee page token has no hire date: " + after);
+                }
+                java.sql.Date hireDate = java.sql.Date.valueOf(after.getDate());
+                pstmt.setDate(index++, hireDate);
+                pstmt.setDate(index++, hireDate);
+                pstmt.setInt(index++, after.getId());
+            }
+            // One extra row tells whether there is a next page
+            pstmt.setInt(index, limit + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<Employee> rows = mapper.bind(rs);
+                while (rs.next()) {
+                    employees.add(rows.map(rs));
+                }
+            }
+        }
         
+        if (employees.size() <= limit) {
+            return new Page<>(employees, null);
+        }
+        employees.remove(limit);
+        Employee last = employees.get(limit - 1);
+        return new Page<>(employees, PageToken.of(last.getHireDate(), last.getId()));
+    }
+    
+    public int countEmployees() throws SQLException {
+        return SingleFlight.execute(COUNT_EMPLOYEES, List.of(), COUNTED_TABLES,
+                UnaryOperator.identity(), EmployeeDAO::queryEmployeeCount);
+    }
+    
+    private static int queryEmployeeCount() throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, COUNT_EMPLOYEES);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    public boolean updateEmployee(Employee employee) throws SQLException {
+        boolean updated;
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, UPDATE_EMPLOYEE)) {
             
             pstmt.setObject(1, employee.getDepartmentId(), Types.INTEGER);
             pstmt.setString(2, employee.getEmployeeCode());
@@ -103,40 +446,51 @@ public class EmployeeDAO {
             pstmt.setString(7, employee.getAddress());
             pstmt.setInt(8, employee.getId());
             
-            return pstmt.executeUpdate() > 0;
+            updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.EMPLOYEES);
+                cache.invalidate(employee.getId());
+            }
+        }
+        
+        if (updated) {
+            EmployeeSearchIndex.refresh(List.of(employee.getId()));
         }
+        return updated;
     }
     
     public boolean deleteEmployee(int id) throws SQLException {
-        String sql = "DELETE FROM employees WHERE id = ?";
-        
+        boolean updated;
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, DELETE_EMPLOYEE)) {
             
             pstmt.setInt(1, id);
             
-            return pstmt.executeUpdate() > 0;
+            updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.EMPLOYEES);
+                cache.invalidate(id);
+            }
         }
+        
+        if (updated) {
+            EmployeeSearchIndex.remove(id);
+        }
+        return updated;
     }
     
     public List<Employee> getEmployeesByDepartment(int departmentId) throws SQLException {
         List<Employee> employees = new ArrayList<>();
-        String sql = "SELECT e.*, u.username, u.email, u.first_name, u.last_name, u.role, " +
-                    "d.name as department_name " +
-                    "FROM employees e " +
-                    "LEFT JOIN users u ON e.user_id = u.id " +
-                    "LEFT JOIN departments d ON e.department_id = d.id " +
-                    "WHERE e.department_id = ? " +
-                    "ORDER BY e.job_title";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_BY_DEPARTMENT)) {
             
             pstmt.setInt(1, departmentId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<Employee> rows = EMPLOYEE.bind(rs);
                 while (rs.next()) {
-                    employees.add(mapResultSetToEmployee(rs));
+                    employees.add(rows.map(rs));
                 }
             }
         }
@@ -144,19 +498,128 @@ public class EmployeeDAO {
         return employees;
     }
     
+    /**
+     * Employees whose first or last name, job title, employee code or department
+     * name contains {@code keyword}, searched the {@link SearchMode#getDefault()} way.
+     */
     public List<Employee> searchEmployees(String keyword) throws SQLException {
+        return searchEmployees(keyword, SearchMode.getDefault());
+    }
+    
+    /**
+     * In {@link SearchMode#INDEX} mode the ids come from the in-memory
+     * {@link EmployeeSearchIndex} and the rows from {@link #getEmployeesByIds(Collection)},
+     * in id order; the LIKE query is the fallback while the index cannot be built.
+     * {@link SearchMode#FULLTEXT} returns up to {@link FullTextSearch#LIMIT} employees,
+     * most relevant first. {@link SearchMode#FUZZY} returns up to {@link FuzzyIndex#LIMIT}
+     * employees whose first name, last name or username is close to every word of
+     * {@code keyword}, closest first; it matches no other columns.
+     */
+    public List<Employee> searchEmployees(String keyword, SearchMode mode) throws SQLException {
+        if (mode == SearchMode.FUZZY) {
+            int[] ids = EmployeeSearchIndex.fuzzy().search(keyword, FuzzyIndex.LIMIT);
+            return new ArrayList<>(getEmployeesByIds(idList(ids)).values());
+        }
+        TrigramIndex index = mode == SearchMode.INDEX ? EmployeeSearchIndex.get() : null;
+        if (index != null) {
+            return new ArrayList<>(getEmployeesByIds(idList(index.search(keyword))).values());
+        }
+        if (mode == SearchMode.FULLTEXT) {
+            String terms = FullTextSearch.terms(keyword);
+            return SingleFlight.execute(FULLTEXT_SEARCH, SingleFlight.params(terms, FullTextSearch.LIMIT),
+                    JOINED_TABLES, SingleFlight.listCopier(Employee::copy),
+                    () -> fullTextSearch(terms, FULLTEXT_SEARCH, EMPLOYEE));
+        }
+        return SingleFlight.execute(SEARCH, SingleFlight.params(keyword), JOINED_TABLES,
+                SingleFlight.listCopier(Employee::copy),
+                () -> searchEmployees(keyword, SEARCH, EMPLOYEE));
+    }
+    
+    /**
+     * As {@link #searchEmployees(String)}, but selecting only the columns for {@code fields}.
+     */
+    public List<Employee> searchEmployees(String keyword, Set<EmployeeField> fields) throws SQLException {
+        return searchEmployees(keyword, fields, SearchMode.getDefault());
+    }
+    
+    /**
+     * As {@link #searchEmployees(String, SearchMode)}, but selecting only the columns for {@code fields}.
+     */
+    public List<Employee> searchEmployees(String keyword, Set<EmployeeField> fields, SearchMode mode)
+            throws SQLException {
+        if (mode == SearchMode.FUZZY) {
+            int[] ids = EmployeeSearchIndex.fuzzy().search(keyword, FuzzyIndex.LIMIT);
+            return new ArrayList<>(getEmployeesByIds(idList(ids), fields).values());
+        }
+        TrigramIndex index = mode == SearchMode.INDEX ? EmployeeSearchIndex.get() : null;
+        if (index != null) {
+            return new ArrayList<>(getEmployeesByIds(idList(index.search(keyword)), fields).values());
+        }
+        // The search conditions read users and departments whatever is selected
+        if (mode == SearchMode.FULLTEXT) {
+            return fullTextSearch(FullTextSearch.terms(keyword), selectFields(fields, false, true) + FULLTEXT_RANKED,
+                    projectionMapper(fields, false));
+        }
+        return searchEmployees(keyword, selectFields(fields, false, true) + SEARCH_CONDITION,
+                projectionMapper(fields, false));
+    }
+    
+    /**
+     * Names, employee codes and job titles with a word starting with {@code prefix},
+     * for search-box autocompletion, from the in-memory {@link SuggestionTrie}.
+     *
+     * @param limit at most {@link SuggestionTrie#MAX_RESULTS} are returned
+     */
+    public List<SuggestionTrie.Suggestion> suggestEmployees(String prefix, int limit) throws SQLException {
+        return EmployeeSearchIndex.suggestions().suggest(prefix, limit);
+    }
+    
+    // Async variants, for handlers that issue independent queries in parallel. Each
+    // runs its synchronous counterpart on the AsyncQueries pool, with its timeout
+    // and cancellation.
+    
+    public CompletableFuture<Employee> getEmployeeByIdAsync(int id) {
+        return AsyncQueries.supply(() -> getEmployeeById(id));
+    }
+    
+    public CompletableFuture<Map<Integer, Employee>> getEmployeesByIdsAsync(Collection<Integer> ids) {
+        return AsyncQueries.supply(() -> getEmployeesByIds(ids));
+    }
+    
+    public CompletableFuture<List<Employee>> getAllEmployeesAsync() {
+        return AsyncQueries.supply(this::getAllEmployees);
+    }
+    
+    public CompletableFuture<Page<Employee>> getEmployeesPageAsync(PageToken after, int limit) {
+        return AsyncQueries.supply(() -> getEmployeesPage(after, limit));
+    }
+    
+    public CompletableFuture<Integer> countEmployeesAsync() {
+        return AsyncQueries.supply(this::countEmployees);
+    }
+    
+    public CompletableFuture<List<Employee>> getEmployeesByDepartmentAsync(int departmentId) {
+        return AsyncQueries.supply(() -> getEmployeesByDepartment(departmentId));
+    }
+    
+    public CompletableFuture<List<Employee>> searchEmployeesAsync(String keyword, SearchMode mode) {
+        return AsyncQueries.supply(() -> searchEmployees(keyword, mode));
+    }
+    
+    private static List<Integer> idList(int[] ids) {
+        List<Integer> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+    
+    private static List<Employee> searchEmployees(String keyword, String sql,
+                                           ResultMapper<Employee> mapper) throws SQLException {
         List<Employee> employees = new ArrayList<>();
-        String sql = "SELECT e.*, u.username, u.email, u.first_name, u.last_name, u.role, " +
-                    "d.name as department_name " +
-                    "FROM employees e " +
-                    "LEFT JOIN users u ON e.user_id = u.id " +
-                    "LEFT JOIN departments d ON e.department_id = d.id " +
-                    "WHERE u.first_name LIKE ? OR u.last_name LIKE ? " +
-                    "OR e.job_title LIKE ? OR e.employee_code LIKE ? " +
-                    "OR d.name LIKE ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
             
             String likeKeyword = "%" + keyword + "%";
             for (int i = 1; i <= 5; i++) {
@@ -164,8 +627,9 @@ public class EmployeeDAO {
             }
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<Employee> rows = mapper.bind(rs);
                 while (rs.next()) {
-                    employees.add(mapResultSetToEmployee(rs));
+                    employees.add(rows.map(rs));
                 }
             }
         }
@@ -173,30 +637,84 @@ public class EmployeeDAO {
         return employees;
     }
     
-    private Employee mapResultSetToEmployee(ResultSet rs) throws SQLException {
-        Employee employee = new Employee();
-        employee.setId(rs.getInt("id"));
-        employee.setUserId(rs.getInt("user_id"));
-        employee.setDepartmentId(rs.getInt("department_id"));
-        if (rs.wasNull()) {
-            employee.setDepartmentId(null);
+    private static List<Employee> fullTextSearch(String terms, String sql,
+                                                 ResultMapper<Employee> mapper) throws SQLException {
+        List<Employee> employees = new ArrayList<>();
+        if (terms.isEmpty()) {
+            return employees;
         }
-        employee.setEmployeeCode(rs.getString("employee_code"));
-        employee.setHireDate(rs.getDate("hire_date").toLocalDate());
-        employee.setSalary(rs.getBigDecimal("salary"));
-        employee.setJobTitle(rs.getString("job_title"));
-        employee.setPhone(rs.getString("phone"));
-        employee.setAddress(rs.getString("address"));
         
-        // User details
-        employee.setUsername(rs.getString("username"));
-        employee.setEmail(rs.getString("email"));
-        employee.setFirstName(rs.getString("first_name"));
-        employee.setLastName(rs.getString("last_name"));
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
+            
+            for (int i = 1; i <= 6; i++) {
+                pstmt.setString(i, terms);
+            }
+            pstmt.setInt(7, FullTextSearch.LIMIT);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<Employee> rows = mapper.bind(rs);
+                while (rs.next()) {
+                    employees.add(rows.map(rs));
+                }
+            }
+        }
         
-        // Department name
-        employee.setDepartmentName(rs.getString("department_name"));
+        return employees;
+    }
+    
+    /**
+     * SELECT list and FROM clause for {@code fields}. The users and departments
+     * joins are added only if a field (or {@code allJoins}, for conditions on them)
+     * needs them, and every column of each joined table is selected, in enum order.
+     * The SQL therefore depends only on the joins, which keeps the number of
+     * distinct statements at {@link EmployeeField#PROJECTION_SHAPES} per query
+     * instead of one per field set.
+     */
+    private static String selectFields(Set<EmployeeField> fields, boolean withHireDate, boolean allJoins) {
+        EnumSet<EmployeeField.Join> joins = EnumSet.of(EmployeeField.Join.NONE);
+        for (EmployeeField field : fields) {
+            joins.add(field.getJoin());
+        }
+        Set<String> columns = new LinkedHashSet<>();
+        for (EmployeeField field : EmployeeField.values()) {
+            if (joins.contains(field.getJoin())) {
+                Collections.addAll(columns, field.getColumns());
+            }
+        }
+        if (withHireDate) {
+            columns.add("e.hire_date");
+        }
         
-        return employee;
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", columns)).append(" FROM employees e ");
+        if (allJoins || joins.contains(EmployeeField.Join.USERS)) {
+            sql.append("LEFT JOIN users u ON e.user_id = u.id ");
+        }
+        if (allJoins || joins.contains(EmployeeField.Join.DEPARTMENTS)) {
+            sql.append("LEFT JOIN departments d ON e.department_id = d.id ");
+        }
+        return sql.toString();
+    }
+    
+    // Reads only the selected columns, so partial rows map without missing-column errors
+    private static ResultMapper<Employee> projectionMapper(Set<EmployeeField> fields, boolean withHireDate) {
+        return columns -> {
+            EmployeeField.Reader[] readers = new EmployeeField.Reader[fields.size()];
+            int i = 0;
+            for (EmployeeField field : fields) {
+                readers[i++] = field.bind(columns);
+            }
+            int hireDate = withHireDate ? columns.index("hire_date") : 0;
+            return rs -> {
+                Employee employee = new Employee();
+                for (EmployeeField.Reader reader : readers) {
+                    reader.read(rs, employee);
+                }
+                if (withHireDate) {
+                    employee.setHireDate(rs.getDate(hireDate).toLocalDate());
+                }
+                return employee;
+            };
+        };
     }
-}
\ No newline at end of file
+}
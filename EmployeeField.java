@@ -0,0 +1,148 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: EmployeeField.java
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Employee fields that API clients can select with {@code ?fields=}. Each one
+ * knows the columns it reads and the join those columns come from, so
+ * {@link EmployeeDAO} can select only what a response needs and leave out the
+ * {@code users}/{@code departments} joins when nothing is read from them.
+ */
+public enum EmployeeField {
+    ID("id", Join.NONE, "e.id") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("id");
+            return (rs, employee) -> employee.setId(rs.getInt(column));
+        }
+    },
+    NAME("name", Join.USERS, "u.first_name", "u.last_name") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int firstName = columns.index("first_name");
+            int lastName = columns.index("last_name");
+            return (rs, employee) -> {
+                employee.setFirstName(rs.getString(firstName));
+                employee.setLastName(rs.getString(lastName));
+            };
+        }
+    },
+    FIRST_NAME("firstName", Join.USERS, "u.first_name") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("first_name");
+            return (rs, employee) -> employee.setFirstName(rs.getString(column));
+        }
+    },
+    LAST_NAME("lastName", Join.USERS, "u.last_name") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("last_name");
+            return (rs, employee) -> employee.setLastName(rs.getString(column));
+        }
+    },
+    EMPLOYEE_CODE("employeeCode", Join.NONE, "e.employee_code") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("employee_code");
+            return (rs, employee) -> employee.setEmployeeCode(rs.getString(column));
+        }
+    },
+    JOB_TITLE("jobTitle", Join.NONE, "e.job_title") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("job_title");
+            return (rs, employee) -> employee.setJobTitle(rs.getString(column));
+        }
+    },
+    DEPARTMENT("department", Join.DEPARTMENTS, "d.name AS department_name") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("department_name");
+            return (rs, employee) -> employee.setDepartmentName(rs.getString(column));
+        }
+    },
+    EMAIL("email", Join.USERS, "u.email") {
+        @Override
+        Reader bind(ResultMapper.Columns columns) throws SQLException {
+            int column = columns.index("email");
+            return (rs, employee) -> employee.setEmail(rs.getString(column));
+        }
+    };
+
+    enum Join { NONE, USERS, DEPARTMENTS }
+
+    // Distinct column lists EmployeeDAO selects: one per set of joins, and NONE is always in it
+    static final int PROJECTION_SHAPES = 1 << (Join.values().length - 1);
+
+    // Copies one field's columns from the current row into an employee
+    @FunctionalInterface
+    interface Reader {
+        void read(ResultSet rs, Employee employee) throws SQLException;
+    }
+
+    // Fields returned by /api/employees and /api/employees/search when ?fields= is absent
+    public static final Set<EmployeeField> LIST_DEFAULT = Collections.unmodifiableSet(
+            EnumSet.of(ID, FIRST_NAME, LAST_NAME, EMPLOYEE_CODE, JOB_TITLE, DEPARTMENT, EMAIL));
+    public static final Set<EmployeeField> SEARCH_DEFAULT = Collections.unmodifiableSet(
+            EnumSet.of(ID, NAME, EMPLOYEE_CODE, JOB_TITLE));
+
+    private final String apiName;
+    private final Join join;
+    private final String[] columns;
+
+    EmployeeField(String apiName, Join join, String... columns) {
+        this.apiName = apiName;
+        this.join = join;
+        this.columns = columns;
+    }
+
+    /**
+     * Finds this field's columns, selected with {@link #getColumns()}, in a result
+     * set; the returned reader copies them from each row by position.
+     */
+    abstract Reader bind(ResultMapper.Columns columns) throws SQLException;
+
+    public String getApiName() { return apiName; }
+    Join getJoin() { return join; }
+    String[] getColumns() { return columns; }
+
+    /**
+     * Parses a comma-separated {@code ?fields=} value. {@link #ID} is always
+     * included so rows can be told apart.
+     *
+     * @return {@code defaults} when the value is null or blank
+     * @throws IllegalArgumentException for a name that is not a field
+     */
+    public static Set<EmployeeField> parse(String fields, Set<EmployeeField> defaults) {
+        if (fields == null || fields.isBlank()) {
+            return defaults;
+        }
+        EnumSet<EmployeeField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                selected.add(forApiName(name.trim()));
+            }
+        }
+        return selected;
+    }
+
+    private static EmployeeField forApiName(String name) {
+        for (EmployeeField field : values()) {
+            if (field.apiName.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown employee field: " + name);
+    }
+}
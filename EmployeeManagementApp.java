@@ -8,16 +8,65 @@ package com.company.db;
 
 // File: EmployeeManagementApp.java
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+
 import java.io.*;
 import java.math.BigDecimal;
 import java.net.*;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 
 public class EmployeeManagementApp {
     private static final int PORT = 8080;
+    private static final int RETRY_AFTER_SECONDS = Integer.getInteger("http.retryAfterSeconds", 2);
+    // platform: one OS thread per connection; virtual: one virtual thread per connection
+    private static final String EXECUTOR_MODE = System.getProperty("server.executor", "platform");
+    // Connections handled at once (0 = unbounded); further connections wait in the accept backlog
+    private static final int MAX_CONCURRENT_CONNECTIONS = Integer.getInteger("server.maxConcurrentConnections", 0);
+    // blocking: ServerSocket + thread per connection; nio: selector front end (NioHttpServer)
+    private static final String FRONTEND = System.getProperty("server.frontend", "blocking");
+    private static final int NIO_WORKERS = Integer.getInteger("server.nio.workers", 0);
+    // Persistent connections: idle time before the server closes one, and requests served per connection
+    static final int KEEP_ALIVE_TIMEOUT_MS = Integer.getInteger("http.keepAlive.timeoutMs", 5000);
+    static final int KEEP_ALIVE_TIMEOUT_SECONDS = Math.max(1, KEEP_ALIVE_TIMEOUT_MS / 1000);
+    static final int KEEP_ALIVE_MAX_REQUESTS = Integer.getInteger("http.keepAlive.maxRequests", 100);
+    // Keyset pagination: rows per page by default, and the largest ?limit= accepted
+    private static final int PAGE_SIZE = Integer.getInteger("http.page.size", 50);
+    private static final int MAX_PAGE_SIZE = Integer.getInteger("http.page.maxSize", 500);
+    // Employee rows are shown with their user's name and their department's name
+    private static final String[] EMPLOYEE_TABLES =
+            {TableVersions.EMPLOYEES, TableVersions.USERS, TableVersions.DEPARTMENTS};
+    // Department ids 1..5, as seeded by company_db.sql
+    private static final String[] DEPARTMENT_NAMES = {"Engineering", "Sales", "Marketing", "HR", "Finance"};
+    private static final byte[] SELECTED_ATTR = " selected".getBytes(StandardCharsets.US_ASCII);
+    private static final DateTimeFormatter LIST_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d, yyyy");
+    
+    // JSON field names, pre-encoded once (see JsonOutput)
+    private static final SerializableString JSON_ID = JsonOutput.name("id");
+    private static final SerializableString JSON_NAME = JsonOutput.name("name");
+    private static final SerializableString JSON_FIRST_NAME = JsonOutput.name("firstName");
+    private static final SerializableString JSON_LAST_NAME = JsonOutput.name("lastName");
+    private static final SerializableString JSON_EMPLOYEE_CODE = JsonOutput.name("employeeCode");
+    private static final SerializableString JSON_JOB_TITLE = JsonOutput.name("jobTitle");
+    private static final SerializableString JSON_DEPARTMENT = JsonOutput.name("department");
+    private static final SerializableString JSON_EMAIL = JsonOutput.name("email");
+    private static final SerializableString JSON_QUERY = JsonOutput.name("query");
+    private static final SerializableString JSON_RESULTS = JsonOutput.name("results");
+    private static final SerializableString JSON_SUGGESTIONS = JsonOutput.name("suggestions");
+    private static final SerializableString JSON_TEXT = JsonOutput.name("text");
+    private static final SerializableString JSON_FIELD = JsonOutput.name("field");
+    private static final SerializableString JSON_EMPLOYEES = JsonOutput.name("employees");
+    
     private static UserDAO userDAO = new UserDAO();
     private static EmployeeDAO employeeDAO = new EmployeeDAO();
     
@@ -26,10 +75,22 @@ public class EmployeeManagementApp {
             // Test database connection
             DatabaseConnection.testConnection();
             
+            if (SearchMode.getDefault() == SearchMode.INDEX || SearchMode.getDefault() == SearchMode.FUZZY) {
+                TrigramIndex searchIndex = EmployeeSearchIndex.get();
+                if (searchIndex != null) {
+                    System.out.println("Employee search index built: " + searchIndex.size() + " employees");
+                }
+            }
+            
             System.out.println("Starting Employee Management System on port " + PORT);
             System.out.println("Open http://localhost:" + PORT + " in your browser");
             
-            startWebServer();
+            if (FRONTEND.equals("nio")) {
+                int workers = NIO_WORKERS > 0 ? NIO_WORKERS : DatabaseConnection.getTotalPoolSize();
+                new NioHttpServer(PORT, workers).run();
+            } else {
+                startWebServer();
+            }
             
         } catch (Exception e) {
             System.err.println("Failed to start application: " + e.getMessage());
@@ -37,70 +98,74 @@ public class EmployeeManagementApp {
         }
     }
     
-    private static void startWebServer() throws IOException {
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
-            System.out.println("Server listening on port " + PORT);
+    private static void startWebServer() throws IOException, InterruptedException {
+        boolean virtual = EXECUTOR_MODE.equals("virtual");
+        ThreadFactory connectionThreads = virtual
+                ? Thread.ofVirtual().name("http-", 0).factory()
+                : Thread.ofPlatform().name("http-", 0).factory();
+        if (virtual) {
+            // Requests stay on their virtual threads; only JDBC work is handed to platform threads
+            JdbcExecutor.start();
+        }
+        Semaphore connectionSlots = MAX_CONCURRENT_CONNECTIONS > 0 ? new Semaphore(MAX_CONCURRENT_CONNECTIONS) : null;
+        
+        try (ServerSocket serverSocket = new ServerSocket(PORT);
+             ExecutorService connectionExecutor = Executors.newThreadPerTaskExecutor(connectionThreads)) {
+            System.out.println("Server listening on port " + PORT + " (" + EXECUTOR_MODE + " threads)");
             
             while (true) {
+                if (connectionSlots != null) {
+                    connectionSlots.acquire();
+                }
                 Socket clientSocket = serverSocket.accept();
-                new Thread(() -> handleClientRequest(clientSocket)).start();
+                connectionExecutor.execute(() -> {
+                    try {
+                        handleClientRequest(clientSocket);
+                    } finally {
+                        if (connectionSlots != null) {
+                            connectionSlots.release();
+                        }
+                    }
+                });
             }
         }
     }
     
     private static void handleClientRequest(Socket clientSocket) {
         try (
-            BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-            PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true)
+            InputStream in = new BufferedInputStream(clientSocket.getInputStream());
+            OutputStream out = new BufferedOutputStream(clientSocket.getOutputStream())
         ) {
-            String requestLine = in.readLine();
-            if (requestLine == null) return;
-            
-            String[] requestParts = requestLine.split(" ");
-            String method = requestParts[0];
-            String path = requestParts[1];
-            
-            // Read headers
-            Map<String, String> headers = new HashMap<>();
-            String line;
-            while ((line = in.readLine()) != null && !line.isEmpty()) {
-                String[] headerParts = line.split(": ", 2);
-                if (headerParts.length == 2) {
-                    headers.put(headerParts[0], headerParts[1]);
+            // Bounds both the wait for the next request on an idle connection and slow reads
+            clientSocket.setSoTimeout(KEEP_ALIVE_TIMEOUT_MS);
+            int served = 0;
+            while (true) {
+                HttpRequest request;
+                try {
+                    request = HttpRequest.read(in);
+                } catch (SocketTimeoutException e) {
+                    break;
+                }
+                if (request == null) break;
+                
+                served++;
+                int remaining = KEEP_ALIVE_MAX_REQUESTS - served;
+                boolean keepAlive = request.isKeepAlive() && remaining > 0;
+                
+                HttpResponse response = handleRequest(request);
+                if (keepAlive) {
+                    response.keepAlive(KEEP_ALIVE_TIMEOUT_SECONDS, remaining);
+                }
+                
+                // Send HTTP response; pipelined requests already buffered are answered before flushing
+                response.writeTo(out);
+                // A streamed body without chunked coding ends by closing the connection
+                if (!keepAlive || !response.isKeepAlive()) break;
+                if (in.available() == 0) {
+                    out.flush();
                 }
             }
-            
-            // Read request body for POST
-            StringBuilder requestBody = new StringBuilder();
-            if (method.equals("POST") && headers.containsKey("Content-Length")) {
-                int contentLength = Integer.parseInt(headers.get("Content-Length"));
-                char[] body = new char[contentLength];
-                in.read(body, 0, contentLength);
-                requestBody.append(body);
-            }
-            
-            // Parse query parameters
-            Map<String, String> params = new HashMap<>();
-            if (path.contains("?")) {
-                String query = path.substring(path.indexOf("?") + 1);
-                path = path.substring(0, path.indexOf("?"));
-                parseQueryString(query, params);
-            }
-            
-            // Parse POST body parameters
-            if (requestBody.length() > 0) {
-                parseQueryString(requestBody.toString(), params);
-            }
-            
-            String response = routeRequest(method, path, params);
-            
-            // Send HTTP response
-            out.println("HTTP/1.1 200 OK");
-            out.println("Content-Type: text/html; charset=UTF-8");
-            out.println("Content-Length: " + response.getBytes("UTF-8").length);
-            out.println("Connection: close");
-            out.println();
-            out.println(response);
+            out.flush();
             
         } catch (Exception e) {
             System.err.println("Error handling request: " + e.getMessage());
@@ -114,6 +179,29 @@ public class EmployeeManagementApp {
         }
     }
     
+    /**
+     * Entry point shared by both server front ends: splits the request target into
+     * path and parameters and routes it.
+     */
+    static HttpResponse handleRequest(HttpRequest request) {
+        String path = request.getTarget();
+        
+        // Parse query parameters
+        Map<String, String> params = new HashMap<>();
+        if (path.contains("?")) {
+            String query = path.substring(path.indexOf("?") + 1);
+            path = path.substring(0, path.indexOf("?"));
+            parseQueryString(query, params);
+        }
+        
+        // Parse POST body parameters
+        if (!request.getBody().isEmpty()) {
+            parseQueryString(request.getBody(), params);
+        }
+        
+        return routeRequest(request, path, params).negotiateEncoding(request);
+    }
+    
     private static void parseQueryString(String queryString, Map<String, String> params) {
         String[] pairs = queryString.split("&");
         for (String pair : pairs) {
@@ -128,814 +216,208 @@ public class EmployeeManagementApp {
         }
     }
     
-    private static String routeRequest(String method, String path, Map<String, String> params) {
+    private static HttpResponse routeRequest(HttpRequest request, String path, Map<String, String> params) {
+        String method = request.getMethod();
+        DatabaseConnection.beginRequest();
         try {
             switch (path) {
                 case "/":
-                    return getHomePage();
+                    return JdbcExecutor.call(EmployeeManagementApp::getHomePage);
                 case "/employees":
-                    return getEmployeesPage();
+                    return ConditionalGet.serve(request, "employees",
+                            () -> JdbcExecutor.call(() -> getEmployeesPage(pageAfter(params), pageLimit(params))),
+                            EMPLOYEE_TABLES);
                 case "/employees/add":
                     if (method.equals("POST")) {
-                        return handleAddEmployee(params);
+                        return HttpResponse.html(JdbcExecutor.call(() -> handleAddEmployee(params)));
                     } else {
                         return getAddEmployeeForm();
                     }
                 case "/employees/edit":
                     if (method.equals("POST")) {
-                        return handleUpdateEmployee(params);
+                        return HttpResponse.html(JdbcExecutor.call(() -> handleUpdateEmployee(params)));
                     } else if (params.containsKey("id")) {
-                        return getEditEmployeeForm(Integer.parseInt(params.get("id")));
+                        int id = Integer.parseInt(params.get("id"));
+                        return JdbcExecutor.call(() -> getEditEmployeeForm(id));
                     }
                     break;
                 case "/employees/delete":
                     if (params.containsKey("id")) {
-                        return handleDeleteEmployee(Integer.parseInt(params.get("id")));
+                        int id = Integer.parseInt(params.get("id"));
+                        return HttpResponse.html(JdbcExecutor.call(() -> handleDeleteEmployee(id)));
                     }
                     break;
                 case "/employees/view":
                     if (params.containsKey("id")) {
-                        return getEmployeeDetails(Integer.parseInt(params.get("id")));
+                        int id = Integer.parseInt(params.get("id"));
+                        return ConditionalGet.serve(request, "employee-" + id,
+                                () -> HttpResponse.html(JdbcExecutor.call(() -> getEmployeeDetails(id))), EMPLOYEE_TABLES);
                     }
                     break;
                 case "/users":
-                    return getUsersPage();
+                    return ConditionalGet.serve(request, "users",
+                            () -> HttpResponse.html(JdbcExecutor.call(() -> getUsersPage(pageAfter(params), pageLimit(params)))),
+                            TableVersions.USERS);
                 case "/dashboard":
-                    return getDashboard();
-                case "/api/employees":
-                    return getEmployeesJson();
+                    return HttpResponse.html(getDashboard());
+                case "/api/employees": {
+                    Set<EmployeeField> fields = EmployeeField.parse(params.get("fields"), EmployeeField.LIST_DEFAULT);
+                    if (params.containsKey("ids")) {
+                        List<Integer> ids = parseIds(params.get("ids"));
+                        return ConditionalGet.serve(request, "api-employees",
+                                () -> JdbcExecutor.call(() -> getEmployeesJson(ids, fields)), EMPLOYEE_TABLES);
+                    }
+                    if (params.containsKey("after") || params.containsKey("limit")) {
+                        return ConditionalGet.serve(request, "api-employees",
+                                () -> JdbcExecutor.call(() -> getEmployeesJson(pageAfter(params), pageLimit(params), fields)),
+                                EMPLOYEE_TABLES);
+                    }
+                    return ConditionalGet.serve(request, "api-employees",
+                            () -> JdbcExecutor.call(() -> getEmployeesJson(fields)), EMPLOYEE_TABLES);
+                }
                 case "/api/employees/search":
                     if (params.containsKey("q")) {
-                        return searchEmployeesJson(params.get("q"));
+                        Set<EmployeeField> fields = EmployeeField.parse(params.get("fields"), EmployeeField.SEARCH_DEFAULT);
+                        SearchMode mode = params.containsKey("mode") ? SearchMode.parse(params.get("mode")) : SearchMode.getDefault();
+                        return JdbcExecutor.call(() -> searchEmployeesJson(params.get("q"), fields, mode));
                     }
                     break;
+                case "/api/employees/suggest":
+                    if (params.containsKey("q")) {
+                        String limit = params.get("limit");
+                        int max = limit == null ? SuggestionTrie.MAX_RESULTS : Math.max(1, Integer.parseInt(limit));
+                        return JdbcExecutor.call(() -> suggestEmployeesJson(params.get("q"), max));
+                    }
+                    break;
+                case "/api/pool":
+                    return HttpResponse.json(getPoolStatsJson());
             }
+        } catch (SQLTransientConnectionException e) {
+            // Pool saturated: shed load instead of queueing more work behind it
+            return HttpResponse.serviceUnavailable(getServiceUnavailablePage(), RETRY_AFTER_SECONDS);
         } catch (Exception e) {
-            return getErrorPage(e);
+            return HttpResponse.html(getErrorPage(e));
+        } finally {
+            DatabaseConnection.endRequest();
         }
         
-        return getNotFoundPage();
+        return HttpResponse.html(getNotFoundPage());
     }
     
-    private static String getHomePage() throws SQLException {
-        int totalEmployees = employeeDAO.getAllEmployees().size();
-        int totalUsers = userDAO.countUsers();
-        
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"en\">\n");
-        html.append("<head>\n");
-        html.append("    <meta charset=\"UTF-8\">\n");
-        html.append("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("    <title>Employee Management System</title>\n");
-        html.append("    <style>\n");
-        html.append("        * { margin: 0; padding: 0; box-sizing: border-box; }\n");
-        html.append("        body { \n");
-        html.append("            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; \n");
-        html.append("            background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);\n");
-        html.append("            color: #333;\n");
-        html.append("            min-height: 100vh;\n");
-        html.append("        }\n");
-        html.append("        .container {\n");
-        html.append("            max-width: 1200px;\n");
-        html.append("            margin: 0 auto;\n");
-        html.append("            padding: 20px;\n");
-        html.append("        }\n");
-        html.append("        header {\n");
-        html.append("            background: rgba(255, 255, 255, 0.95);\n");
-        html.append("            backdrop-filter: blur(10px);\n");
-        html.append("            padding: 20px;\n");
-        html.append("            border-radius: 15px;\n");
-        html.append("            box-shadow: 0 10px 30px rgba(0, 0, 0, 0.1);\n");
-        html.append("            margin-bottom: 30px;\n");
-        html.append("        }\n");
-        html.append("        .header-content {\n");
-        html.append("            display: flex;\n");
-        html.append("            justify-content: space-between;\n");
-        html.append("            align-items: center;\n");
-        html.append("        }\n");
-        html.append("        h1 {\n");
-        html.append("            color: #4a5568;\n");
-        html.append("            margin-bottom: 5px;\n");
-        html.append("        }\n");
-        html.append("        .subtitle {\n");
-        html.append("            color: #718096;\n");
-        html.append("            font-size: 1.1rem;\n");
-        html.append("        }\n");
-        html.append("        nav a {\n");
-        html.append("            margin-left: 20px;\n");
-        html.append("            text-decoration: none;\n");
-        html.append("            color: #4a5568;\n");
-        html.append("            font-weight: 500;\n");
-        html.append("            padding: 8px 16px;\n");
-        html.append("            border-radius: 8px;\n");
-        html.append("            transition: all 0.3s ease;\n");
-        html.append("        }\n");
-        html.append("        nav a:hover {\n");
-        html.append("            background: #667eea;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .stats-grid {\n");
-        html.append("            display: grid;\n");
-        html.append("            grid-template-columns: repeat(auto-fit, minmax(250px, 1fr));\n");
-        html.append("            gap: 20px;\n");
-        html.append("            margin-bottom: 30px;\n");
-        html.append("        }\n");
-        html.append("        .stat-card {\n");
-        html.append("            background: rgba(255, 255, 255, 0.95);\n");
-        html.append("            padding: 25px;\n");
-        html.append("            border-radius: 15px;\n");
-        html.append("            box-shadow: 0 5px 15px rgba(0, 0, 0, 0.08);\n");
-        html.append("            transition: transform 0.3s ease, box-shadow 0.3s ease;\n");
-        html.append("        }\n");
-        html.append("        .stat-card:hover {\n");
-        html.append("            transform: translateY(-5px);\n");
-        html.append("            box-shadow: 0 15px 30px rgba(0, 0, 0, 0.15);\n");
-        html.append("        }\n");
-        html.append("        .stat-icon {\n");
-        html.append("            font-size: 2.5rem;\n");
-        html.append("            margin-bottom: 15px;\n");
-        html.append("            color: #667eea;\n");
-        html.append("        }\n");
-        html.append("        .stat-value {\n");
-        html.append("            font-size: 2rem;\n");
-        html.append("            font-weight: bold;\n");
-        html.append("            color: #2d3748;\n");
-        html.append("            margin-bottom: 5px;\n");
-        html.append("        }\n");
-        html.append("        .stat-label {\n");
-        html.append("            color: #718096;\n");
-        html.append("            font-size: 0.9rem;\n");
-        html.append("            text-transform: uppercase;\n");
-        html.append("            letter-spacing: 1px;\n");
-        html.append("        }\n");
-        html.append("        .actions-grid {\n");
-        html.append("            display: grid;\n");
-        html.append("            grid-template-columns: repeat(auto-fit, minmax(300px, 1fr));\n");
-        html.append("            gap: 20px;\n");
-        html.append("        }\n");
-        html.append("        .action-card {\n");
-        html.append("            background: rgba(255, 255, 255, 0.95);\n");
-        html.append("            padding: 30px;\n");
-        html.append("            border-radius: 15px;\n");
-        html.append("            text-align: center;\n");
-        html.append("            box-shadow: 0 5px 15px rgba(0, 0, 0, 0.08);\n");
-        html.append("            transition: all 0.3s ease;\n");
-        html.append("            text-decoration: none;\n");
-        html.append("            color: inherit;\n");
-        html.append("            display: block;\n");
-        html.append("        }\n");
-        html.append("        .action-card:hover {\n");
-        html.append("            background: white;\n");
-        html.append("            transform: translateY(-5px);\n");
-        html.append("            box-shadow: 0 15px 30px rgba(0, 0, 0, 0.15);\n");
-        html.append("        }\n");
-        html.append("        .action-icon {\n");
-        html.append("            font-size: 3rem;\n");
-        html.append("            margin-bottom: 20px;\n");
-        html.append("            color: #667eea;\n");
-        html.append("        }\n");
-        html.append("        .action-title {\n");
-        html.append("            font-size: 1.3rem;\n");
-        html.append("            font-weight: 600;\n");
-        html.append("            color: #2d3748;\n");
-        html.append("            margin-bottom: 10px;\n");
-        html.append("        }\n");
-        html.append("        .action-desc {\n");
-        html.append("            color: #718096;\n");
-        html.append("            line-height: 1.6;\n");
-        html.append("        }\n");
-        html.append("        footer {\n");
-        html.append("            margin-top: 50px;\n");
-        html.append("            text-align: center;\n");
-        html.append("            color: rgba(255, 255, 255, 0.8);\n");
-        html.append("            padding: 20px;\n");
-        html.append("            font-size: 0.9rem;\n");
-        html.append("        }\n");
-        html.append("    </style>\n");
-        html.append("    <link rel=\"stylesheet\" href=\"https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css\">\n");
-        html.append("</head>\n");
-        html.append("<body>\n");
-        html.append("    <div class=\"container\">\n");
-        html.append("        <header>\n");
-        html.append("            <div class=\"header-content\">\n");
-        html.append("                <div>\n");
-        html.append("                    <h1>🏢 Employee Management System</h1>\n");
-        html.append("                    <p class=\"subtitle\">Manage your organization's workforce efficiently</p>\n");
-        html.append("                </div>\n");
-        html.append("                <nav>\n");
-        html.append("                    <a href=\"/\">🏠 Home</a>\n");
-        html.append("                    <a href=\"/employees\">👥 Employees</a>\n");
-        html.append("                    <a href=\"/users\">👤 Users</a>\n");
-        html.append("                    <a href=\"/dashboard\">📊 Dashboard</a>\n");
-        html.append("                </nav>\n");
-        html.append("            </div>\n");
-        html.append("        </header>\n");
-        html.append("        \n");
-        html.append("        <div class=\"stats-grid\">\n");
-        html.append("            <div class=\"stat-card\">\n");
-        html.append("                <div class=\"stat-icon\">\n");
-        html.append("                    <i class=\"fas fa-users\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"stat-value\">").append(totalEmployees).append("</div>\n");
-        html.append("                <div class=\"stat-label\">Total Employees</div>\n");
-        html.append("            </div>\n");
-        html.append("            \n");
-        html.append("            <div class=\"stat-card\">\n");
-        html.append("                <div class=\"stat-icon\">\n");
-        html.append("                    <i class=\"fas fa-user-circle\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"stat-value\">").append(totalUsers).append("</div>\n");
-        html.append("                <div class=\"stat-label\">System Users</div>\n");
-        html.append("            </div>\n");
-        html.append("            \n");
-        html.append("            <div class=\"stat-card\">\n");
-        html.append("                <div class=\"stat-icon\">\n");
-        html.append("                    <i class=\"fas fa-chart-line\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"stat-value\">98%</div>\n");
-        html.append("                <div class=\"stat-label\">System Uptime</div>\n");
-        html.append("            </div>\n");
-        html.append("            \n");
-        html.append("            <div class=\"stat-card\">\n");
-        html.append("                <div class=\"stat-icon\">\n");
-        html.append("                    <i class=\"fas fa-database\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"stat-value\">MySQL</div>\n");
-        html.append("                <div class=\"stat-label\">Database</div>\n");
-        html.append("            </div>\n");
-        html.append("        </div>\n");
-        html.append("        \n");
-        html.append("        <div class=\"actions-grid\">\n");
-        html.append("            <a href=\"/employees\" class=\"action-card\">\n");
-        html.append("                <div class=\"action-icon\">\n");
-        html.append("                    <i class=\"fas fa-user-plus\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"action-title\">Manage Employees</div>\n");
-        html.append("                <div class=\"action-desc\">\n");
-        html.append("                    View, add, edit, and delete employee records. Search and filter through your workforce.\n");
-        html.append("                </div>\n");
-        html.append("            </a>\n");
-        html.append("            \n");
-        html.append("            <a href=\"/employees/add\" class=\"action-card\">\n");
-        html.append("                <div class=\"action-icon\">\n");
-        html.append("                    <i class=\"fas fa-user-plus\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"action-title\">Add New Employee</div>\n");
-        html.append("                <div class=\"action-desc\">\n");
-        html.append("                    Register new employees into the system with all necessary details and documentation.\n");
-        html.append("                </div>\n");
-        html.append("            </a>\n");
-        html.append("            \n");
-        html.append("            <a href=\"/users\" class=\"action-card\">\n");
-        html.append("                <div class=\"action-icon\">\n");
-        html.append("                    <i class=\"fas fa-users-cog\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"action-title\">User Management</div>\n");
-        html.append("                <div class=\"action-desc\">\n");
-        html.append("                    Manage system users, assign roles, and control access permissions.\n");
-        html.append("                </div>\n");
-        html.append("            </a>\n");
-        html.append("            \n");
-        html.append("            <a href=\"/dashboard\" class=\"action-card\">\n");
-        html.append("                <div class=\"action-icon\">\n");
-        html.append("                    <i class=\"fas fa-chart-bar\"></i>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"action-title\">Analytics Dashboard</div>\n");
-        html.append("                <div class=\"action-desc\">\n");
-        html.append("                    View comprehensive analytics and reports about your organization's workforce.\n");
-        html.append("                </div>\n");
-        html.append("            </a>\n");
-        html.append("        </div>\n");
-        html.append("        \n");
-        html.append("        <footer>\n");
-        html.append("            <p>Employee Management System v1.0 | Built with Java & MySQL</p>\n");
-        html.append("            <p>Developed by: Kipyegon Milton: kipyegonmilton@gmail.com</p>\n");
-        html.append("            <p>© 2026 Company Inc. All rights reserved.</p>\n");
-        html.append("        </footer>\n");
-        html.append("    </div>\n");
-        html.append("</body>\n");
-        html.append("</html>\n");
+    private static HttpResponse getHomePage() throws SQLException {
+        // Both counts run at once
+        CompletableFuture<Integer> employeeCount = employeeDAO.countEmployeesAsync();
+        CompletableFuture<Integer> userCount = userDAO.countUsersAsync();
+        int totalEmployees = AsyncQueries.await(employeeCount);
+        int totalUsers = AsyncQueries.await(userCount);
         
-        return html.toString();
+        return HttpResponse.html(PageTemplates.HOME, (slot, html) -> {
+            switch (slot) {
+                case "totalEmployees" -> html.text(totalEmployees);
+                case "totalUsers" -> html.text(totalUsers);
+            }
+        });
     }
     
-    private static String getEmployeesPage() throws SQLException {
-        List<Employee> employees = employeeDAO.getAllEmployees();
-        
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"en\">\n");
-        html.append("<head>\n");
-        html.append("    <meta charset=\"UTF-8\">\n");
-        html.append("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("    <title>Employee List</title>\n");
-        html.append("    <style>\n");
-        html.append("        * { margin: 0; padding: 0; box-sizing: border-box; }\n");
-        html.append("        body { \n");
-        html.append("            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; \n");
-        html.append("            background: #f5f7fa;\n");
-        html.append("            color: #333;\n");
-        html.append("        }\n");
-        html.append("        .container {\n");
-        html.append("            max-width: 1200px;\n");
-        html.append("            margin: 0 auto;\n");
-        html.append("            padding: 20px;\n");
-        html.append("        }\n");
-        html.append("        header {\n");
-        html.append("            background: white;\n");
-        html.append("            padding: 25px;\n");
-        html.append("            border-radius: 10px;\n");
-        html.append("            box-shadow: 0 2px 10px rgba(0, 0, 0, 0.1);\n");
-        html.append("            margin-bottom: 30px;\n");
-        html.append("        }\n");
-        html.append("        .header-content {\n");
-        html.append("            display: flex;\n");
-        html.append("            justify-content: space-between;\n");
-        html.append("            align-items: center;\n");
-        html.append("            flex-wrap: wrap;\n");
-        html.append("            gap: 20px;\n");
-        html.append("        }\n");
-        html.append("        h1 { color: #2d3748; margin-bottom: 10px; }\n");
-        html.append("        .controls {\n");
-        html.append("            display: flex;\n");
-        html.append("            gap: 15px;\n");
-        html.append("            align-items: center;\n");
-        html.append("        }\n");
-        html.append("        .search-box {\n");
-        html.append("            padding: 10px 15px;\n");
-        html.append("            border: 2px solid #e2e8f0;\n");
-        html.append("            border-radius: 8px;\n");
-        html.append("            width: 300px;\n");
-        html.append("            font-size: 14px;\n");
-        html.append("            transition: border-color 0.3s;\n");
-        html.append("        }\n");
-        html.append("        .search-box:focus {\n");
-        html.append("            outline: none;\n");
-        html.append("            border-color: #667eea;\n");
-        html.append("        }\n");
-        html.append("        .btn {\n");
-        html.append("            padding: 10px 20px;\n");
-        html.append("            border: none;\n");
-        html.append("            border-radius: 8px;\n");
-        html.append("            cursor: pointer;\n");
-        html.append("            font-weight: 500;\n");
-        html.append("            text-decoration: none;\n");
-        html.append("            display: inline-flex;\n");
-        html.append("            align-items: center;\n");
-        html.append("            gap: 8px;\n");
-        html.append("            transition: all 0.3s;\n");
-        html.append("        }\n");
-        html.append("        .btn-primary {\n");
-        html.append("            background: #667eea;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .btn-primary:hover {\n");
-        html.append("            background: #5a67d8;\n");
-        html.append("            transform: translateY(-2px);\n");
-        html.append("        }\n");
-        html.append("        .btn-success {\n");
-        html.append("            background: #48bb78;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .btn-success:hover {\n");
-        html.append("            background: #38a169;\n");
-        html.append("        }\n");
-        html.append("        .btn-danger {\n");
-        html.append("            background: #f56565;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .btn-info {\n");
-        html.append("            background: #4299e1;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .table-container {\n");
-        html.append("            background: white;\n");
-        html.append("            border-radius: 10px;\n");
-        html.append("            box-shadow: 0 2px 10px rgba(0, 0, 0, 0.1);\n");
-        html.append("            overflow: hidden;\n");
-        html.append("        }\n");
-        html.append("        table {\n");
-        html.append("            width: 100%;\n");
-        html.append("            border-collapse: collapse;\n");
-        html.append("        }\n");
-        html.append("        thead {\n");
-        html.append("            background: #667eea;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        th {\n");
-        html.append("            padding: 15px;\n");
-        html.append("            text-align: left;\n");
-        html.append("            font-weight: 600;\n");
-        html.append("        }\n");
-        html.append("        tbody tr {\n");
-        html.append("            border-bottom: 1px solid #e2e8f0;\n");
-        html.append("            transition: background 0.3s;\n");
-        html.append("        }\n");
-        html.append("        tbody tr:hover {\n");
-        html.append("            background: #f7fafc;\n");
-        html.append("        }\n");
-        html.append("        td {\n");
-        html.append("            padding: 15px;\n");
-        html.append("            color: #4a5568;\n");
-        html.append("        }\n");
-        html.append("        .employee-info {\n");
-        html.append("            display: flex;\n");
-        html.append("            align-items: center;\n");
-        html.append("            gap: 15px;\n");
-        html.append("        }\n");
-        html.append("        .avatar {\n");
-        html.append("            width: 40px;\n");
-        html.append("            height: 40px;\n");
-        html.append("            border-radius: 50%;\n");
-        html.append("            background: #667eea;\n");
-        html.append("            color: white;\n");
-        html.append("            display: flex;\n");
-        html.append("            align-items: center;\n");
-        html.append("            justify-content: center;\n");
-        html.append("            font-weight: bold;\n");
-        html.append("        }\n");
-        html.append("        .employee-name {\n");
-        html.append("            font-weight: 600;\n");
-        html.append("            color: #2d3748;\n");
-        html.append("        }\n");
-        html.append("        .employee-title {\n");
-        html.append("            font-size: 0.9rem;\n");
-        html.append("            color: #718096;\n");
-        html.append("        }\n");
-        html.append("        .badge {\n");
-        html.append("            padding: 4px 8px;\n");
-        html.append("            border-radius: 4px;\n");
-        html.append("            font-size: 0.8rem;\n");
-        html.append("            font-weight: 500;\n");
-        html.append("        }\n");
-        html.append("        .badge-department {\n");
-        html.append("            background: #bee3f8;\n");
-        html.append("            color: #2b6cb0;\n");
-        html.append("        }\n");
-        html.append("        .badge-active {\n");
-        html.append("            background: #c6f6d5;\n");
-        html.append("            color: #22543d;\n");
-        html.append("        }\n");
-        html.append("        .actions {\n");
-        html.append("            display: flex;\n");
-        html.append("            gap: 8px;\n");
-        html.append("        }\n");
-        html.append("        .empty-state {\n");
-        html.append("            text-align: center;\n");
-        html.append("            padding: 60px 20px;\n");
-        html.append("            color: #a0aec0;\n");
-        html.append("        }\n");
-        html.append("        .empty-state i {\n");
-        html.append("            font-size: 3rem;\n");
-        html.append("            margin-bottom: 20px;\n");
-        html.append("            color: #cbd5e0;\n");
-        html.append("        }\n");
-        html.append("        footer {\n");
-        html.append("            margin-top: 30px;\n");
-        html.append("            text-align: center;\n");
-        html.append("            color: #718096;\n");
-        html.append("            padding: 20px;\n");
-        html.append("            font-size: 0.9rem;\n");
-        html.append("        }\n");
-        html.append("    </style>\n");
-        html.append("    <link rel=\"stylesheet\" href=\"https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css\">\n");
-        html.append("</head>\n");
-        html.append("<body>\n");
-        html.append("    <div class=\"container\">\n");
-        html.append("        <header>\n");
-        html.append("            <div class=\"header-content\">\n");
-        html.append("                <div>\n");
-        html.append("                    <h1><i class=\"fas fa-users\"></i> Employee Directory</h1>\n");
-        html.append("                    <p>Manage your organization's workforce</p>\n");
-        html.append("                </div>\n");
-        html.append("                <div class=\"controls\">\n");
-        html.append("                    <input type=\"text\" class=\"search-box\" placeholder=\"Search employees...\" id=\"searchInput\">\n");
-        html.append("                    <a href=\"/employees/add\" class=\"btn btn-success\">\n");
-        html.append("                        <i class=\"fas fa-user-plus\"></i> Add Employee\n");
-        html.append("                    </a>\n");
-        html.append("                    <a href=\"/\" class=\"btn btn-primary\">\n");
-        html.append("                        <i class=\"fas fa-home\"></i> Home\n");
-        html.append("                    </a>\n");
-        html.append("                </div>\n");
-        html.append("            </div>\n");
-        html.append("        </header>\n");
-        html.append("        \n");
-        html.append("        <div class=\"table-container\">\n");
+    private static HttpResponse getEmployeesPage(PageToken after, int limit) throws SQLException {
+        Page<Employee> page = employeeDAO.getEmployeesPage(after, limit);
+        int total = employeeDAO.countEmployees();
         
-        if (employees.isEmpty()) {
-            html.append("            <div class=\"empty-state\">\n");
-            html.append("                <i class=\"fas fa-user-friends\"></i>\n");
-            html.append("                <h2>No Employees Found</h2>\n");
-            html.append("                <p>Get started by adding your first employee to the system.</p>\n");
-            html.append("                <a href=\"/employees/add\" class=\"btn btn-success\" style=\"margin-top: 20px;\">\n");
-            html.append("                    <i class=\"fas fa-user-plus\"></i> Add First Employee\n");
-            html.append("                </a>\n");
-            html.append("            </div>\n");
-        } else {
-            html.append("            <table>\n");
-            html.append("                <thead>\n");
-            html.append("                    <tr>\n");
-            html.append("                        <th>Employee</th>\n");
-            html.append("                        <th>Employee Code</th>\n");
-            html.append("                        <th>Department</th>\n");
-            html.append("                        <th>Job Title</th>\n");
-            html.append("                        <th>Hire Date</th>\n");
-            html.append("                        <th>Salary</th>\n");
-            html.append("                        <th>Actions</th>\n");
-            html.append("                    </tr>\n");
-            html.append("                </thead>\n");
-            html.append("                <tbody>\n");
-            
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM d, yyyy");
-            
-            for (Employee emp : employees) {
-                String initials = (emp.getFirstName().charAt(0) + "" + emp.getLastName().charAt(0)).toUpperCase();
-                String hireDate = emp.getHireDate().format(dateFormatter);
-                String salary = emp.getFormattedSalary();
-                String department = emp.getDepartmentName() != null ? emp.getDepartmentName() : "Not Assigned";
-                
-                html.append("                    <tr>\n");
-                html.append("                        <td>\n");
-                html.append("                            <div class=\"employee-info\">\n");
-                html.append("                                <div class=\"avatar\">").append(initials).append("</div>\n");
-                html.append("                                <div>\n");
-                html.append("                                    <div class=\"employee-name\">").append(emp.getFirstName()).append(" ").append(emp.getLastName()).append("</div>\n");
-                html.append("                                    <div class=\"employee-title\">").append(emp.getEmail()).append("</div>\n");
-                html.append("                                </div>\n");
-                html.append("                            </div>\n");
-                html.append("                        </td>\n");
-                html.append("                        <td><span class=\"badge\">").append(emp.getEmployeeCode()).append("</span></td>\n");
-                html.append("                        <td><span class=\"badge badge-department\">").append(department).append("</span></td>\n");
-                html.append("                        <td>").append(emp.getJobTitle()).append("</td>\n");
-                html.append("                        <td>").append(hireDate).append("</td>\n");
-                html.append("                        <td><strong>").append(salary).append("</strong></td>\n");
-                html.append("                        <td>\n");
-                html.append("                            <div class=\"actions\">\n");
-                html.append("                                <a href=\"/employees/view?id=").append(emp.getId()).append("\" class=\"btn btn-info\" style=\"padding: 8px 12px;\">\n");
-                html.append("                                    <i class=\"fas fa-eye\"></i>\n");
-                html.append("                                </a>\n");
-                html.append("                                <a href=\"/employees/edit?id=").append(emp.getId()).append("\" class=\"btn btn-primary\" style=\"padding: 8px 12px;\">\n");
-                html.append("                                    <i class=\"fas fa-edit\"></i>\n");
-                html.append("                                </a>\n");
-                html.append("                                <a href=\"/employees/delete?id=").append(emp.getId()).append("\" \n");
-                html.append("                                   class=\"btn btn-danger\" \n");
-                html.append("                                   style=\"padding: 8px 12px;\"\n");
-                html.append("                                   onclick=\"return confirm('Are you sure you want to delete this employee?');\">\n");
-                html.append("                                    <i class=\"fas fa-trash\"></i>\n");
-                html.append("                                </a>\n");
-                html.append("                            </div>\n");
-                html.append("                        </td>\n");
-                html.append("                    </tr>\n");
+        return HttpResponse.html(PageTemplates.EMPLOYEES, (slot, html) -> {
+            switch (slot) {
+                case "table" -> {
+                    if (page.getItems().isEmpty() && after == null) {
+                        PageTemplates.EMPLOYEES_EMPTY.render(html);
+                    } else {
+                        PageTemplates.EMPLOYEES_TABLE.render(html, (rows, out) -> {
+                            for (Employee emp : page.getItems()) {
+                                writeEmployeeRow(out, emp);
+                            }
+                        });
+                    }
+                }
+                case "pager" -> writePager(html, "/employees", after, page, limit);
+                case "total" -> html.text(total);
             }
-            
-            html.append("                </tbody>\n");
-            html.append("            </table>\n");
+        });
+    }
+    
+    // Keyset pagination parameters: after (a PageToken from the previous page) and limit
+    private static PageToken pageAfter(Map<String, String> params) {
+        String after = params.get("after");
+        return after == null || after.isEmpty() ? null : PageToken.decode(after);
+    }
+    
+    private static int pageLimit(Map<String, String> params) {
+        String limit = params.get("limit");
+        int size = limit == null ? PAGE_SIZE : Integer.parseInt(limit);
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+    
+    private static String pageUrl(String path, PageToken after, int limit) {
+        StringBuilder url = new StringBuilder(path);
+        char separator = '?';
+        if (after != null) {
+            url.append("?after=").append(after.encode());
+            separator = '&';
         }
-        
-        html.append("        </div>\n");
-        html.append("        \n");
-        html.append("        <footer>\n");
-        html.append("            <p>Total Employees: ").append(employees.size()).append(" | \n");
-        html.append("               <a href=\"/api/employees\" style=\"color: #667eea;\">View JSON API</a>\n");
-        html.append("            </p>\n");
-        html.append("        </footer>\n");
-        html.append("    </div>\n");
-        html.append("    \n");
-        html.append("    <script>\n");
-        html.append("        document.getElementById('searchInput').addEventListener('input', function(e) {\n");
-        html.append("            const searchTerm = e.target.value.toLowerCase();\n");
-        html.append("            const rows = document.querySelectorAll('tbody tr');\n");
-        html.append("            \n");
-        html.append("            rows.forEach(row => {\n");
-        html.append("                const text = row.textContent.toLowerCase();\n");
-        html.append("                row.style.display = text.includes(searchTerm) ? '' : 'none';\n");
-        html.append("            });\n");
-        html.append("        });\n");
-        html.append("    </script>\n");
-        html.append("</body>\n");
-        html.append("</html>\n");
-        
-        return html.toString();
+        if (limit != PAGE_SIZE) {
+            url.append(separator).append("limit=").append(limit);
+        }
+        return url.toString();
     }
     
-    private static String getAddEmployeeForm() {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"en\">\n");
-        html.append("<head>\n");
-        html.append("    <meta charset=\"UTF-8\">\n");
-        html.append("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("    <title>Add New Employee</title>\n");
-        html.append("    <style>\n");
-        html.append("        * { margin: 0; padding: 0; box-sizing: border-box; }\n");
-        html.append("        body { \n");
-        html.append("            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; \n");
-        html.append("            background: linear-gradient(135deg, #f5f7fa 0%, #c3cfe2 100%);\n");
-        html.append("            min-height: 100vh;\n");
-        html.append("        }\n");
-        html.append("        .container {\n");
-        html.append("            max-width: 800px;\n");
-        html.append("            margin: 0 auto;\n");
-        html.append("            padding: 30px;\n");
-        html.append("        }\n");
-        html.append("        .form-container {\n");
-        html.append("            background: white;\n");
-        html.append("            padding: 40px;\n");
-        html.append("            border-radius: 15px;\n");
-        html.append("            box-shadow: 0 15px 35px rgba(0, 0, 0, 0.1);\n");
-        html.append("        }\n");
-        html.append("        h1 {\n");
-        html.append("            color: #2d3748;\n");
-        html.append("            margin-bottom: 10px;\n");
-        html.append("            display: flex;\n");
-        html.append("            align-items: center;\n");
-        html.append("            gap: 10px;\n");
-        html.append("        }\n");
-        html.append("        .subtitle {\n");
-        html.append("            color: #718096;\n");
-        html.append("            margin-bottom: 30px;\n");
-        html.append("        }\n");
-        html.append("        .form-group {\n");
-        html.append("            margin-bottom: 25px;\n");
-        html.append("        }\n");
-        html.append("        label {\n");
-        html.append("            display: block;\n");
-        html.append("            margin-bottom: 8px;\n");
-        html.append("            font-weight: 500;\n");
-        html.append("            color: #4a5568;\n");
-        html.append("        }\n");
-        html.append("        input, select, textarea {\n");
-        html.append("            width: 100%;\n");
-        html.append("            padding: 12px 15px;\n");
-        html.append("            border: 2px solid #e2e8f0;\n");
-        html.append("            border-radius: 8px;\n");
-        html.append("            font-size: 16px;\n");
-        html.append("            transition: border-color 0.3s;\n");
-        html.append("        }\n");
-        html.append("        input:focus, select:focus, textarea:focus {\n");
-        html.append("            outline: none;\n");
-        html.append("            border-color: #667eea;\n");
-        html.append("        }\n");
-        html.append("        .form-row {\n");
-        html.append("            display: grid;\n");
-        html.append("            grid-template-columns: 1fr 1fr;\n");
-        html.append("            gap: 20px;\n");
-        html.append("        }\n");
-        html.append("        .btn {\n");
-        html.append("            padding: 12px 30px;\n");
-        html.append("            border: none;\n");
-        html.append("            border-radius: 8px;\n");
-        html.append("            font-size: 16px;\n");
-        html.append("            font-weight: 500;\n");
-        html.append("            cursor: pointer;\n");
-        html.append("            transition: all 0.3s;\n");
-        html.append("            text-decoration: none;\n");
-        html.append("            display: inline-flex;\n");
-        html.append("            align-items: center;\n");
-        html.append("            justify-content: center;\n");
-        html.append("            gap: 8px;\n");
-        html.append("        }\n");
-        html.append("        .btn-primary {\n");
-        html.append("            background: #667eea;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .btn-primary:hover {\n");
-        html.append("            background: #5a67d8;\n");
-        html.append("            transform: translateY(-2px);\n");
-        html.append("            box-shadow: 0 5px 15px rgba(102, 126, 234, 0.4);\n");
-        html.append("        }\n");
-        html.append("        .btn-secondary {\n");
-        html.append("            background: #a0aec0;\n");
-        html.append("            color: white;\n");
-        html.append("        }\n");
-        html.append("        .btn-secondary:hover {\n");
-        html.append("            background: #718096;\n");
-        html.append("        }\n");
-        html.append("        .form-actions {\n");
-        html.append("            display: flex;\n");
-        html.append("            justify-content: space-between;\n");
-        html.append("            margin-top: 40px;\n");
-        html.append("            padding-top: 30px;\n");
-        html.append("            border-top: 2px solid #e2e8f0;\n");
-        html.append("        }\n");
-        html.append("        .back-link {\n");
-        html.append("            color: #667eea;\n");
-        html.append("            text-decoration: none;\n");
-        html.append("            display: flex;\n");
-        html.append("            align-items: center;\n");
-        html.append("            gap: 8px;\n");
-        html.append("            font-weight: 500;\n");
-        html.append("        }\n");
-        html.append("        .back-link:hover {\n");
-        html.append("            color: #5a67d8;\n");
-        html.append("        }\n");
-        html.append("    </style>\n");
-        html.append("    <link rel=\"stylesheet\" href=\"https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css\">\n");
-        html.append("</head>\n");
-        html.append("<body>\n");
-        html.append("    <div class=\"container\">\n");
-        html.append("        <div class=\"form-container\">\n");
-        html.append("            <h1><i class=\"fas fa-user-plus\"></i> Add New Employee</h1>\n");
-        html.append("            <p class=\"subtitle\">Fill in the details below to register a new employee</p>\n");
-        html.append("            \n");
-        html.append("            <form method=\"POST\" action=\"/employees/add\">\n");
-        html.append("                <div class=\"form-row\">\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"firstName\"><i class=\"fas fa-user\"></i> First Name *</label>\n");
-        html.append("                        <input type=\"text\" id=\"firstName\" name=\"firstName\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"lastName\"><i class=\"fas fa-user\"></i> Last Name *</label>\n");
-        html.append("                        <input type=\"text\" id=\"lastName\" name=\"lastName\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-row\">\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"email\"><i class=\"fas fa-envelope\"></i> Email *</label>\n");
-        html.append("                        <input type=\"email\" id=\"email\" name=\"email\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"phone\"><i class=\"fas fa-phone\"></i> Phone</label>\n");
-        html.append("                        <input type=\"tel\" id=\"phone\" name=\"phone\">\n");
-        html.append("                    </div>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-row\">\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"employeeCode\"><i class=\"fas fa-id-card\"></i> Employee Code *</label>\n");
-        html.append("                        <input type=\"text\" id=\"employeeCode\" name=\"employeeCode\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"jobTitle\"><i class=\"fas fa-briefcase\"></i> Job Title *</label>\n");
-        html.append("                        <input type=\"text\" id=\"jobTitle\" name=\"jobTitle\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-row\">\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"hireDate\"><i class=\"fas fa-calendar-alt\"></i> Hire Date *</label>\n");
-        html.append("                        <input type=\"date\" id=\"hireDate\" name=\"hireDate\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                    <div class=\"form-group\">\n");
-        html.append("                        <label for=\"salary\"><i class=\"fas fa-money-bill-wave\"></i> Salary *</label>\n");
-        html.append("                        <input type=\"number\" id=\"salary\" name=\"salary\" step=\"0.01\" min=\"0\" required>\n");
-        html.append("                    </div>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label for=\"departmentId\"><i class=\"fas fa-building\"></i> Department</label>\n");
-        html.append("                    <select id=\"departmentId\" name=\"departmentId\">\n");
-        html.append("                        <option value=\"\">Select Department</option>\n");
-        html.append("                        <option value=\"1\">Engineering</option>\n");
-        html.append("                        <option value=\"2\">Sales</option>\n");
-        html.append("                        <option value=\"3\">Marketing</option>\n");
-        html.append("                        <option value=\"4\">HR</option>\n");
-        html.append("                        <option value=\"5\">Finance</option>\n");
-        html.append("                    </select>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label for=\"address\"><i class=\"fas fa-map-marker-alt\"></i> Address</label>\n");
-        html.append("                    <textarea id=\"address\" name=\"address\" rows=\"3\"></textarea>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-actions\">\n");
-        html.append("                    <a href=\"/employees\" class=\"back-link\">\n");
-        html.append("                        <i class=\"fas fa-arrow-left\"></i> Back to Employees\n");
-        html.append("                    </a>\n");
-        html.append("                    <button type=\"submit\" class=\"btn btn-primary\">\n");
-        html.append("                        <i class=\"fas fa-save\"></i> Save Employee\n");
-        html.append("                    </button>\n");
-        html.append("                </div>\n");
-        html.append("            </form>\n");
-        html.append("        </div>\n");
-        html.append("    </div>\n");
-        html.append("    \n");
-        html.append("    <script>\n");
-        html.append("        // Set today's date as default for hire date\n");
-        html.append("        document.getElementById('hireDate').valueAsDate = new Date();\n");
-        html.append("        \n");
-        html.append("        // Generate employee code based on name\n");
-        html.append("        document.getElementById('firstName').addEventListener('blur', generateEmployeeCode);\n");
-        html.append("        document.getElementById('lastName').addEventListener('blur', generateEmployeeCode);\n");
-        html.append("        \n");
-        html.append("        function generateEmployeeCode() {\n");
-        html.append("            const firstName = document.getElementById('firstName').value;\n");
-        html.append("            const lastName = document.getElementById('lastName').value;\n");
-        html.append("            \n");
-        html.append("            if (firstName && lastName) {\n");
-        html.append("                const code = (firstName.charAt(0) + lastName.charAt(0)).toUpperCase() + \n");
-        html.append("                           Math.floor(1000 + Math.random() * 9000);\n");
-        html.append("                document.getElementById('employeeCode').value = code;\n");
-        html.append("            }\n");
-        html.append("        }\n");
-        html.append("    </script>\n");
-        html.append("</body>\n");
-        html.append("</html>\n");
-        
-        return html.toString();
+    private static void writePager(HtmlWriter html, String path, PageToken after, Page<?> page, int limit)
+            throws IOException {
+        if (after == null && !page.hasNext()) {
+            return;
+        }
+        PageTemplates.PAGER.render(html, (links, out) -> {
+            if (after != null) {
+                writePageLink(out, pageUrl(path, null, limit), "First page");
+            }
+            if (page.hasNext()) {
+                writePageLink(out, pageUrl(path, page.getNext(), limit), "Next page");
+            }
+        });
+    }
+    
+    private static void writePageLink(HtmlWriter html, String href, String label) throws IOException {
+        PageTemplates.PAGE_LINK.render(html, (slot, out) -> {
+            switch (slot) {
+                case "href" -> out.text(href);
+                case "label" -> out.text(label);
+            }
+        });
+    }
+    
+    private static void writeEmployeeRow(HtmlWriter html, Employee emp) throws IOException {
+        PageTemplates.EMPLOYEE_ROW.render(html, (slot, out) -> {
+            switch (slot) {
+                case "initials" -> out.text(initials(emp));
+                case "firstName" -> out.text(emp.getFirstName());
+                case "lastName" -> out.text(emp.getLastName());
+                case "email" -> out.text(emp.getEmail());
+                case "employeeCode" -> out.text(emp.getEmployeeCode());
+                case "department" -> out.text(emp.getDepartmentName() != null ? emp.getDepartmentName() : "Not Assigned");
+                case "jobTitle" -> out.text(emp.getJobTitle());
+                case "hireDate" -> out.text(emp.getHireDate() != null ? emp.getHireDate().format(LIST_DATE_FORMAT) : null);
+                case "salary" -> out.text(emp.getFormattedSalary());
+                case "id" -> out.text(emp.getId());
+            }
+        });
+    }
+    
+    // Pages are rendered after the route returns, so row data must not throw here
+    private static String initials(Employee emp) {
+        String first = emp.getFirstName();
+        String last = emp.getLastName();
+        return ((first == null || first.isEmpty() ? "" : first.substring(0, 1))
+                + (last == null || last.isEmpty() ? "" : last.substring(0, 1))).toUpperCase();
+    }
+    
+    private static HttpResponse getAddEmployeeForm() {
+        return HttpResponse.html(PageTemplates.ADD_EMPLOYEE, (slot, html) -> { });
     }
     
     private static String handleAddEmployee(Map<String, String> params) throws SQLException {
@@ -1020,103 +502,41 @@ public class EmployeeManagementApp {
         }
     }
     
-    private static String getEditEmployeeForm(int id) throws SQLException {
+    private static HttpResponse getEditEmployeeForm(int id) throws SQLException {
         Employee employee = employeeDAO.getEmployeeById(id);
         if (employee == null) {
-            return getNotFoundPage();
+            return HttpResponse.html(getNotFoundPage());
         }
         
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>\n");
-        html.append("<html lang=\"en\">\n");
-        html.append("<head>\n");
-        html.append("    <meta charset=\"UTF-8\">\n");
-        html.append("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
-        html.append("    <title>Edit Employee</title>\n");
-        html.append("    <style>\n");
-        html.append("        * { margin: 0; padding: 0; box-sizing: border-box; }\n");
-        html.append("        body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background: #f5f7fa; }\n");
-        html.append("        .container { max-width: 800px; margin: 50px auto; padding: 30px; }\n");
-        html.append("        .form-container { background: white; padding: 40px; border-radius: 15px; box-shadow: 0 10px 30px rgba(0,0,0,0.1); }\n");
-        html.append("        h1 { color: #2d3748; margin-bottom: 30px; }\n");
-        html.append("        .form-group { margin-bottom: 20px; }\n");
-        html.append("        label { display: block; margin-bottom: 8px; font-weight: 500; color: #4a5568; }\n");
-        html.append("        input, select { width: 100%; padding: 12px; border: 2px solid #e2e8f0; border-radius: 8px; font-size: 16px; }\n");
-        html.append("        .form-actions { margin-top: 30px; display: flex; justify-content: space-between; }\n");
-        html.append("        .btn { padding: 12px 24px; border: none; border-radius: 8px; cursor: pointer; font-weight: 500; }\n");
-        html.append("        .btn-primary { background: #667eea; color: white; }\n");
-        html.append("        .btn-secondary { background: #a0aec0; color: white; }\n");
-        html.append("    </style>\n");
-        html.append("</head>\n");
-        html.append("<body>\n");
-        html.append("    <div class=\"container\">\n");
-        html.append("        <div class=\"form-container\">\n");
-        html.append("            <h1>Edit Employee: ").append(employee.getFirstName()).append(" ").append(employee.getLastName()).append("</h1>\n");
-        html.append("            <form method=\"POST\" action=\"/employees/edit\">\n");
-        html.append("                <input type=\"hidden\" name=\"id\" value=\"").append(employee.getId()).append("\">\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label>Employee Code</label>\n");
-        html.append("                    <input type=\"text\" name=\"employeeCode\" value=\"").append(employee.getEmployeeCode()).append("\" required>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label>Job Title</label>\n");
-        html.append("                    <input type=\"text\" name=\"jobTitle\" value=\"").append(employee.getJobTitle()).append("\" required>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label>Department</label>\n");
-        html.append("                    <select name=\"departmentId\">\n");
-        html.append("                        <option value=\"\">Select Department</option>\n");
-        html.append("                        <option value=\"1\"");
-        if (employee.getDepartmentId() != null && employee.getDepartmentId() == 1) html.append(" selected");
-        html.append(">Engineering</option>\n");
-        html.append("                        <option value=\"2\"");
-        if (employee.getDepartmentId() != null && employee.getDepartmentId() == 2) html.append(" selected");
-        html.append(">Sales</option>\n");
-        html.append("                        <option value=\"3\"");
-        if (employee.getDepartmentId() != null && employee.getDepartmentId() == 3) html.append(" selected");
-        html.append(">Marketing</option>\n");
-        html.append("                        <option value=\"4\"");
-        if (employee.getDepartmentId() != null && employee.getDepartmentId() == 4) html.append(" selected");
-        html.append(">HR</option>\n");
-        html.append("                        <option value=\"5\"");
-        if (employee.getDepartmentId() != null && employee.getDepartmentId() == 5) html.append(" selected");
-        html.append(">Finance</option>\n");
-        html.append("                    </select>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label>Salary</label>\n");
-        html.append("                    <input type=\"number\" name=\"salary\" step=\"0.01\" value=\"").append(employee.getSalary().toPlainString()).append("\" required>\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label>Phone</label>\n");
-        html.append("                    <input type=\"text\" name=\"phone\" value=\"");
-        if (employee.getPhone() != null) html.append(employee.getPhone());
-        html.append("\">\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-group\">\n");
-        html.append("                    <label>Address</label>\n");
-        html.append("                    <input type=\"text\" name=\"address\" value=\"");
-        if (employee.getAddress() != null) html.append(employee.getAddress());
-        html.append("\" style=\"height: 80px;\">\n");
-        html.append("                </div>\n");
-        html.append("                \n");
-        html.append("                <div class=\"form-actions\">\n");
-        html.append("                    <a href=\"/employees\" class=\"btn btn-secondary\">Cancel</a>\n");
-        html.append("                    <button type=\"submit\" class=\"btn btn-primary\">Update Employee</button>\n");
-        html.append("                </div>\n");
-        html.append("            </form>\n");
-        html.append("        </div>\n");
-        html.append("    </div>\n");
-        html.append("</body>\n");
-        html.append("</html>\n");
-        
-        return html.toString();
+        return HttpResponse.html(PageTemplates.EDIT_EMPLOYEE, (slot, html) -> {
+            switch (slot) {
+                case "firstName" -> html.text(employee.getFirstName());
+                case "lastName" -> html.text(employee.getLastName());
+                case "id" -> html.text(employee.getId());
+                case "employeeCode" -> html.text(employee.getEmployeeCode());
+                case "jobTitle" -> html.text(employee.getJobTitle());
+                case "departmentOptions" -> writeDepartmentOptions(html, employee.getDepartmentId());
+                case "salary" -> html.text(employee.getSalary() != null ? employee.getSalary().toPlainString() : null);
+                case "phone" -> html.text(employee.getPhone());
+                case "address" -> html.text(employee.getAddress());
+            }
+        });
+    }
+    
+    private static void writeDepartmentOptions(HtmlWriter html, Integer selectedId) throws IOException {
+        for (int i = 0; i < DEPARTMENT_NAMES.length; i++) {
+            int departmentId = i + 1;
+            String name = DEPARTMENT_NAMES[i];
+            PageTemplates.DEPARTMENT_OPTION.render(html, (slot, out) -> {
+                switch (slot) {
+                    case "id" -> out.text(departmentId);
+                    case "selected" -> {
+                        if (selectedId != null && selectedId == departmentId) out.raw(SELECTED_ATTR);
+                    }
+                    case "name" -> out.text(name);
+                }
+            });
+        }
     }
     
     private static String handleUpdateEmployee(Map<String, String> params) throws SQLException {
@@ -1314,52 +734,239 @@ public class EmployeeManagementApp {
         return html.toString();
     }
     
-    private static String getEmployeesJson() throws SQLException {
-        List<Employee> employees = employeeDAO.getAllEmployees();
-        StringBuilder json = new StringBuilder("[");
+    private static HttpResponse getEmployeesJson(Set<EmployeeField> fields) throws SQLException {
+        RowCursor<Employee> employees = employeeDAO.openAllEmployees(fields);
         
-        for (int i = 0; i < employees.size(); i++) {
-            Employee emp = employees.get(i);
-            json.append(String.format(
-                "{\"id\":%d,\"firstName\":\"%s\",\"lastName\":\"%s\",\"employeeCode\":\"%s\",\"jobTitle\":\"%s\",\"department\":\"%s\",\"email\":\"%s\"}",
-                emp.getId(), emp.getFirstName(), emp.getLastName(), emp.getEmployeeCode(),
-                emp.getJobTitle(), emp.getDepartmentName() != null ? emp.getDepartmentName() : "",
-                emp.getEmail()
-            ));
-            
-            if (i < employees.size() - 1) {
-                json.append(",");
+        return JsonOutput.response(json -> {
+            json.writeStartArray();
+            employees.forEach(emp -> writeEmployeeJson(json, emp, fields));
+            json.writeEndArray();
+        }, employees);
+    }
+    
+    private static HttpResponse getEmployeesJson(PageToken after, int limit, Set<EmployeeField> fields)
+            throws SQLException {
+        Page<Employee> page = employeeDAO.getEmployeesPage(after, limit, fields);
+        
+        HttpResponse response = JsonOutput.response(json -> {
+            json.writeStartArray();
+            for (Employee emp : page.getItems()) {
+                writeEmployeeJson(json, emp, fields);
             }
+            json.writeEndArray();
+        });
+        if (page.hasNext()) {
+            String next = pageUrl("/api/employees", page.getNext(), limit);
+            if (fields != EmployeeField.LIST_DEFAULT) {
+                StringJoiner names = new StringJoiner(",", "&fields=", "");
+                fields.forEach(field -> names.add(field.getApiName()));
+                next += names;
+            }
+            response.withHeader("Link", "<" + next + ">; rel=\"next\"");
         }
+        return response;
+    }
+    
+    private static HttpResponse getEmployeesJson(List<Integer> ids, Set<EmployeeField> fields) throws SQLException {
+        Collection<Employee> employees = employeeDAO.getEmployeesByIds(ids, fields).values();
         
-        json.append("]");
+        return JsonOutput.response(json -> {
+            json.writeStartArray();
+            for (Employee emp : employees) {
+                writeEmployeeJson(json, emp, fields);
+            }
+            json.writeEndArray();
+        });
+    }
+    
+    // Comma-separated ids, at most http.page.maxSize of them
+    private static List<Integer> parseIds(String ids) {
+        List<Integer> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                parsed.add(Integer.parseInt(id.trim()));
+            }
+        }
+        if (parsed.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_PAGE_SIZE + " ids can be requested at once");
+        }
+        return parsed;
+    }
+    
+    private static HttpResponse searchEmployeesJson(String query, Set<EmployeeField> fields, SearchMode mode)
+            throws SQLException {
+        List<Employee> employees = employeeDAO.searchEmployees(query, fields, mode);
         
-        return json.toString();
+        return JsonOutput.response(json -> {
+            json.writeStartObject();
+            json.writeFieldName(JSON_QUERY);
+            json.writeString(query);
+            json.writeFieldName(JSON_RESULTS);
+            json.writeStartArray();
+            for (Employee emp : employees) {
+                writeEmployeeJson(json, emp, fields);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        });
     }
     
-    private static String searchEmployeesJson(String query) throws SQLException {
-        List<Employee> employees = employeeDAO.searchEmployees(query);
-        StringBuilder json = new StringBuilder("{\"query\":\"" + query + "\",\"results\":[");
+    private static HttpResponse suggestEmployeesJson(String query, int limit) throws SQLException {
+        List<SuggestionTrie.Suggestion> suggestions = employeeDAO.suggestEmployees(query, limit);
         
-        for (int i = 0; i < employees.size(); i++) {
-            Employee emp = employees.get(i);
+        return JsonOutput.response(json -> {
+            json.writeStartObject();
+            json.writeFieldName(JSON_QUERY);
+            json.writeString(query);
+            json.writeFieldName(JSON_SUGGESTIONS);
+            json.writeStartArray();
+            for (SuggestionTrie.Suggestion suggestion : suggestions) {
+                json.writeStartObject();
+                json.writeFieldName(JSON_TEXT);
+                json.writeString(suggestion.getText());
+                json.writeFieldName(JSON_FIELD);
+                json.writeString(suggestion.getField().getApiName());
+                json.writeFieldName(JSON_EMPLOYEES);
+                json.writeNumber(suggestion.getEmployeeCount());
+                if (suggestion.getEmployeeId() != 0) {
+                    json.writeFieldName(JSON_ID);
+                    json.writeNumber(suggestion.getEmployeeId());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        });
+    }
+    
+    // Writes the selected fields in EmployeeField order
+    static void writeEmployeeJson(JsonGenerator json, Employee emp, Set<EmployeeField> fields)
+            throws IOException {
+        json.writeStartObject();
+        for (EmployeeField field : fields) {
+            switch (field) {
+                case ID -> {
+                    json.writeFieldName(JSON_ID);
+                    json.writeNumber(emp.getId());
+                }
+                case NAME -> {
+                    json.writeFieldName(JSON_NAME);
+                    json.writeString(emp.getFirstName() + " " + emp.getLastName());
+                }
+                case FIRST_NAME -> {
+                    json.writeFieldName(JSON_FIRST_NAME);
+                    json.writeString(emp.getFirstName());
+                }
+                case LAST_NAME -> {
+                    json.writeFieldName(JSON_LAST_NAME);
+                    json.writeString(emp.getLastName());
+                }
+                case EMPLOYEE_CODE -> {
+                    json.writeFieldName(JSON_EMPLOYEE_CODE);
+                    json.writeString(emp.getEmployeeCode());
+                }
+                case JOB_TITLE -> {
+                    json.writeFieldName(JSON_JOB_TITLE);
+                    json.writeString(emp.getJobTitle());
+                }
+                case DEPARTMENT -> {
+                    json.writeFieldName(JSON_DEPARTMENT);
+                    json.writeString(emp.getDepartmentName() != null ? emp.getDepartmentName() : "");
+                }
+                case EMAIL -> {
+                    json.writeFieldName(JSON_EMAIL);
+                    json.writeString(emp.getEmail());
+                }
+            }
+        }
+        json.writeEndObject();
+    }
+    
+    private static String getPoolStatsJson() {
+        return "{" + getPoolFieldsJson(DatabaseConnection.getPoolStats()) +
+               ",\"statementCacheHits\":" + StatementCache.getHits() +
+               ",\"statementCacheMisses\":" + StatementCache.getMisses() +
+               ",\"statementCacheEvictions\":" + StatementCache.getEvictions() +
+               ",\"statementCacheSize\":" + StatementCache.getCacheSize() +
+               ",\"singleFlightExecutions\":" + SingleFlight.getExecutions() +
+               ",\"singleFlightShared\":" + SingleFlight.getSharedResults() +
+               ",\"batching\":[" + getBatchStatsJson(employeeDAO.getByIdLoader()) +
+               "," + getBatchStatsJson(userDAO.getByIdLoader()) + "]" +
+               ",\"caches\":[" + getCacheStatsJson(employeeDAO.getCache()) +
+               "," + getCacheStatsJson(userCache("users")) +
+               "," + getCacheStatsJson(userCache("usernames")) + "]" +
+               ",\"search\":" + getSearchStatsJson() +
+               ",\"async\":{\"threads\":" + AsyncQueries.getThreadCount() +
+               ",\"active\":" + AsyncQueries.getActiveCount() +
+               ",\"queued\":" + AsyncQueries.getQueuedCount() +
+               ",\"completed\":" + AsyncQueries.getCompletedCount() + "}" +
+               ",\"replicas\":" + getReplicaStatusJson() + "}";
+    }
+    
+    // The fields of one pool and its wait queue, without the enclosing braces
+    private static String getPoolFieldsJson(PoolStats stats) {
+        return "\"maxPoolSize\":" + stats.getMaxPoolSize() +
+               ",\"activeConnections\":" + stats.getActiveConnections() +
+               ",\"idleConnections\":" + stats.getIdleConnections() +
+               ",\"waitingThreads\":" + stats.getWaitingThreads() +
+               ",\"maxWaiters\":" + stats.getMaxWaiters() +
+               ",\"acquisitions\":" + stats.getAcquisitions() +
+               ",\"rejections\":" + stats.getRejections() +
+               ",\"timeouts\":" + stats.getTimeouts() +
+               ",\"averageWaitMicros\":" + stats.getAverageWaitMicros() +
+               ",\"maxWaitMicros\":" + stats.getMaxWaitMicros();
+    }
+    
+    private static String getSearchStatsJson() {
+        TrigramIndex index = EmployeeSearchIndex.getIndex();
+        return String.format(Locale.ROOT, "{\"mode\":\"%s\",\"indexBuilt\":%b,\"indexedEmployees\":%d,\"trigrams\":%d}",
+                SearchMode.getDefault().name().toLowerCase(Locale.ROOT), index != null,
+                index != null ? index.size() : 0, index != null ? index.getTrigramCount() : 0);
+    }
+    
+    private static String getBatchStatsJson(BatchLoader<?, ?> loader) {
+        return String.format(Locale.ROOT,
+                "{\"name\":\"%s\",\"loads\":%d,\"batches\":%d,\"averageBatchSize\":%.2f,\"averageWaitMicros\":%d}",
+                loader.getName(), loader.getLoads(), loader.getBatches(),
+                loader.getAverageBatchSize(), loader.getAverageWaitMicros());
+    }
+    
+    private static EntityCache<?, User> userCache(String name) {
+        for (EntityCache<?, User> cache : userDAO.getCaches()) {
+            if (cache.getName().equals(name)) {
+                return cache;
+            }
+        }
+        throw new IllegalStateException("No user cache named " + name);
+    }
+    
+    private static String getCacheStatsJson(EntityCache<?, ?> cache) {
+        return String.format(Locale.ROOT,
+                "{\"name\":\"%s\",\"size\":%d,\"hits\":%d,\"misses\":%d,\"evictions\":%d}",
+                cache.getName(), cache.size(), cache.getHits(), cache.getMisses(), cache.getEvictions());
+    }
+    
+    private static String getReplicaStatusJson() {
+        StringBuilder json = new StringBuilder("[");
+        List<DatabaseConnection.ReplicaStatus> replicas = DatabaseConnection.getReplicaStatus();
+        for (int i = 0; i < replicas.size(); i++) {
+            DatabaseConnection.ReplicaStatus replica = replicas.get(i);
             json.append(String.format(
-                "{\"id\":%d,\"name\":\"%s %s\",\"employeeCode\":\"%s\",\"jobTitle\":\"%s\"}",
-                emp.getId(), emp.getFirstName(), emp.getLastName(), emp.getEmployeeCode(), emp.getJobTitle()
+                "{\"name\":\"%s\",\"eligible\":%b,\"lagSeconds\":%d,\"activeConnections\":%d,\"pool\":{%s}}",
+                replica.getName(), replica.isEligible(), replica.getLagSeconds(), replica.getActiveConnections(),
+                getPoolFieldsJson(replica.getPoolStats())
             ));
             
-            if (i < employees.size() - 1) {
+            if (i < replicas.size() - 1) {
                 json.append(",");
             }
         }
-        
-        json.append("]}");
-        
+        json.append("]");
         return json.toString();
     }
     
-    private static String getUsersPage() throws SQLException {
-        List<User> users = userDAO.getAllUsers();
+    private static String getUsersPage(PageToken after, int limit) throws SQLException {
+        Page<User> page = userDAO.getUsersPage(after, limit);
         
         StringBuilder html = new StringBuilder();
         html.append("<!DOCTYPE html>\n");
@@ -1387,7 +994,7 @@ public class EmployeeManagementApp {
         html.append("            <th>Status</th>\n");
         html.append("        </tr>\n");
         
-        for (User user : users) {
+        for (User user : page.getItems()) {
             html.append("        <tr>\n");
             html.append("            <td>").append(user.getId()).append("</td>\n");
             html.append("            <td>").append(user.getUsername()).append("</td>\n");
@@ -1399,6 +1006,16 @@ public class EmployeeManagementApp {
         }
         
         html.append("    </table>\n");
+        if (after != null || page.hasNext()) {
+            html.append("    <p style=\"margin-top: 20px;\">\n");
+            if (after != null) {
+                html.append("        <a href=\"").append(pageUrl("/users", null, limit)).append("\" class=\"btn\">First page</a>\n");
+            }
+            if (page.hasNext()) {
+                html.append("        <a href=\"").append(pageUrl("/users", page.getNext(), limit)).append("\" class=\"btn\">Next page</a>\n");
+            }
+            html.append("    </p>\n");
+        }
         html.append("</body>\n");
         html.append("</html>\n");
         
@@ -1465,6 +1082,26 @@ public class EmployeeManagementApp {
         return html.toString();
     }
     
+    private static String getServiceUnavailablePage() {
+        StringBuilder html = new StringBuilder();
+        html.append("<!DOCTYPE html>\n");
+        html.append("<html>\n");
+        html.append("<head>\n");
+        html.append("    <title>Service Unavailable</title>\n");
+        html.append("    <style>\n");
+        html.append("        body { font-family: Arial; padding: 50px; text-align: center; }\n");
+        html.append("        .busy { color: #dd6b20; font-size: 3rem; margin-bottom: 20px; }\n");
+        html.append("    </style>\n");
+        html.append("</head>\n");
+        html.append("<body>\n");
+        html.append("    <div class=\"busy\">503</div>\n");
+        html.append("    <h1>Server Busy</h1>\n");
+        html.append("    <p>The system is handling too many requests right now. Please try again in a moment.</p>\n");
+        html.append("</body>\n");
+        html.append("</html>\n");
+        return html.toString();
+    }
+    
     private static String getNotFoundPage() {
         StringBuilder html = new StringBuilder();
         html.append("<!DOCTYPE html>\n");
@@ -0,0 +1,271 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: EmployeeSearchIndex.java
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * In-memory indexes of employees' searchable text: a {@link TrigramIndex} over
+ * the columns {@link EmployeeDAO#searchEmployees(String)} matches (first name,
+ * last name, job title, employee code and department name), a
+ * {@link SuggestionTrie} of names, codes and job titles for autocompletion, and
+ * a {@link FuzzyIndex} of names and usernames for typo-tolerant search.
+ *
+ * The indexes are read from the primary at startup, or by the first search if
+ * that failed. The employee, user and department DAOs then keep them current:
+ * each write re-reads the rows it changed by key, after committing. If such a
+ * re-read fails, the indexes are dropped and the next search builds them again.
+ * Writes that land while a build is reading the table are re-read before the new
+ * indexes are used.
+ */
+public class EmployeeSearchIndex {
+    private static final String SELECT_INDEXED =
+            "SELECT e.id, u.first_name, u.last_name, e.job_title, e.employee_code, " +
+            "d.name AS department_name, u.username " +
+            "FROM employees e " +
+            "LEFT JOIN users u ON e.user_id = u.id " +
+            "LEFT JOIN departments d ON e.department_id = d.id ";
+    // SELECT_INDEXED has fixed columns, so rows are read by position
+    private static final int ID_COLUMN = 1;
+    private static final int FIELD_COUNT = 6;
+    private static final String SELECT_BY_USER = SELECT_INDEXED + "WHERE e.user_id = ?";
+    private static final String SELECT_BY_DEPARTMENT = SELECT_INDEXED + "WHERE e.department_id = ?";
+
+    // Statements pre-prepared on every pooled connection, see StatementCache
+    static final List<String> PREPARED_SQL = List.of(SELECT_BY_USER, SELECT_BY_DEPARTMENT);
+    // Most other statements built at run time: the reload by ids
+    static final int DYNAMIC_SQL_SHAPES = InList.SHAPES;
+
+    // All indexes, always updated together; fields are in SELECT_INDEXED order
+    private static final class Indexes {
+        final TrigramIndex trigrams = new TrigramIndex();
+        final SuggestionTrie suggestions = new SuggestionTrie();
+        final FuzzyIndex fuzzy = new FuzzyIndex();
+
+        void put(int id, String[] fields) {
+            trigrams.put(id, fields[0], fields[1], fields[2], fields[3], fields[4]);
+            suggestions.put(id, fields[0], fields[1], fields[3], fields[2]);
+            fuzzy.put(id, fields[0], fields[1], fields[5]);
+        }
+
+        void remove(int id) {
+            trigrams.remove(id);
+            suggestions.remove(id);
+            fuzzy.remove(id);
+        }
+    }
+
+    // Null until built, and after a failed refresh
+    private static volatile Indexes indexes;
+    // Ids refreshed while a build is reading the table; null when no build is running
+    private static Set<Integer> refreshedDuringBuild;
+    private static final Object buildLock = new Object();
+    // Refreshes apply in the order they read, so an older row never replaces a newer one
+    private static final Object refreshLock = new Object();
+
+    private EmployeeSearchIndex() {}
+
+    /**
+     * @return the trigram index, building the indexes first if needed, or
+     *         {@code null} if that failed (the failure is logged)
+     */
+    static TrigramIndex get() {
+        try {
+            return build().trigrams;
+        } catch (SQLException e) {
+            System.err.println("Could not build the employee search index: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the suggestion trie, building the indexes first if needed
+     */
+    static SuggestionTrie suggestions() throws SQLException {
+        return build().suggestions;
+    }
+
+    /**
+     * @return the fuzzy index, building the indexes first if needed
+     */
+    static FuzzyIndex fuzzy() throws SQLException {
+        return build().fuzzy;
+    }
+
+    // Reads every employee into new indexes, unless they are already built
+    private static Indexes build() throws SQLException {
+        Indexes current = indexes;
+        if (current != null) {
+            return current;
+        }
+        synchronized (buildLock) {
+            if (indexes != null) {
+                return indexes;
+            }
+            synchronized (EmployeeSearchIndex.class) {
+                refreshedDuringBuild = new HashSet<>();
+            }
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                Indexes next = new Indexes();
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.setFetchSize(DatabaseConnection.getStreamFetchSize());
+                    try (ResultSet rs = stmt.executeQuery(SELECT_INDEXED)) {
+                        putRows(next, rs);
+                    }
+                }
+                while (true) {
+                    Set<Integer> replay;
+                    synchronized (EmployeeSearchIndex.class) {
+                        replay = refreshedDuringBuild;
+                        if (replay.isEmpty()) {
+                            indexes = next;
+                            return next;
+                        }
+                        refreshedDuringBuild = new HashSet<>();
+                    }
+                    reload(conn, next, replay);
+                }
+            } finally {
+                synchronized (EmployeeSearchIndex.class) {
+                    refreshedDuringBuild = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Re-reads employees after they were created or updated, or removes them if
+     * they no longer exist.
+     */
+    static void refresh(Collection<Integer> ids) {
+        refresh(conn -> {
+            reload(conn, target(ids), ids);
+            return ids;
+        });
+    }
+
+    /**
+     * Re-reads the employees showing a user's name, after it changed.
+     */
+    static void refreshUser(int userId) {
+        refresh(conn -> reloadWhere(conn, SELECT_BY_USER, userId));
+    }
+
+    /**
+     * Re-reads the employees showing a department's name, after it changed.
+     */
+    static void refreshDepartment(int departmentId) {
+        refresh(conn -> reloadWhere(conn, SELECT_BY_DEPARTMENT, departmentId));
+    }
+
+    static void remove(int id) {
+        synchronized (refreshLock) {
+            Indexes current = target(List.of(id));
+            if (current != null) {
+                current.remove(id);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Reload {
+        Collection<Integer> run(Connection conn) throws SQLException;
+    }
+
+    private static void refresh(Reload reload) {
+        if (indexes == null && !isBuilding()) {
+            return;
+        }
+        synchronized (refreshLock) {
+            // Called after the write, so the request is pinned and this reads the primary
+            try (Connection conn = DatabaseConnection.getReadConnection()) {
+                reload.run(conn);
+            } catch (SQLException e) {
+                System.err.println("Employee search index is out of date, rebuilding on next search: "
+                        + e.getMessage());
+                indexes = null;
+            }
+        }
+    }
+
+    private static synchronized boolean isBuilding() {
+        return refreshedDuringBuild != null;
+    }
+
+    // The built indexes to update, after noting the ids for a build in progress to re-read
+    private static synchronized Indexes target(Collection<Integer> ids) {
+        if (refreshedDuringBuild != null) {
+            refreshedDuringBuild.addAll(ids);
+        }
+        return indexes;
+    }
+
+    private static Collection<Integer> reloadWhere(Connection conn, String sql, int key) throws SQLException {
+        Map<Integer, String[]> rows = new HashMap<>();
+        try (PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
+            pstmt.setInt(1, key);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.put(rs.getInt(ID_COLUMN), fields(rs));
+                }
+            }
+        }
+        Indexes current = target(rows.keySet());
+        if (current != null) {
+            rows.forEach(current::put);
+        }
+        return rows.keySet();
+    }
+
+    // Puts the ids still in the table and removes the others
+    private static void reload(Connection conn, Indexes target, Collection<Integer> ids) throws SQLException {
+        List<Integer> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        Set<Integer> missing = new HashSet<>(unique);
+        for (List<Integer> chunk : InList.chunks(unique)) {
+            try (PreparedStatement pstmt = StatementCache.prepare(conn,
+                    SELECT_INDEXED + "WHERE e.id IN " + InList.placeholders(chunk.size()))) {
+                InList.bind(pstmt, 1, chunk);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        int id = rs.getInt(ID_COLUMN);
+                        missing.remove(id);
+                        if (target != null) {
+                            target.put(id, fields(rs));
+                        }
+                    }
+                }
+            }
+        }
+        if (target != null) {
+            missing.forEach(target::remove);
+        }
+    }
+
+    private static void putRows(Indexes target, ResultSet rs) throws SQLException {
+        while (rs.next()) {
+            target.put(rs.getInt(ID_COLUMN), fields(rs));
+        }
+    }
+
+    // Every column after the id, read by position
+    private static String[] fields(ResultSet rs) throws SQLException {
+        String[] fields = new String[FIELD_COUNT];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fields[i] = rs.getString(ID_COLUMN + 1 + i);
+        }
+        return fields;
+    }
+
+    /**
+     * @return the built trigram index, for its stats, or {@code null}
+     */
+    public static TrigramIndex getIndex() {
+        Indexes current = indexes;
+        return current != null ? current.trigrams : null;
+    }
+}
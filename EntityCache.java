@@ -0,0 +1,411 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: EntityCache.java
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded in-process cache of entities read by the DAOs, with W-TinyLFU eviction.
+ *
+ * New entries go into a small LRU window (1% of the capacity). Entries that fall
+ * out of the window compete for a place in the main area. A frequency sketch
+ * estimates how often each key was recently requested, and the newcomer is
+ * admitted only if it beats the main area's eviction victim. One-off lookups,
+ * such as a crawl over every employee, therefore cannot flush out the entries
+ * that are read all the time. The main area is a segmented LRU: entries read
+ * again while on probation move to the protected segment (80%).
+ *
+ * Every entry also expires {@code ttl} after it was loaded. Entries are copied
+ * on the way in and out, so callers may change what they get.
+ *
+ * All operations take the cache's lock. Loads run outside it, and a load that
+ * overlaps an invalidation of its key is not stored. Invalidations are tracked
+ * per stripe of keys, so a write to one entity does not stop others from being
+ * cached. {@link #invalidateIf} cannot name its keys, so each put is checked
+ * against the predicates of the most recent such calls instead.
+ */
+public class EntityCache<K, V> {
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("cache.enabled", "true"));
+    public static final long TTL_SECONDS = Long.getLong("cache.ttlSeconds", 300);
+
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    // Keys are spread over this many invalidation stamps (a power of two)
+    private static final int STRIPES = 64;
+    // invalidateIf/invalidateAll calls remembered for checking puts against
+    private static final int RECENT_PREDICATES = 32;
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private record PredicateInvalidation<V>(Predicate<V> stale, long stamp, long millis) {
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        V value;
+        long expiresAtNanos;
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key) {
+            this.key = key;
+        }
+    }
+
+    // Circular list with a sentinel head; head.next is the least recently used
+    private static final class AccessOrder<K, V> {
+        final Node<K, V> head = new Node<>(null);
+        int size;
+
+        AccessOrder() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = head.prev;
+            node.next = head;
+            head.prev.next = node;
+            head.prev = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+
+        Node<K, V> first() {
+            return head.next == head ? null : head.next;
+        }
+    }
+
+    private final String name;
+    private final UnaryOperator<V> copier;
+    private final long ttlNanos;
+    private final int maximumSize;
+    private final int windowMax;
+    private final int protectedMax;
+
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    // Indexed by WINDOW, PROBATION, PROTECTED
+    private final List<AccessOrder<K, V>> queues = List.of(new AccessOrder<>(), new AccessOrder<>(), new AccessOrder<>());
+    private final FrequencySketch sketch;
+    // Bumped by every invalidation; a load that saw another value must not be stored
+    private long generation;
+    // Generation and time of the latest invalidation of any key in each stripe
+    private final long[] stripeStamps = new long[STRIPES];
+    private final long[] stripeMillis = new long[STRIPES];
+    // Latest invalidateIf/invalidateAll calls, oldest first; once one is forgotten, any
+    // load that started before it, or ran within the staleness window after it, is refused
+    private final ArrayDeque<PredicateInvalidation<V>> recentPredicates = new ArrayDeque<>();
+    private long forgottenStamp;
+    private long forgottenMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EntityCache(String name, int maximumSize, long ttlSeconds, UnaryOperator<V> copier) {
+        this.name = name;
+        this.copier = copier;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.maximumSize = Math.max(2, maximumSize);
+        this.windowMax = Math.max(1, this.maximumSize / 100);
+        this.protectedMax = (this.maximumSize - windowMax) * 80 / 100;
+        this.sketch = new FrequencySketch(this.maximumSize);
+    }
+
+    /**
+     * Returns a copy of the cached value, or loads, caches and returns it.
+     * Nothing is cached for a key the loader finds no value for.
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        V loaded = loader.load(key);
+        if (loaded != null) {
+            putIfCurrent(key, loaded, loadGeneration);
+        }
+        return loaded;
+    }
+
+    /**
+     * @return a copy of the cached value, or {@code null} on a miss
+     */
+    public V getIfPresent(K key) {
+        V value;
+        synchronized (this) {
+            sketch.increment(key);
+            Node<K, V> node = data.get(key);
+            if (node != null && node.expiresAtNanos - System.nanoTime() <= 0) {
+                unlink(node);
+                node = null;
+            }
+            if (node == null) {
+                misses.increment();
+                return null;
+            }
+            onHit(node);
+            value = node.value;
+        }
+        hits.increment();
+        return copier.apply(value);
+    }
+
+    /**
+     * Caches a value read from the database, unless the key (or a predicate
+     * matching the value) has been invalidated since {@code loadGeneration}
+     * (see {@link #getGeneration()}).
+     */
+    public void putIfCurrent(K key, V value, long loadGeneration) {
+        V copy = copier.apply(value);
+        synchronized (this) {
+            if (isStale(key, copy, loadGeneration)) {
+                return;
+            }
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                node.value = copy;
+                node.expiresAtNanos = System.nanoTime() + ttlNanos;
+                onHit(node);
+                return;
+            }
+            node = new Node<>(key);
+            node.value = copy;
+            node.expiresAtNanos = System.nanoTime() + ttlNanos;
+            node.queue = WINDOW;
+            data.put(key, node);
+            queues.get(WINDOW).addLast(node);
+            evictFromWindow();
+        }
+    }
+
+    /**
+     * @return the stamp to pass to {@link #putIfCurrent}, taken before loading
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    public synchronized void invalidate(K key) {
+        int stripe = stripe(key);
+        stripeStamps[stripe] = ++generation;
+        stripeMillis[stripe] = System.currentTimeMillis();
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            unlink(node);
+        }
+    }
+
+    /**
+     * Drops every entry whose value matches, e.g. all employees of a renamed department.
+     */
+    public synchronized void invalidateIf(Predicate<V> stale) {
+        rememberPredicate(stale);
+        Iterator<Node<K, V>> nodes = data.values().iterator();
+        while (nodes.hasNext()) {
+            Node<K, V> node = nodes.next();
+            if (stale.test(node.value)) {
+                queues.get(node.queue).remove(node);
+                nodes.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        rememberPredicate(value -> true);
+        for (Node<K, V> node : data.values()) {
+            queues.get(node.queue).remove(node);
+        }
+        data.clear();
+    }
+
+    private void rememberPredicate(Predicate<V> stale) {
+        if (recentPredicates.size() == RECENT_PREDICATES) {
+            PredicateInvalidation<V> forgotten = recentPredicates.removeFirst();
+            forgottenStamp = forgotten.stamp();
+            forgottenMillis = forgotten.millis();
+        }
+        recentPredicates.addLast(new PredicateInvalidation<>(stale, ++generation, System.currentTimeMillis()));
+    }
+
+    /**
+     * Whether a value loaded at {@code loadGeneration} may predate a write to its
+     * key, or may have come from a replica that had not yet seen such a write.
+     * Caller holds the lock.
+     */
+    private boolean isStale(K key, V value, long loadGeneration) {
+        long now = System.currentTimeMillis();
+        long staleness = DatabaseConnection.getMaxReadStalenessMillis();
+        int stripe = stripe(key);
+        if (stripeStamps[stripe] > loadGeneration || now - stripeMillis[stripe] < staleness) {
+            return true;
+        }
+        if (forgottenStamp > loadGeneration || now - forgottenMillis < staleness) {
+            return true;
+        }
+        for (PredicateInvalidation<V> invalidation : recentPredicates) {
+            if ((invalidation.stamp() > loadGeneration || now - invalidation.millis() < staleness)
+                    && invalidation.stale().test(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int stripe(Object key) {
+        return FrequencySketch.spread(key.hashCode()) & (STRIPES - 1);
+    }
+
+    private void onHit(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW, PROTECTED -> queues.get(node.queue).moveToLast(node);
+            case PROBATION -> {
+                // Read again while on probation: promote, demoting protected's LRU if it is full
+                queues.get(PROBATION).remove(node);
+                node.queue = PROTECTED;
+                queues.get(PROTECTED).addLast(node);
+                if (queues.get(PROTECTED).size > protectedMax) {
+                    Node<K, V> demoted = queues.get(PROTECTED).first();
+                    queues.get(PROTECTED).remove(demoted);
+                    demoted.queue = PROBATION;
+                    queues.get(PROBATION).addLast(demoted);
+                }
+            }
+        }
+    }
+
+    // Moves the window's overflow into the main area, through the TinyLFU admission filter
+    private void evictFromWindow() {
+        while (queues.get(WINDOW).size > windowMax) {
+            Node<K, V> candidate = queues.get(WINDOW).first();
+            queues.get(WINDOW).remove(candidate);
+            candidate.queue = PROBATION;
+            queues.get(PROBATION).addLast(candidate);
+            if (data.size() <= maximumSize) {
+                continue;
+            }
+            Node<K, V> victim = queues.get(PROBATION).first();
+            if (victim == candidate) {
+                victim = queues.get(PROTECTED).first();
+            }
+            Node<K, V> evicted = sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate;
+            unlink(evicted);
+            evictions.increment();
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        queues.get(node.queue).remove(node);
+        data.remove(node.key);
+    }
+
+    public String getName() { return name; }
+    public synchronized int size() { return data.size(); }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    /**
+     * Count-min sketch of recent key frequencies: four 4-bit counters per key,
+     * the estimate being the smallest. All counters are halved every
+     * {@code 10 * maximumSize} increments, so old popularity fades out.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] counters = new byte[DEPTH][];
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize * 2 - 1)) << 1;
+            for (int i = 0; i < DEPTH; i++) {
+                counters[i] = new byte[width];
+            }
+            mask = width - 1;
+            sampleSize = 10 * maximumSize;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(hash, i);
+                if (counters[i][index] < MAX_COUNT) {
+                    counters[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 17;
+            hash *= 0xED5AD4BB;
+            return hash ^ (hash >>> 11);
+        }
+    }
+}
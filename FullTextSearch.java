@@ -0,0 +1,64 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: FullTextSearch.java
+
+import java.util.Locale;
+
+/**
+ * SQL fragments and keyword handling for {@link SearchMode#FULLTEXT}, which
+ * matches with {@code MATCH ... AGAINST} on the FULLTEXT indexes from
+ * {@code company_db.sql} and ranks by relevance.
+ *
+ * In boolean mode (the default) every word of the keyword is a prefix term, so
+ * "jo eng" finds "John" and "Engineering" as the user types; rows matching more
+ * words rank higher. Natural language mode passes the keyword through unchanged
+ * and matches whole words only. Either way, words shorter than the server's
+ * {@code innodb_ft_min_token_size} (3 by default) and stopwords are not indexed,
+ * and so cannot be found.
+ */
+public class FullTextSearch {
+    public static final boolean BOOLEAN_MODE =
+            !"natural".equals(System.getProperty("search.fulltext.mode", "boolean").toLowerCase(Locale.ROOT));
+    // Most rows a FULLTEXT search returns, best first
+    public static final int LIMIT = Integer.getInteger("search.fulltext.limit", 100);
+
+    private static final String AGAINST =
+            BOOLEAN_MODE ? " AGAINST (? IN BOOLEAN MODE)" : " AGAINST (? IN NATURAL LANGUAGE MODE)";
+
+    private FullTextSearch() {}
+
+    /**
+     * @return {@code MATCH (columns) AGAINST (? IN ... MODE)}; the columns must be
+     *         exactly those of one FULLTEXT index
+     */
+    static String match(String columns) {
+        return "MATCH (" + columns + ")" + AGAINST;
+    }
+
+    /**
+     * The keyword as bound to {@link #match(String)}. Boolean mode keeps only the
+     * words, as prefix terms, so operators typed into a search box are not
+     * interpreted.
+     *
+     * @return the terms, or an empty string if there is nothing to search for
+     */
+    static String terms(String keyword) {
+        if (!BOOLEAN_MODE) {
+            return keyword.trim();
+        }
+        StringBuilder terms = new StringBuilder();
+        for (String word : keyword.split("[^\\p{L}\\p{N}_]+")) {
+            if (!word.isEmpty()) {
+                if (terms.length() > 0) {
+                    terms.append(' ');
+                }
+                terms.append(word).append('*');
+            }
+        }
+        return terms.toString();
+    }
+}
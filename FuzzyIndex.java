@@ -0,0 +1,348 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: FuzzyIndex.java
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant search over employees' first names, last names and usernames,
+ * so that "Jonh Deo" finds John Doe.
+ *
+ * Every distinct word is a node of a BK-tree keyed by Damerau-Levenshtein
+ * distance (insertions, deletions, substitutions and transpositions of adjacent
+ * letters). The triangle inequality lets a lookup skip every subtree whose words
+ * must be too far from the query word, so it compares the query against a small
+ * part of the vocabulary rather than every employee. Each query word may be
+ * {@link #maxEdits(int)} edits from a match.
+ *
+ * An employee matches if every query word matches one of their words. Results
+ * rank by the total edits needed (fewest first), then by the total weight of
+ * the fields matched ({@code search.fuzzy.weight.*}).
+ *
+ * Removed words stay in the tree with no employees until the index is rebuilt.
+ * Lookups share a lock; {@link #put} and {@link #remove} take it exclusively.
+ */
+public class FuzzyIndex {
+    // Edits allowed for a long query word; shorter words get fewer, see maxEdits
+    public static final int MAX_DISTANCE = Integer.getInteger("search.fuzzy.maxDistance", 2);
+    // Most employees a fuzzy search returns, best first
+    public static final int LIMIT = Integer.getInteger("search.fuzzy.limit", 100);
+
+    enum Field {
+        FIRST_NAME("firstName", 2),
+        LAST_NAME("lastName", 3),
+        USERNAME("username", 1);
+
+        final int weight;
+
+        Field(String key, int weight) {
+            this.weight = Integer.getInteger("search.fuzzy.weight." + key, weight);
+        }
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        final String word;
+        // Employees having this word, per Field ordinal
+        final IdSet[] employees = new IdSet[Field.values().length];
+        // Child at distance d from this word is children[d]
+        Node[] children = NO_CHILDREN;
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+
+    // Best way one employee matched one query word
+    private static final class Hit {
+        int distance = Integer.MAX_VALUE;
+        int weight;
+
+        void offer(int distance, int weight) {
+            if (distance < this.distance || (distance == this.distance && weight > this.weight)) {
+                this.distance = distance;
+                this.weight = weight;
+            }
+        }
+    }
+
+    private Node root;
+    private final Map<String, Node> nodes = new HashMap<>();
+    // Nodes holding each employee, to undo put
+    private final Map<Integer, Node[]> byEmployee = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds an employee's words, replacing any they had. Null values are skipped.
+     */
+    public void put(int id, String firstName, String lastName, String username) {
+        lock.writeLock().lock();
+        try {
+            removeEmployee(id);
+            List<Node> held = new ArrayList<>();
+            addWords(held, id, Field.FIRST_NAME, firstName);
+            addWords(held, id, Field.LAST_NAME, lastName);
+            addWords(held, id, Field.USERNAME, username);
+            byEmployee.put(id, held.toArray(new Node[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeEmployee(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the ids of up to {@code limit} employees matching every word of
+     *         {@code query}, best match first
+     */
+    public int[] search(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            // Employees matching every word so far, with how well they matched each
+            Map<Integer, Hit[]> candidates = null;
+            for (int w = 0; w < words.size(); w++) {
+                Map<Integer, Hit> hits = new HashMap<>();
+                collect(words.get(w), hits);
+                if (candidates == null) {
+                    candidates = new HashMap<>(hits.size() * 2);
+                    for (Map.Entry<Integer, Hit> hit : hits.entrySet()) {
+                        Hit[] perWord = new Hit[words.size()];
+                        perWord[0] = hit.getValue();
+                        candidates.put(hit.getKey(), perWord);
+                    }
+                } else {
+                    Iterator<Map.Entry<Integer, Hit[]>> it = candidates.entrySet().iterator();
+                    while (it.hasNext()) {
+                        Map.Entry<Integer, Hit[]> candidate = it.next();
+                        Hit hit = hits.get(candidate.getKey());
+                        if (hit == null) {
+                            it.remove();
+                        } else {
+                            candidate.getValue()[w] = hit;
+                        }
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    return new int[0];
+                }
+            }
+            return rank(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Edits a query word of {@code length} characters may be from a match: one
+     * per three characters, up to {@link #MAX_DISTANCE}. Without the scaling a
+     * three-letter word two edits away would match most other short words.
+     */
+    static int maxEdits(int length) {
+        return Math.min(MAX_DISTANCE, length / 3);
+    }
+
+    // Caller holds the read lock
+    private void collect(String word, Map<Integer, Hit> hits) {
+        if (root == null) {
+            return;
+        }
+        int maxEdits = maxEdits(word.length());
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(word, node.word);
+            if (distance <= maxEdits) {
+                for (Field field : Field.values()) {
+                    IdSet ids = node.employees[field.ordinal()];
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < ids.size; i++) {
+                        hits.computeIfAbsent(ids.ids[i], id -> new Hit()).offer(distance, field.weight);
+                    }
+                }
+            }
+            // Only children within maxEdits of distance can hold words within maxEdits of the query
+            int from = Math.max(1, distance - maxEdits);
+            int to = Math.min(node.children.length - 1, distance + maxEdits);
+            for (int d = from; d <= to; d++) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+    }
+
+    private static int[] rank(Map<Integer, Hit[]> candidates, int limit) {
+        int n = candidates.size();
+        int[] ids = new int[n];
+        int[] distances = new int[n];
+        int[] weights = new int[n];
+        Integer[] order = new Integer[n];
+        int i = 0;
+        for (Map.Entry<Integer, Hit[]> candidate : candidates.entrySet()) {
+            ids[i] = candidate.getKey();
+            for (Hit hit : candidate.getValue()) {
+                distances[i] += hit.distance;
+                weights[i] += hit.weight;
+            }
+            order[i] = i;
+            i++;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(c -> distances[c])
+                .thenComparingInt(c -> -weights[c])
+                .thenComparingInt(c -> ids[c]));
+        int[] ranked = new int[Math.min(limit, n)];
+        for (int r = 0; r < ranked.length; r++) {
+            ranked[r] = ids[order[r]];
+        }
+        return ranked;
+    }
+
+    // Caller holds the write lock
+    private void addWords(List<Node> held, int id, Field field, String text) {
+        if (text == null) {
+            return;
+        }
+        for (String word : words(text)) {
+            Node node = nodes.get(word);
+            if (node == null) {
+                node = new Node(word);
+                nodes.put(word, node);
+                insert(node);
+            }
+            IdSet ids = node.employees[field.ordinal()];
+            if (ids == null) {
+                ids = new IdSet();
+                node.employees[field.ordinal()] = ids;
+            }
+            ids.add(id);
+            held.add(node);
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeEmployee(int id) {
+        Node[] held = byEmployee.remove(id);
+        if (held == null) {
+            return;
+        }
+        for (Node node : held) {
+            for (IdSet ids : node.employees) {
+                if (ids != null) {
+                    ids.remove(id);
+                }
+            }
+        }
+    }
+
+    private void insert(Node node) {
+        if (root == null) {
+            root = node;
+            return;
+        }
+        Node parent = root;
+        while (true) {
+            int distance = distance(node.word, parent.word);
+            if (distance >= parent.children.length) {
+                parent.children = Arrays.copyOf(parent.children, distance + 1);
+            }
+            Node child = parent.children[distance];
+            if (child == null) {
+                parent.children[distance] = node;
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    /**
+     * Damerau-Levenshtein distance: the fewest insertions, deletions,
+     * substitutions and adjacent transpositions turning {@code a} into
+     * {@code b}. Unlike the restricted (optimal string alignment) variant it is a
+     * metric, which the BK-tree relies on.
+     */
+    static int distance(String a, String b) {
+        int n = a.length();
+        int m = b.length();
+        int infinity = n + m;
+        int width = m + 2;
+        // (n + 2) x (m + 2) table, row-major; row 0 and column 0 are the infinity border
+        int[] d = new int[(n + 2) * width];
+        d[0] = infinity;
+        for (int i = 0; i <= n; i++) {
+            d[(i + 1) * width] = infinity;
+            d[(i + 1) * width + 1] = i;
+        }
+        for (int j = 0; j <= m; j++) {
+            d[j + 1] = infinity;
+            d[width + j + 1] = j;
+        }
+        // For each position of b, the last row of a holding the same character
+        int[] lastRow = new int[m];
+        for (int i = 1; i <= n; i++) {
+            char ac = a.charAt(i - 1);
+            int lastMatchColumn = 0;
+            for (int j = 1; j <= m; j++) {
+                int i1 = lastRow[j - 1];
+                int j1 = lastMatchColumn;
+                int cost = 1;
+                if (ac == b.charAt(j - 1)) {
+                    cost = 0;
+                    lastMatchColumn = j;
+                }
+                d[(i + 1) * width + j + 1] = Math.min(
+                        Math.min(d[i * width + j] + cost, d[(i + 1) * width + j] + 1),
+                        Math.min(d[i * width + j + 1] + 1, d[i1 * width + j1] + (i - i1 - 1) + 1 + (j - j1 - 1)));
+            }
+            for (int j = 0; j < m; j++) {
+                if (b.charAt(j) == ac) {
+                    lastRow[j] = i;
+                }
+            }
+        }
+        return d[(n + 1) * width + m + 1];
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the number of distinct words in the tree, including removed ones
+     */
+    public int getWordCount() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: HtmlTemplate.java
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HTML template with {@code {{name}}} slots. Compiling splits the source at the
+ * slots and encodes the static fragments to UTF-8 once. Rendering writes those
+ * bytes and asks the caller for each slot's value in document order.
+ */
+public class HtmlTemplate {
+
+    /**
+     * Writes the value of one slot. Called once per slot occurrence, in order.
+     */
+    @FunctionalInterface
+    public interface Slots {
+        void write(String slot, HtmlWriter html) throws IOException;
+    }
+
+    private final byte[][] fragments;
+    private final String[] slots;
+    private final int staticSize;
+
+    private HtmlTemplate(byte[][] fragments, String[] slots) {
+        this.fragments = fragments;
+        this.slots = slots;
+        int size = 0;
+        for (byte[] fragment : fragments) {
+            size += fragment.length;
+        }
+        this.staticSize = size;
+    }
+
+    /**
+     * @throws IllegalArgumentException if a slot is not closed
+     */
+    public static HtmlTemplate compile(String source) {
+        List<byte[]> fragments = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        int from = 0;
+        int open;
+        while ((open = source.indexOf("{{", from)) >= 0) {
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed slot at offset " + open);
+            }
+            fragments.add(source.substring(from, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(source.substring(open + 2, close).trim());
+            from = close + 2;
+        }
+        fragments.add(source.substring(from).getBytes(StandardCharsets.UTF_8));
+        return new HtmlTemplate(fragments.toArray(new byte[0][]), slots.toArray(new String[0]));
+    }
+
+    public void render(HtmlWriter html, Slots values) throws IOException {
+        for (int i = 0; i < slots.length; i++) {
+            html.raw(fragments[i]);
+            values.write(slots[i], html);
+        }
+        html.raw(fragments[slots.length]);
+    }
+
+    /**
+     * Renders a template without slots.
+     */
+    public void render(HtmlWriter html) throws IOException {
+        render(html, (slot, out) -> { });
+    }
+
+    /**
+     * Bytes of static markup; a lower bound for the rendered size.
+     */
+    public int getStaticSize() {
+        return staticSize;
+    }
+}
@@ -0,0 +1,126 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: HtmlWriter.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffered UTF-8 byte writer for HTML. Pre-encoded fragments are copied as is.
+ * Dynamic text is HTML-escaped and UTF-8 encoded in the same pass, straight into
+ * the buffer, without intermediate Strings or byte arrays.
+ */
+public class HtmlWriter {
+    private static final byte[] AMP = {'&', 'a', 'm', 'p', ';'};
+    private static final byte[] LT = {'&', 'l', 't', ';'};
+    private static final byte[] GT = {'&', 'g', 't', ';'};
+    private static final byte[] QUOT = {'&', 'q', 'u', 'o', 't', ';'};
+    private static final byte[] APOS = {'&', '#', '3', '9', ';'};
+    // Longest thing written per char: "&quot;"
+    private static final int MAX_CHAR_BYTES = 6;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+
+    public HtmlWriter(OutputStream out) {
+        this(out, 8192);
+    }
+
+    public HtmlWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Writes bytes that are already UTF-8 encoded and safe HTML.
+     */
+    public HtmlWriter raw(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - count) {
+            flushBuffer();
+            if (bytes.length >= buffer.length) {
+                out.write(bytes);
+                return this;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+        return this;
+    }
+
+    /**
+     * Writes text with {@code & < > " '} escaped, so it is safe both in element
+     * content and in quoted attribute values. {@code null} writes nothing.
+     */
+    public HtmlWriter text(String text) throws IOException {
+        if (text == null) {
+            return this;
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.length - count < MAX_CHAR_BYTES) {
+                flushBuffer();
+            }
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                switch (c) {
+                    case '&' -> put(AMP);
+                    case '<' -> put(LT);
+                    case '>' -> put(GT);
+                    case '"' -> put(QUOT);
+                    case '\'' -> put(APOS);
+                    default -> buffer[count++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xc0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, text.charAt(++i));
+                buffer[count++] = (byte) (0xf0 | (cp >> 18));
+                buffer[count++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                buffer[count++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                buffer[count++] = (byte) (0x80 | (cp & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: same replacement String.getBytes(UTF_8) uses
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xe0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                buffer[count++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return this;
+    }
+
+    public HtmlWriter text(long value) throws IOException {
+        if (buffer.length - count < 20) {
+            flushBuffer();
+        }
+        // Digits and '-' need no escaping
+        String digits = Long.toString(value);
+        for (int i = 0; i < digits.length(); i++) {
+            buffer[count++] = (byte) digits.charAt(i);
+        }
+        return this;
+    }
+
+    /**
+     * Pushes buffered bytes to the underlying stream (without flushing it).
+     */
+    public void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void put(byte[] entity) {
+        System.arraycopy(entity, 0, buffer, count, entity.length);
+        count += entity.length;
+    }
+}
@@ -0,0 +1,151 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: HttpRequest.java
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A parsed HTTP request as read by either server front end.
+ */
+public class HttpRequest {
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private final String method;
+    private final String target;
+    private final String version;
+    private final Map<String, String> headers;
+    private final String body;
+
+    public HttpRequest(String method, String target, String version, Map<String, String> headers, String body) {
+        this.method = method;
+        this.target = target;
+        this.version = version;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Parses the request line and header lines of a request head.
+     *
+     * @return the request without a body, or {@code null} if the request line is malformed
+     */
+    public static HttpRequest parseHead(String requestLine, Iterable<String> headerLines) {
+        String[] requestParts = requestLine.split(" ");
+        if (requestParts.length < 2) {
+            return null;
+        }
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String line : headerLines) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        String version = requestParts.length > 2 ? requestParts[2] : "HTTP/1.0";
+        return new HttpRequest(requestParts[0], requestParts[1], version, headers, "");
+    }
+
+    /**
+     * Reads one request (head and Content-Length body) from a connection stream,
+     * leaving any pipelined requests that follow it unread.
+     *
+     * @return the request, or {@code null} if the peer closed the connection between requests
+     */
+    public static HttpRequest read(InputStream in) throws IOException {
+        String requestLine = readLine(in);
+        // Tolerate blank lines between requests (RFC 9112, section 2.2)
+        while (requestLine != null && requestLine.isEmpty()) {
+            requestLine = readLine(in);
+        }
+        if (requestLine == null) {
+            return null;
+        }
+
+        List<String> headerLines = new ArrayList<>();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            headerLines.add(line);
+        }
+        HttpRequest request = parseHead(requestLine, headerLines);
+        if (request == null) {
+            throw new IOException("Malformed request line: " + requestLine);
+        }
+
+        int contentLength = request.getContentLength();
+        if (contentLength > 0) {
+            byte[] body = in.readNBytes(contentLength);
+            if (body.length < contentLength) {
+                throw new EOFException("Request body truncated");
+            }
+            request = request.withBody(new String(body, StandardCharsets.UTF_8));
+        }
+        return request;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+            }
+            if (line.size() >= MAX_LINE_LENGTH) {
+                throw new IOException("Request line too long");
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * HTTP/1.1 connections persist unless the client sends {@code Connection: close};
+     * HTTP/1.0 connections only persist with {@code Connection: keep-alive}.
+     */
+    public boolean isKeepAlive() {
+        String connection = headers.get("Connection");
+        if ("HTTP/1.1".equals(version)) {
+            return connection == null || !connection.equalsIgnoreCase("close");
+        }
+        return connection != null && connection.equalsIgnoreCase("keep-alive");
+    }
+
+    public HttpRequest withBody(String body) {
+        return new HttpRequest(method, target, version, headers, body);
+    }
+
+    /**
+     * @return the declared body length, 0 when absent or invalid
+     */
+    public int getContentLength() {
+        String value = headers.get("Content-Length");
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public String getMethod() { return method; }
+    public String getTarget() { return target; }
+    public String getVersion() { return version; }
+    public Map<String, String> getHeaders() { return headers; }
+    public String getHeader(String name) { return headers.get(name); }
+    public String getBody() { return body; }
+}
@@ -0,0 +1,322 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: HttpResponse.java
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Status, headers and body produced by a route in {@link EmployeeManagementApp}.
+ */
+public class HttpResponse {
+
+    /**
+     * Produces the body directly into the connection (or a buffer) as bytes.
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private static final String HTML = "text/html; charset=UTF-8";
+    private static final String JSON = "application/json; charset=UTF-8";
+
+    private final int statusCode;
+    private final String reasonPhrase;
+    private final String contentType;
+    private final String body;
+    // Set instead of body for streamed bodies; sizeHint is a lower bound on their length
+    private final BodyWriter bodyWriter;
+    private final int sizeHint;
+    // Held open while the body is written (e.g. a RowCursor) and closed afterwards
+    private final AutoCloseable resource;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    // Coding negotiated with the client (null = identity); applied when the body is written
+    private String contentEncoding;
+    private boolean chunkedAllowed;
+
+    public HttpResponse(int statusCode, String reasonPhrase, String contentType, String body) {
+        this(statusCode, reasonPhrase, contentType, body, null, body.length(), null);
+    }
+
+    private HttpResponse(int statusCode, String reasonPhrase, String contentType,
+                         String body, BodyWriter bodyWriter, int sizeHint, AutoCloseable resource) {
+        this.statusCode = statusCode;
+        this.reasonPhrase = reasonPhrase;
+        this.contentType = contentType;
+        this.body = body;
+        this.bodyWriter = bodyWriter;
+        this.sizeHint = sizeHint;
+        this.resource = resource;
+    }
+
+    public static HttpResponse html(String body) {
+        return new HttpResponse(200, "OK", HTML, body);
+    }
+
+    /**
+     * Page rendered from a template when the response is written. Its static
+     * markup is copied as pre-encoded bytes, and the slots are encoded once,
+     * straight into the output.
+     */
+    public static HttpResponse html(HtmlTemplate template, HtmlTemplate.Slots slots) {
+        return html(template, slots, null);
+    }
+
+    /**
+     * Template page whose slots read rows from {@code rows} while the response is
+     * written; {@code rows} is closed once the body has been sent.
+     */
+    public static HttpResponse html(HtmlTemplate template, HtmlTemplate.Slots slots, AutoCloseable rows) {
+        BodyWriter writer = out -> {
+            HtmlWriter html = new HtmlWriter(out);
+            template.render(html, slots);
+            html.flushBuffer();
+        };
+        return new HttpResponse(200, "OK", HTML, null, writer, template.getStaticSize(), rows);
+    }
+
+    /**
+     * JSON body produced while the response is written. {@code rows}, if not null,
+     * is what the body reads from; it is closed once the body has been sent.
+     */
+    public static HttpResponse json(BodyWriter writer, AutoCloseable rows) {
+        return new HttpResponse(200, "OK", JSON, null, writer, Integer.MAX_VALUE, rows);
+    }
+
+    public static HttpResponse json(String body) {
+        return new HttpResponse(200, "OK", JSON, body);
+    }
+
+    public static HttpResponse serviceUnavailable(String body, int retryAfterSeconds) {
+        return new HttpResponse(503, "Service Unavailable", HTML, body)
+                .withHeader("Retry-After", String.valueOf(retryAfterSeconds));
+    }
+
+    /**
+     * 304 for a conditional GET; carries the validators but no body.
+     */
+    public static HttpResponse notModified(String etag, String lastModified) {
+        return new HttpResponse(304, "Not Modified", null, "")
+                .withHeader("ETag", etag)
+                .withHeader("Last-Modified", lastModified)
+                .withHeader("Cache-Control", "no-cache")
+                .withHeader("Vary", "Accept-Encoding");
+    }
+
+    public HttpResponse withHeader(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    /**
+     * Marks the response as sent on a persistent connection. Without this the
+     * response carries {@code Connection: close}.
+     */
+    public HttpResponse keepAlive(int timeoutSeconds, int remainingRequests) {
+        headers.put("Connection", "keep-alive");
+        headers.put("Keep-Alive", "timeout=" + timeoutSeconds + ", max=" + remainingRequests);
+        return this;
+    }
+
+    /**
+     * Chooses gzip/deflate from the request's {@code Accept-Encoding} for text and
+     * JSON bodies. Whether the body is actually compressed is decided when it is
+     * written, by {@link ResponseCompression#MIN_SIZE}.
+     */
+    public HttpResponse negotiateEncoding(HttpRequest request) {
+        if (ResponseCompression.isCompressible(contentType)) {
+            headers.put("Vary", "Accept-Encoding");
+            contentEncoding = ResponseCompression.negotiate(request.getHeader("Accept-Encoding"));
+        }
+        chunkedAllowed = "HTTP/1.1".equals(request.getVersion());
+        return this;
+    }
+
+    public boolean isKeepAlive() {
+        return "keep-alive".equals(headers.get("Connection"));
+    }
+
+    public int getStatusCode() { return statusCode; }
+    public String getReasonPhrase() { return reasonPhrase; }
+    public String getContentType() { return contentType; }
+    public String getBody() {
+        return bodyWriter == null ? body : new String(renderBody(), StandardCharsets.UTF_8);
+    }
+    public Map<String, String> getHeaders() { return headers; }
+
+    /**
+     * True if the body is produced from an open resource (rows read while writing) and
+     * is written to the connection as it is produced rather than buffered. Clients that
+     * cannot take chunked responses get a body delimited by closing the connection.
+     */
+    public boolean isStreaming() {
+        return resource != null;
+    }
+
+    /**
+     * Closes the resource backing a streamed body. Called after writing; safe to call again.
+     */
+    public void release() {
+        if (resource == null) {
+            return;
+        }
+        try {
+            resource.close();
+        } catch (Exception e) {
+            System.err.println("Error releasing response resource: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the response to a connection stream. Large compressible bodies are
+     * compressed straight into the stream with chunked transfer coding, so neither
+     * the encoded nor the compressed body is ever held in memory whole.
+     *
+     * <p>If a streamed body fails part way, the exception is rethrown without
+     * ending the body, and the connection must be closed rather than reused.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (bodyWriter != null && (chunkedAllowed || resource != null)) {
+            // Length unknown until rendered: stream it as chunks, compressed if worthwhile
+            String encoding = sizeHint >= ResponseCompression.MIN_SIZE ? contentEncoding : null;
+            OutputStream framed;
+            if (chunkedAllowed) {
+                out.write(head(-1, encoding));
+                framed = new ChunkedOutputStream(out);
+            } else {
+                // HTTP/1.0: the end of the body is marked by closing the connection
+                headers.put("Connection", "close");
+                headers.remove("Keep-Alive");
+                out.write(head(-2, encoding));
+                framed = new FilterOutputStream(out) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                };
+            }
+            OutputStream target = encoding != null ? ResponseCompression.compress(encoding, framed) : framed;
+            try {
+                bodyWriter.writeTo(target);
+                target.close();
+            } catch (IOException | RuntimeException e) {
+                // Leave the body unterminated (no compression trailer, no last chunk) so the
+                // client sees a broken transfer; the caller then closes the connection
+                ResponseCompression.abort(target);
+                if (framed instanceof ChunkedOutputStream chunked) {
+                    chunked.abort();
+                }
+                throw e;
+            } finally {
+                release();
+            }
+            return;
+        }
+        if (contentEncoding != null && chunkedAllowed && sizeHint >= ResponseCompression.STREAM_THRESHOLD) {
+            out.write(head(-1, contentEncoding));
+            try (Writer writer = new OutputStreamWriter(
+                    ResponseCompression.compress(contentEncoding, new ChunkedOutputStream(out)),
+                    StandardCharsets.UTF_8)) {
+                writer.write(body);
+            }
+            return;
+        }
+        out.write(toBytes());
+    }
+
+    /**
+     * Serialises status line, headers and body into one buffer.
+     */
+    public byte[] toBytes() {
+        byte[] content;
+        try {
+            content = bodyWriter != null ? renderBody() : body.getBytes(StandardCharsets.UTF_8);
+        } finally {
+            release();
+        }
+        String encoding = null;
+        if (contentEncoding != null && content.length >= ResponseCompression.MIN_SIZE) {
+            content = compress(content);
+            encoding = contentEncoding;
+        }
+
+        byte[] headBytes = head(content.length, encoding);
+        byte[] message = Arrays.copyOf(headBytes, headBytes.length + content.length);
+        System.arraycopy(content, 0, message, headBytes.length, content.length);
+        return message;
+    }
+
+    /**
+     * Status line and headers. A content length of -1 selects chunked transfer
+     * coding; -2 sends neither (body ends when the connection closes).
+     */
+    private byte[] head(long contentLength, String encoding) {
+        StringBuilder head = new StringBuilder();
+        head.append("HTTP/1.1 ").append(statusCode).append(' ').append(reasonPhrase).append("\r\n");
+        if (statusCode != 304) {
+            head.append("Content-Type: ").append(contentType).append("\r\n");
+            if (encoding != null) {
+                head.append("Content-Encoding: ").append(encoding).append("\r\n");
+            }
+            if (contentLength == -1) {
+                head.append("Transfer-Encoding: chunked\r\n");
+            } else if (contentLength >= 0) {
+                head.append("Content-Length: ").append(contentLength).append("\r\n");
+            }
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String value = header.getValue();
+            if (encoding != null && header.getKey().equals("ETag")) {
+                // A strong ETag names one representation, so each coding gets its own
+                value = value.substring(0, value.length() - 1) + "-" + encoding + "\"";
+            }
+            head.append(header.getKey()).append(": ").append(value).append("\r\n");
+        }
+        if (!headers.containsKey("Connection")) {
+            head.append("Connection: close\r\n");
+        }
+        head.append("\r\n");
+        return head.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private byte[] renderBody() {
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream(Math.min(sizeHint, 1 << 16) + 1024);
+        try {
+            bodyWriter.writeTo(rendered);
+        } catch (IOException e) {
+            // Only streamed rows can fail here (the buffer itself cannot)
+            throw new UncheckedIOException(e);
+        }
+        return rendered.toByteArray();
+    }
+
+    private byte[] compress(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (OutputStream out = ResponseCompression.compress(contentEncoding, compressed)) {
+            out.write(content);
+        } catch (IOException e) {
+            // In-memory streams do not fail
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
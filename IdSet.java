@@ -0,0 +1,48 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: IdSet.java
+
+import java.util.Arrays;
+
+/**
+ * Growable set of ids kept as a sorted {@code int[]}: about 4 bytes per id,
+ * against some 50 for a {@code HashSet<Integer>}. Not thread-safe; the indexes
+ * using it guard it with their own locks.
+ */
+final class IdSet {
+    int[] ids = new int[4];
+    int size;
+
+    boolean add(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(int id) {
+        int at = Arrays.binarySearch(ids, 0, size, id);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+}
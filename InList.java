@@ -0,0 +1,78 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: InList.java
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded {@code IN (?, ?, ...)} lists for multi-row lookups by id. Lists are
+ * padded up to a power of two by repeating their last id, so a lookup of any
+ * number of ids prepares at most log2({@link #MAX_SIZE}) + 1 distinct statements
+ * and reuses them from the statement cache (see {@link StatementCache}).
+ */
+public class InList {
+    // Most ids bound in one statement; larger lookups are split into several
+    public static final int MAX_SIZE = Math.max(1, Integer.highestOneBit(Integer.getInteger("db.inList.maxSize", 256)));
+
+    // Distinct placeholder lists, and so statements, per IN-list query
+    public static final int SHAPES = Integer.numberOfTrailingZeros(MAX_SIZE) + 1;
+
+    private static final String[] PLACEHOLDERS = new String[SHAPES];
+
+    static {
+        for (int i = 0; i < PLACEHOLDERS.length; i++) {
+            StringBuilder list = new StringBuilder("(?");
+            for (int n = 1; n < 1 << i; n++) {
+                list.append(", ?");
+            }
+            PLACEHOLDERS[i] = list.append(')').toString();
+        }
+    }
+
+    private InList() {}
+
+    /**
+     * @return the number of placeholders used for {@code count} ids (at most {@link #MAX_SIZE})
+     */
+    public static int slots(int count) {
+        return count <= 1 ? 1 : Math.min(MAX_SIZE, Integer.highestOneBit(count - 1) << 1);
+    }
+
+    /**
+     * @return {@code "(?, ?, ...)"} with {@link #slots(int)} placeholders
+     */
+    public static String placeholders(int count) {
+        return PLACEHOLDERS[Integer.numberOfTrailingZeros(slots(count))];
+    }
+
+    /**
+     * Splits {@code ids} into runs of at most {@link #MAX_SIZE}, in order, one per
+     * statement. The runs are views of {@code ids}.
+     */
+    public static List<List<Integer>> chunks(List<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>((ids.size() + MAX_SIZE - 1) / MAX_SIZE);
+        for (int from = 0; from < ids.size(); from += MAX_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MAX_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Binds {@code ids} (at most {@link #MAX_SIZE}) to the placeholders from
+     * {@link #placeholders(int)}, starting at parameter {@code first}, repeating
+     * the last id into the padding.
+     */
+    public static void bind(PreparedStatement pstmt, int first, List<Integer> ids) throws SQLException {
+        int slots = slots(ids.size());
+        for (int i = 0; i < slots; i++) {
+            pstmt.setInt(first + i, ids.get(Math.min(i, ids.size() - 1)));
+        }
+    }
+}
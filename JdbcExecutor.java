@@ -0,0 +1,89 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: JdbcExecutor.java
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Platform threads that run JDBC work for requests handled on virtual threads.
+ *
+ * MySQL Connector/J blocks inside synchronized code, which would pin a virtual
+ * thread's carrier. {@link #call} hands such work to one of these threads and
+ * parks the virtual thread until it is done, so only the JDBC calls themselves
+ * are bounded by this pool; parsing, rendering and writing to the client stay
+ * on the virtual thread. There is one thread per pooled connection, since more
+ * could only queue for connections.
+ *
+ * Until {@link #start()} is called, and whenever the caller is a platform
+ * thread, work runs on the caller.
+ */
+public final class JdbcExecutor {
+    private static volatile ExecutorService executor;
+
+    private JdbcExecutor() {
+    }
+
+    static synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(DatabaseConnection.getTotalPoolSize(),
+                    Thread.ofPlatform().name("jdbc-worker-", 0).daemon(true).factory());
+        }
+    }
+
+    /**
+     * Runs {@code work}, on a JDBC thread if the caller is a virtual thread. The
+     * work sees whether the caller's request has written (see
+     * {@link DatabaseConnection#isPinnedToPrimary()}), and a write it makes pins
+     * the caller's request in turn.
+     */
+    public static <T> T call(AsyncQueries.Query<T> work) throws SQLException {
+        ExecutorService pool = executor;
+        if (pool == null || !Thread.currentThread().isVirtual()) {
+            return work.run();
+        }
+        boolean pinned = DatabaseConnection.isPinnedToPrimary();
+        AtomicBoolean wrote = new AtomicBoolean();
+        Future<T> result = pool.submit(() -> {
+            DatabaseConnection.beginRequest(pinned);
+            try {
+                return work.run();
+            } finally {
+                wrote.set(DatabaseConnection.isPinnedToPrimary());
+                DatabaseConnection.endRequest();
+            }
+        });
+        try {
+            // The virtual thread parks here without pinning its carrier
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a JDBC thread", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new SQLException("JDBC call failed", cause);
+        } finally {
+            if (wrote.get() && !pinned) {
+                DatabaseConnection.beginRequest(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: JsonOutput.java
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON for API responses. Bodies are written through a Jackson
+ * {@link JsonGenerator} straight into the response output, which handles escaping
+ * and UTF-8 encoding, instead of being assembled as a String first.
+ *
+ * <p>Field names should be declared once with {@link #name(String)}. The
+ * generator then copies their pre-quoted, pre-encoded bytes instead of escaping
+ * the name on every row.
+ */
+public class JsonOutput {
+    // Thread-safe and expensive to create; generators recycle their buffers per thread.
+    // Closing a generator must not close open arrays and objects: after a failed body
+    // that would turn a truncated response into valid JSON.
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+            .build();
+
+    @FunctionalInterface
+    public interface JsonBody {
+        void write(JsonGenerator json) throws IOException;
+    }
+
+    private JsonOutput() {}
+
+    public static SerializableString name(String fieldName) {
+        return new SerializedString(fieldName);
+    }
+
+    /**
+     * Adapts a generator-based body to the response body interface.
+     */
+    public static HttpResponse.BodyWriter body(JsonBody body) {
+        return out -> {
+            // Closing the generator flushes it but leaves the response stream open. If the
+            // body throws, the error reaches HttpResponse, which aborts the response.
+            try (JsonGenerator json = FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+                body.write(json);
+            }
+        };
+    }
+
+    public static HttpResponse response(JsonBody body) {
+        return HttpResponse.json(body(body), null);
+    }
+
+    /**
+     * Response whose body reads rows from {@code rows} while it is written;
+     * {@code rows} is closed afterwards.
+     */
+    public static HttpResponse response(JsonBody body, AutoCloseable rows) {
+        return HttpResponse.json(body(body), rows);
+    }
+}
@@ -0,0 +1,513 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: NioHttpServer.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking HTTP front end. A single selector thread owns every socket and
+ * reads requests into pooled direct buffers; only complete requests are handed
+ * to a small, fixed worker pool that runs the normal request routing. Idle or
+ * slow clients therefore cost a selection key, not a thread.
+ *
+ * Connections are persistent (HTTP/1.1 keep-alive). Pipelined requests stay in
+ * the connection's read buffer and are dispatched one at a time, each only after
+ * the previous response has been fully written, so responses go out in request
+ * order. Connections idle for longer than the keep-alive timeout are swept.
+ *
+ * Responses reach the socket through a small bounded queue per connection.
+ * Buffered responses are queued whole. Streamed responses (rows read from the
+ * database while writing) are queued chunk by chunk, and the worker blocks while
+ * the queue is full, so a slow client holds back the producer rather than memory.
+ */
+public class NioHttpServer {
+    private static final int BUFFER_SIZE = Integer.getInteger("server.nio.bufferSize", 16 * 1024);
+    private static final int MAX_POOLED_BUFFERS = Integer.getInteger("server.nio.pooledBuffers", 4096);
+    private static final int ACCEPT_BACKLOG = Integer.getInteger("server.nio.backlog", 4096);
+    private static final long SWEEP_INTERVAL_MS = 1000;
+    // A response whose client reads nothing for this long is abandoned
+    private static final long WRITE_TIMEOUT_MS = Long.getLong("server.nio.writeTimeoutMs", 30_000);
+    private static final int MAX_QUEUED_CHUNKS = 16;
+    private static final int STREAM_CHUNK_SIZE = 8192;
+    private static final ByteBuffer END_OF_RESPONSE = ByteBuffer.allocate(0);
+
+    private final int port;
+    private final ExecutorService workers;
+    private final ByteBufferPool bufferPool = new ByteBufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    // Responses produced by workers, waiting for the selector thread to register OP_WRITE
+    private final Queue<ClientConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private long lastSweepNanos = System.nanoTime();
+
+    public NioHttpServer(int port, int workerThreads) {
+        this.port = port;
+        this.workers = Executors.newFixedThreadPool(workerThreads,
+                Thread.ofPlatform().name("http-worker-", 0).daemon(true).factory());
+    }
+
+    public void run() throws IOException {
+        selector = Selector.open();
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("Server listening on port " + port + " (NIO selector)");
+
+            while (true) {
+                selector.select(SWEEP_INTERVAL_MS);
+                registerPendingWrites();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept(server);
+                        } else if (key.isReadable()) {
+                            read(key);
+                        } else if (key.isWritable()) {
+                            write(key);
+                        }
+                    } catch (IOException e) {
+                        close(key);
+                    } catch (RuntimeException e) {
+                        // A bug in handling one connection must not stop the selector thread
+                        e.printStackTrace();
+                        close(key);
+                    }
+                }
+                sweepIdleConnections();
+            }
+        } finally {
+            workers.shutdownNow();
+            selector.close();
+        }
+    }
+
+    private void accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new ClientConnection(channel, key));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        ClientConnection conn = (ClientConnection) key.attachment();
+        if (conn.readBuffer == null) {
+            conn.readBuffer = bufferPool.acquire();
+        }
+        if (conn.channel.read(conn.readBuffer) < 0) {
+            close(key);
+            return;
+        }
+        conn.lastActivityNanos = System.nanoTime();
+        dispatchNext(conn);
+    }
+
+    /**
+     * Hands the next complete request in the read buffer to a worker, or goes
+     * back to reading if the buffer does not hold one yet.
+     */
+    private void dispatchNext(ClientConnection conn) {
+        if (conn.readBuffer == null || conn.readBuffer.position() == 0) {
+            conn.key.interestOps(SelectionKey.OP_READ);
+            return;
+        }
+
+        ParsedRequest parsed;
+        try {
+            parsed = parse(conn.readBuffer);
+        } catch (ContentTooLargeException e) {
+            respondAndClose(conn, errorResponse(413, "Content Too Large"));
+            return;
+        } catch (IllegalArgumentException e) {
+            respondAndClose(conn, errorResponse(400, "Bad Request"));
+            return;
+        }
+        if (parsed == null) {
+            if (!conn.readBuffer.hasRemaining()) {
+                // Request head plus body does not fit in one buffer
+                respondAndClose(conn, errorResponse(413, "Content Too Large"));
+            } else {
+                conn.key.interestOps(SelectionKey.OP_READ);
+            }
+            return;
+        }
+
+        // Keep any pipelined bytes that follow this request for the next round
+        if (parsed.length == conn.readBuffer.position()) {
+            bufferPool.release(conn.readBuffer);
+            conn.readBuffer = null;
+        } else {
+            conn.readBuffer.flip();
+            conn.readBuffer.position(parsed.length);
+            conn.readBuffer.compact();
+        }
+
+        // Stop reading until the response is written; the worker takes it from here
+        conn.key.interestOps(0);
+        conn.responding = true;
+        conn.requestsServed++;
+        int remaining = EmployeeManagementApp.KEEP_ALIVE_MAX_REQUESTS - conn.requestsServed;
+        boolean keepAlive = parsed.request.isKeepAlive() && remaining > 0;
+        workers.execute(() -> {
+            HttpResponse response;
+            try {
+                response = EmployeeManagementApp.handleRequest(parsed.request);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                response = errorResponse(500, "Internal Server Error");
+            }
+            if (keepAlive) {
+                response.keepAlive(EmployeeManagementApp.KEEP_ALIVE_TIMEOUT_SECONDS, remaining);
+            }
+            queueResponse(conn, response);
+        });
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        ClientConnection conn = (ClientConnection) key.attachment();
+        while (true) {
+            if (conn.writeBuffer == null) {
+                conn.writeBuffer = conn.outbound.poll();
+                if (conn.writeBuffer == null) {
+                    // The worker is still producing; it signals again when it queues more
+                    key.interestOps(0);
+                    return;
+                }
+            }
+            if (conn.writeBuffer == END_OF_RESPONSE) {
+                conn.writeBuffer = null;
+                break;
+            }
+            if (conn.channel.write(conn.writeBuffer) > 0) {
+                conn.lastActivityNanos = System.nanoTime();
+            }
+            if (conn.writeBuffer.hasRemaining()) {
+                // Socket send buffer is full; wait for OP_WRITE
+                return;
+            }
+            conn.writeBuffer = null;
+        }
+
+        conn.responding = false;
+        if (conn.closeAfterWrite) {
+            close(key);
+            return;
+        }
+        conn.lastActivityNanos = System.nanoTime();
+        dispatchNext(conn);
+    }
+
+    private void respondAndClose(ClientConnection conn, HttpResponse response) {
+        conn.key.interestOps(0);
+        conn.responding = true;
+        bufferPool.release(conn.readBuffer);
+        conn.readBuffer = null;
+        queueResponse(conn, response);
+    }
+
+    /**
+     * Queues a response for the selector thread. For streamed responses this runs
+     * the body writer and blocks the calling worker while the client catches up.
+     */
+    private void queueResponse(ClientConnection conn, HttpResponse response) {
+        try {
+            if (response.isStreaming()) {
+                ChannelOutputStream out = new ChannelOutputStream(conn);
+                try {
+                    response.writeTo(out);
+                } catch (IOException | UncheckedIOException e) {
+                    out.abort();
+                    throw e;
+                }
+                out.close();
+            } else {
+                enqueue(conn, ByteBuffer.wrap(response.toBytes()));
+            }
+            // Read after writing: a streamed HTTP/1.0 body switches to Connection: close
+            conn.closeAfterWrite = !response.isKeepAlive();
+        } catch (IOException | UncheckedIOException e) {
+            if (conn.closed) {
+                return;
+            }
+            // The head may already be out, so no error page: the body was left
+            // unterminated, and cutting the connection lets the client see it failed
+            System.err.println("Error writing response: " + e.getMessage());
+            conn.closeAfterWrite = true;
+        } finally {
+            response.release();
+        }
+        try {
+            enqueue(conn, END_OF_RESPONSE);
+        } catch (IOException e) {
+            // connection already closed
+        }
+    }
+
+    /**
+     * Adds a buffer to the connection's outbound queue and asks the selector to
+     * write it. Blocks while the queue is full.
+     *
+     * @throws IOException if the connection is closed meanwhile
+     */
+    private void enqueue(ClientConnection conn, ByteBuffer buffer) throws IOException {
+        try {
+            while (!conn.outbound.offer(buffer, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                if (conn.closed) {
+                    throw new IOException("Connection closed");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queueing response", e);
+        }
+        if (conn.closed) {
+            throw new IOException("Connection closed");
+        }
+        pendingWrites.add(conn);
+        selector.wakeup();
+    }
+
+    private void registerPendingWrites() {
+        ClientConnection conn;
+        while ((conn = pendingWrites.poll()) != null) {
+            // Signals can outlive the response they were sent for; only a live response writes
+            if (conn.key.isValid() && conn.responding) {
+                if (conn.writeBuffer == null) {
+                    // Producer made progress, so the write timeout starts now
+                    conn.lastActivityNanos = System.nanoTime();
+                }
+                conn.key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    /**
+     * Closes connections that have sat waiting for a request longer than the
+     * keep-alive timeout, and connections whose client has stopped reading a
+     * response for longer than the write timeout. Connections whose request is
+     * still being handled are left alone.
+     */
+    private void sweepIdleConnections() {
+        long now = System.nanoTime();
+        if (now - lastSweepNanos < TimeUnit.MILLISECONDS.toNanos(SWEEP_INTERVAL_MS)) {
+            return;
+        }
+        lastSweepNanos = now;
+        long idleLimit = TimeUnit.MILLISECONDS.toNanos(EmployeeManagementApp.KEEP_ALIVE_TIMEOUT_MS);
+        long writeLimit = TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MS);
+        for (SelectionKey key : selector.keys()) {
+            if (!key.isValid() || !(key.attachment() instanceof ClientConnection conn)) {
+                continue;
+            }
+            boolean idle = key.interestOps() == SelectionKey.OP_READ
+                    && now - conn.lastActivityNanos > idleLimit;
+            boolean stalled = (conn.writeBuffer != null || !conn.outbound.isEmpty())
+                    && now - conn.lastActivityNanos > writeLimit;
+            if (idle || stalled) {
+                close(key);
+            }
+        }
+    }
+
+    private void close(SelectionKey key) {
+        ClientConnection conn = (ClientConnection) key.attachment();
+        key.cancel();
+        if (conn != null) {
+            // Unblocks a worker still streaming into this connection
+            conn.closed = true;
+            conn.outbound.clear();
+            bufferPool.release(conn.readBuffer);
+            conn.readBuffer = null;
+            try {
+                conn.channel.close();
+            } catch (IOException e) {
+                // already closed by the peer
+            }
+        }
+    }
+
+    /**
+     * Parses one request from the bytes read so far (buffer in write mode).
+     *
+     * @return the request, or {@code null} if more bytes are needed
+     * @throws ContentTooLargeException if the declared body cannot fit in the buffer
+     * @throws IllegalArgumentException if the request line is malformed
+     */
+    static ParsedRequest parse(ByteBuffer buffer) {
+        int available = buffer.position();
+        // Tolerate blank lines before a request (RFC 9112, section 2.2), as HttpRequest.read does
+        int start = 0;
+        while (start < available && (buffer.get(start) == '\r' || buffer.get(start) == '\n')) {
+            start++;
+        }
+        int headEnd = indexOfHeadEnd(buffer, start, available);
+        if (headEnd < 0) {
+            return null;
+        }
+
+        byte[] headBytes = new byte[headEnd - start];
+        buffer.get(start, headBytes);
+        String[] lines = new String(headBytes, StandardCharsets.ISO_8859_1).split("\r\n");
+        List<String> headerLines = new ArrayList<>(Arrays.asList(lines).subList(1, lines.length));
+        HttpRequest request = HttpRequest.parseHead(lines[0], headerLines);
+        if (request == null) {
+            throw new IllegalArgumentException("Malformed request line: " + lines[0]);
+        }
+
+        int contentLength = request.getContentLength();
+        // Checked before adding, so a length near Integer.MAX_VALUE cannot overflow
+        if (contentLength > buffer.capacity() - headEnd) {
+            throw new ContentTooLargeException(contentLength);
+        }
+        int total = headEnd + contentLength;
+        if (total > available) {
+            return null;
+        }
+        if (contentLength > 0) {
+            byte[] body = new byte[contentLength];
+            buffer.get(headEnd, body);
+            request = request.withBody(new String(body, StandardCharsets.UTF_8));
+        }
+        return new ParsedRequest(request, total);
+    }
+
+    private static int indexOfHeadEnd(ByteBuffer buffer, int start, int limit) {
+        for (int i = start + 3; i < limit; i++) {
+            if (buffer.get(i) == '\n' && buffer.get(i - 1) == '\r'
+                    && buffer.get(i - 2) == '\n' && buffer.get(i - 3) == '\r') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static HttpResponse errorResponse(int status, String reason) {
+        return new HttpResponse(status, reason, "text/plain; charset=UTF-8", status + " " + reason);
+    }
+
+    static final class ParsedRequest {
+        final HttpRequest request;
+        // Bytes of the buffer taken up by this request (blank lines before it, head and body)
+        final int length;
+
+        ParsedRequest(HttpRequest request, int length) {
+            this.request = request;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A request whose head and declared body together do not fit in one read buffer.
+     */
+    static final class ContentTooLargeException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        ContentTooLargeException(int contentLength) {
+            super("Content-Length " + contentLength + " does not fit in the read buffer");
+        }
+    }
+
+    /**
+     * Worker-side stream of a streamed response: collects writes into chunk-sized
+     * buffers and queues each one for the selector thread.
+     */
+    private final class ChannelOutputStream extends OutputStream {
+        private final ClientConnection conn;
+        private ByteBuffer chunk = ByteBuffer.allocate(STREAM_CHUNK_SIZE);
+
+        ChannelOutputStream(ClientConnection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!chunk.hasRemaining()) {
+                flush();
+            }
+            chunk.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (!chunk.hasRemaining()) {
+                    flush();
+                }
+                int n = Math.min(len, chunk.remaining());
+                chunk.put(b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (chunk.position() > 0) {
+                chunk.flip();
+                enqueue(conn, chunk);
+                chunk = ByteBuffer.allocate(STREAM_CHUNK_SIZE);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+        /**
+         * Drops the unsent remainder and has the connection closed once what was
+         * already queued has been written, so a failed body never looks complete.
+         */
+        void abort() {
+            chunk.clear();
+            conn.closeAfterWrite = true;
+        }
+    }
+
+    private static final class ClientConnection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        ByteBuffer readBuffer;
+        // Buffer being written; the rest of the response waits in outbound
+        ByteBuffer writeBuffer;
+        final BlockingQueue<ByteBuffer> outbound = new ArrayBlockingQueue<>(MAX_QUEUED_CHUNKS);
+        // A request has been dispatched and its response is not fully written yet
+        boolean responding;
+        volatile boolean closeAfterWrite;
+        volatile boolean closed;
+        int requestsServed;
+        long lastActivityNanos = System.nanoTime();
+
+        ClientConnection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+}
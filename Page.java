@@ -0,0 +1,31 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: Page.java
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final PageToken next;
+
+    public Page(List<T> items, PageToken next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() { return items; }
+
+    /**
+     * @return the token for the following page, or {@code null} on the last page
+     */
+    public PageToken getNext() { return next; }
+
+    public boolean hasNext() { return next != null; }
+}
@@ -0,0 +1,882 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: PageTemplates.java
+
+/**
+ * HTML pages served by {@link EmployeeManagementApp}, compiled once at class
+ * load. Their static markup is held as pre-encoded UTF-8 and only the
+ * {@code {{slot}}} values are produced per request.
+ */
+public class PageTemplates {
+
+    private PageTemplates() {}
+
+    // Landing page; slots: totalEmployees, totalUsers.
+    static final HtmlTemplate HOME = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Employee Management System</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body {
+                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+                        background: linear-gradient(135deg, #667eea 0%, #764ba2 100%);
+                        color: #333;
+                        min-height: 100vh;
+                    }
+                    .container {
+                        max-width: 1200px;
+                        margin: 0 auto;
+                        padding: 20px;
+                    }
+                    header {
+                        background: rgba(255, 255, 255, 0.95);
+                        backdrop-filter: blur(10px);
+                        padding: 20px;
+                        border-radius: 15px;
+                        box-shadow: 0 10px 30px rgba(0, 0, 0, 0.1);
+                        margin-bottom: 30px;
+                    }
+                    .header-content {
+                        display: flex;
+                        justify-content: space-between;
+                        align-items: center;
+                    }
+                    h1 {
+                        color: #4a5568;
+                        margin-bottom: 5px;
+                    }
+                    .subtitle {
+                        color: #718096;
+                        font-size: 1.1rem;
+                    }
+                    nav a {
+                        margin-left: 20px;
+                        text-decoration: none;
+                        color: #4a5568;
+                        font-weight: 500;
+                        padding: 8px 16px;
+                        border-radius: 8px;
+                        transition: all 0.3s ease;
+                    }
+                    nav a:hover {
+                        background: #667eea;
+                        color: white;
+                    }
+                    .stats-grid {
+                        display: grid;
+                        grid-template-columns: repeat(auto-fit, minmax(250px, 1fr));
+                        gap: 20px;
+                        margin-bottom: 30px;
+                    }
+                    .stat-card {
+                        background: rgba(255, 255, 255, 0.95);
+                        padding: 25px;
+                        border-radius: 15px;
+                        box-shadow: 0 5px 15px rgba(0, 0, 0, 0.08);
+                        transition: transform 0.3s ease, box-shadow 0.3s ease;
+                    }
+                    .stat-card:hover {
+                        transform: translateY(-5px);
+                        box-shadow: 0 15px 30px rgba(0, 0, 0, 0.15);
+                    }
+                    .stat-icon {
+                        font-size: 2.5rem;
+                        margin-bottom: 15px;
+                        color: #667eea;
+                    }
+                    .stat-value {
+                        font-size: 2rem;
+                        font-weight: bold;
+                        color: #2d3748;
+                        margin-bottom: 5px;
+                    }
+                    .stat-label {
+                        color: #718096;
+                        font-size: 0.9rem;
+                        text-transform: uppercase;
+                        letter-spacing: 1px;
+                    }
+                    .actions-grid {
+                        display: grid;
+                        grid-template-columns: repeat(auto-fit, minmax(300px, 1fr));
+                        gap: 20px;
+                    }
+                    .action-card {
+                        background: rgba(255, 255, 255, 0.95);
+                        padding: 30px;
+                        border-radius: 15px;
+                        text-align: center;
+                        box-shadow: 0 5px 15px rgba(0, 0, 0, 0.08);
+                        transition: all 0.3s ease;
+                        text-decoration: none;
+                        color: inherit;
+                        display: block;
+                    }
+                    .action-card:hover {
+                        background: white;
+                        transform: translateY(-5px);
+                        box-shadow: 0 15px 30px rgba(0, 0, 0, 0.15);
+                    }
+                    .action-icon {
+                        font-size: 3rem;
+                        margin-bottom: 20px;
+                        color: #667eea;
+                    }
+                    .action-title {
+                        font-size: 1.3rem;
+                        font-weight: 600;
+                        color: #2d3748;
+                        margin-bottom: 10px;
+                    }
+                    .action-desc {
+                        color: #718096;
+                        line-height: 1.6;
+                    }
+                    footer {
+                        margin-top: 50px;
+                        text-align: center;
+                        color: rgba(255, 255, 255, 0.8);
+                        padding: 20px;
+                        font-size: 0.9rem;
+                    }
+                </style>
+                <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
+            </head>
+            <body>
+                <div class="container">
+                    <header>
+                        <div class="header-content">
+                            <div>
+                                <h1>🏢 Employee Management System</h1>
+                                <p class="subtitle">Manage your organization's workforce efficiently</p>
+                            </div>
+                            <nav>
+                                <a href="/">🏠 Home</a>
+                                <a href="/employees">👥 Employees</a>
+                                <a href="/users">👤 Users</a>
+                                <a href="/dashboard">📊 Dashboard</a>
+                            </nav>
+                        </div>
+                    </header>
+
+                    <div class="stats-grid">
+                        <div class="stat-card">
+                            <div class="stat-icon">
+                                <i class="fas fa-users"></i>
+                            </div>
+                            <div class="stat-value">{{totalEmployees}}</div>
+                            <div class="stat-label">Total Employees</div>
+                        </div>
+
+                        <div class="stat-card">
+                            <div class="stat-icon">
+                                <i class="fas fa-user-circle"></i>
+                            </div>
+                            <div class="stat-value">{{totalUsers}}</div>
+                            <div class="stat-label">System Users</div>
+                        </div>
+
+                        <div class="stat-card">
+                            <div class="stat-icon">
+                                <i class="fas fa-chart-line"></i>
+                            </div>
+                            <div class="stat-value">98%</div>
+                            <div class="stat-label">System Uptime</div>
+                        </div>
+
+                        <div class="stat-card">
+                            <div class="stat-icon">
+                                <i class="fas fa-database"></i>
+                            </div>
+                            <div class="stat-value">MySQL</div>
+                            <div class="stat-label">Database</div>
+                        </div>
+                    </div>
+
+                    <div class="actions-grid">
+                        <a href="/employees" class="action-card">
+                            <div class="action-icon">
+                                <i class="fas fa-user-plus"></i>
+                            </div>
+                            <div class="action-title">Manage Employees</div>
+                            <div class="action-desc">
+                                View, add, edit, and delete employee records. Search and filter through your workforce.
+                            </div>
+                        </a>
+
+                        <a href="/employees/add" class="action-card">
+                            <div class="action-icon">
+                                <i class="fas fa-user-plus"></i>
+                            </div>
+                            <div class="action-title">Add New Employee</div>
+                            <div class="action-desc">
+                                Register new employees into the system with all necessary details and documentation.
+                            </div>
+                        </a>
+
+                        <a href="/users" class="action-card">
+                            <div class="action-icon">
+                                <i class="fas fa-users-cog"></i>
+                            </div>
+                            <div class="action-title">User Management</div>
+                            <div class="action-desc">
+                                Manage system users, assign roles, and control access permissions.
+                            </div>
+                        </a>
+
+                        <a href="/dashboard" class="action-card">
+                            <div class="action-icon">
+                                <i class="fas fa-chart-bar"></i>
+                            </div>
+                            <div class="action-title">Analytics Dashboard</div>
+                            <div class="action-desc">
+                                View comprehensive analytics and reports about your organization's workforce.
+                            </div>
+                        </a>
+                    </div>
+
+                    <footer>
+                        <p>Employee Management System v1.0 | Built with Java & MySQL</p>
+                        <p>Developed by: Kipyegon Milton: kipyegonmilton@gmail.com</p>
+                        <p>© 2026 Company Inc. All rights reserved.</p>
+                    </footer>
+                </div>
+            </body>
+            </html>
+            """);
+
+    // Employee list page; slots: table ({@link #EMPLOYEES_TABLE} or {@link #EMPLOYEES_EMPTY}),
+    // pager ({@link #PAGER}), total.
+    static final HtmlTemplate EMPLOYEES = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Employee List</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body {
+                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+                        background: #f5f7fa;
+                        color: #333;
+                    }
+                    .container {
+                        max-width: 1200px;
+                        margin: 0 auto;
+                        padding: 20px;
+                    }
+                    header {
+                        background: white;
+                        padding: 25px;
+                        border-radius: 10px;
+                        box-shadow: 0 2px 10px rgba(0, 0, 0, 0.1);
+                        margin-bottom: 30px;
+                    }
+                    .header-content {
+                        display: flex;
+                        justify-content: space-between;
+                        align-items: center;
+                        flex-wrap: wrap;
+                        gap: 20px;
+                    }
+                    h1 { color: #2d3748; margin-bottom: 10px; }
+                    .controls {
+                        display: flex;
+                        gap: 15px;
+                        align-items: center;
+                    }
+                    .search-box {
+                        padding: 10px 15px;
+                        border: 2px solid #e2e8f0;
+                        border-radius: 8px;
+                        width: 300px;
+                        font-size: 14px;
+                        transition: border-color 0.3s;
+                    }
+                    .search-box:focus {
+                        outline: none;
+                        border-color: #667eea;
+                    }
+                    .btn {
+                        padding: 10px 20px;
+                        border: none;
+                        border-radius: 8px;
+                        cursor: pointer;
+                        font-weight: 500;
+                        text-decoration: none;
+                        display: inline-flex;
+                        align-items: center;
+                        gap: 8px;
+                        transition: all 0.3s;
+                    }
+                    .btn-primary {
+                        background: #667eea;
+                        color: white;
+                    }
+                    .btn-primary:hover {
+                        background: #5a67d8;
+                        transform: translateY(-2px);
+                    }
+                    .btn-success {
+                        background: #48bb78;
+                        color: white;
+                    }
+                    .btn-success:hover {
+                        background: #38a169;
+                    }
+                    .btn-danger {
+                        background: #f56565;
+                        color: white;
+                    }
+                    .btn-info {
+                        background: #4299e1;
+                        color: white;
+                    }
+                    .table-container {
+                        background: white;
+                        border-radius: 10px;
+                        box-shadow: 0 2px 10px rgba(0, 0, 0, 0.1);
+                        overflow: hidden;
+                    }
+                    table {
+                        width: 100%;
+                        border-collapse: collapse;
+                    }
+                    thead {
+                        background: #667eea;
+                        color: white;
+                    }
+                    th {
+                        padding: 15px;
+                        text-align: left;
+                        font-weight: 600;
+                    }
+                    tbody tr {
+                        border-bottom: 1px solid #e2e8f0;
+                        transition: background 0.3s;
+                    }
+                    tbody tr:hover {
+                        background: #f7fafc;
+                    }
+                    td {
+                        padding: 15px;
+                        color: #4a5568;
+                    }
+                    .employee-info {
+                        display: flex;
+                        align-items: center;
+                        gap: 15px;
+                    }
+                    .avatar {
+                        width: 40px;
+                        height: 40px;
+                        border-radius: 50%;
+                        background: #667eea;
+                        color: white;
+                        display: flex;
+                        align-items: center;
+                        justify-content: center;
+                        font-weight: bold;
+                    }
+                    .employee-name {
+                        font-weight: 600;
+                        color: #2d3748;
+                    }
+                    .employee-title {
+                        font-size: 0.9rem;
+                        color: #718096;
+                    }
+                    .badge {
+                        padding: 4px 8px;
+                        border-radius: 4px;
+                        font-size: 0.8rem;
+                        font-weight: 500;
+                    }
+                    .badge-department {
+                        background: #bee3f8;
+                        color: #2b6cb0;
+                    }
+                    .badge-active {
+                        background: #c6f6d5;
+                        color: #22543d;
+                    }
+                    .actions {
+                        display: flex;
+                        gap: 8px;
+                    }
+                    .empty-state {
+                        text-align: center;
+                        padding: 60px 20px;
+                        color: #a0aec0;
+                    }
+                    .empty-state i {
+                        font-size: 3rem;
+                        margin-bottom: 20px;
+                        color: #cbd5e0;
+                    }
+                    .pager {
+                        display: flex;
+                        justify-content: flex-end;
+                        gap: 10px;
+                        margin-top: 20px;
+                    }
+                    footer {
+                        margin-top: 30px;
+                        text-align: center;
+                        color: #718096;
+                        padding: 20px;
+                        font-size: 0.9rem;
+                    }
+                </style>
+                <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
+            </head>
+            <body>
+                <div class="container">
+                    <header>
+                        <div class="header-content">
+                            <div>
+                                <h1><i class="fas fa-users"></i> Employee Directory</h1>
+                                <p>Manage your organization's workforce</p>
+                            </div>
+                            <div class="controls">
+                                <input type="text" class="search-box" placeholder="Search employees..." id="searchInput" list="searchSuggestions" autocomplete="off">
+                                <datalist id="searchSuggestions"></datalist>
+                                <a href="/employees/add" class="btn btn-success">
+                                    <i class="fas fa-user-plus"></i> Add Employee
+                                </a>
+                                <a href="/" class="btn btn-primary">
+                                    <i class="fas fa-home"></i> Home
+                                </a>
+                            </div>
+                        </div>
+                    </header>
+
+                    <div class="table-container">
+            {{table}}\
+                    </div>
+            {{pager}}\
+
+                    <footer>
+                        <p>Total Employees: {{total}} |
+                           <a href="/api/employees" style="color: #667eea;">View JSON API</a>
+                        </p>
+                    </footer>
+                </div>
+
+                <script>
+                    document.getElementById('searchInput').addEventListener('input', function(e) {
+                        const searchTerm = e.target.value.toLowerCase();
+                        const rows = document.querySelectorAll('tbody tr');
+
+                        rows.forEach(row => {
+                            const text = row.textContent.toLowerCase();
+                            row.style.display = text.includes(searchTerm) ? '' : 'none';
+                        });
+
+                        // Only the latest keystroke's suggestions are shown
+                        const query = e.target.value.trim();
+                        const list = document.getElementById('searchSuggestions');
+                        if (!query) {
+                            list.replaceChildren();
+                            return;
+                        }
+                        fetch('/api/employees/suggest?q=' + encodeURIComponent(query))
+                            .then(response => response.json())
+                            .then(data => {
+                                if (e.target.value.trim() !== query) {
+                                    return;
+                                }
+                                list.replaceChildren(...data.suggestions.map(s => {
+                                    const option = document.createElement('option');
+                                    option.value = s.text;
+                                    return option;
+                                }));
+                            })
+                            .catch(() => {});
+                    });
+                </script>
+            </body>
+            </html>
+            """);
+
+    static final HtmlTemplate EMPLOYEES_EMPTY = HtmlTemplate.compile("""
+                        <div class="empty-state">
+                            <i class="fas fa-user-friends"></i>
+                            <h2>No Employees Found</h2>
+                            <p>Get started by adding your first employee to the system.</p>
+                            <a href="/employees/add" class="btn btn-success" style="margin-top: 20px;">
+                                <i class="fas fa-user-plus"></i> Add First Employee
+                            </a>
+                        </div>
+            """);
+
+    // Employee table; slot rows is filled with one {@link #EMPLOYEE_ROW} per employee.
+    static final HtmlTemplate EMPLOYEES_TABLE = HtmlTemplate.compile("""
+                        <table>
+                            <thead>
+                                <tr>
+                                    <th>Employee</th>
+                                    <th>Employee Code</th>
+                                    <th>Department</th>
+                                    <th>Job Title</th>
+                                    <th>Hire Date</th>
+                                    <th>Salary</th>
+                                    <th>Actions</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+            {{rows}}\
+                            </tbody>
+                        </table>
+            """);
+
+    // Links to the first and next page of a keyset-paginated list; slot links is
+    // filled with {@link #PAGE_LINK}s, empty when there is a single page.
+    static final HtmlTemplate PAGER = HtmlTemplate.compile("""
+                    <div class="pager">
+            {{links}}\
+                    </div>
+            """);
+
+    static final HtmlTemplate PAGE_LINK = HtmlTemplate.compile("""
+                        <a href="{{href}}" class="btn btn-primary">{{label}}</a>
+            """);
+
+    static final HtmlTemplate EMPLOYEE_ROW = HtmlTemplate.compile("""
+                                <tr>
+                                    <td>
+                                        <div class="employee-info">
+                                            <div class="avatar">{{initials}}</div>
+                                            <div>
+                                                <div class="employee-name">{{firstName}} {{lastName}}</div>
+                                                <div class="employee-title">{{email}}</div>
+                                            </div>
+                                        </div>
+                                    </td>
+                                    <td><span class="badge">{{employeeCode}}</span></td>
+                                    <td><span class="badge badge-department">{{department}}</span></td>
+                                    <td>{{jobTitle}}</td>
+                                    <td>{{hireDate}}</td>
+                                    <td><strong>{{salary}}</strong></td>
+                                    <td>
+                                        <div class="actions">
+                                            <a href="/employees/view?id={{id}}" class="btn btn-info" style="padding: 8px 12px;">
+                                                <i class="fas fa-eye"></i>
+                                            </a>
+                                            <a href="/employees/edit?id={{id}}" class="btn btn-primary" style="padding: 8px 12px;">
+                                                <i class="fas fa-edit"></i>
+                                            </a>
+                                            <a href="/employees/delete?id={{id}}"
+                                               class="btn btn-danger"
+                                               style="padding: 8px 12px;"
+                                               onclick="return confirm('Are you sure you want to delete this employee?');">
+                                                <i class="fas fa-trash"></i>
+                                            </a>
+                                        </div>
+                                    </td>
+                                </tr>
+            """);
+
+    // Add-employee form; fully static.
+    static final HtmlTemplate ADD_EMPLOYEE = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Add New Employee</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body {
+                        font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+                        background: linear-gradient(135deg, #f5f7fa 0%, #c3cfe2 100%);
+                        min-height: 100vh;
+                    }
+                    .container {
+                        max-width: 800px;
+                        margin: 0 auto;
+                        padding: 30px;
+                    }
+                    .form-container {
+                        background: white;
+                        padding: 40px;
+                        border-radius: 15px;
+                        box-shadow: 0 15px 35px rgba(0, 0, 0, 0.1);
+                    }
+                    h1 {
+                        color: #2d3748;
+                        margin-bottom: 10px;
+                        display: flex;
+                        align-items: center;
+                        gap: 10px;
+                    }
+                    .subtitle {
+                        color: #718096;
+                        margin-bottom: 30px;
+                    }
+                    .form-group {
+                        margin-bottom: 25px;
+                    }
+                    label {
+                        display: block;
+                        margin-bottom: 8px;
+                        font-weight: 500;
+                        color: #4a5568;
+                    }
+                    input, select, textarea {
+                        width: 100%;
+                        padding: 12px 15px;
+                        border: 2px solid #e2e8f0;
+                        border-radius: 8px;
+                        font-size: 16px;
+                        transition: border-color 0.3s;
+                    }
+                    input:focus, select:focus, textarea:focus {
+                        outline: none;
+                        border-color: #667eea;
+                    }
+                    .form-row {
+                        display: grid;
+                        grid-template-columns: 1fr 1fr;
+                        gap: 20px;
+                    }
+                    .btn {
+                        padding: 12px 30px;
+                        border: none;
+                        border-radius: 8px;
+                        font-size: 16px;
+                        font-weight: 500;
+                        cursor: pointer;
+                        transition: all 0.3s;
+                        text-decoration: none;
+                        display: inline-flex;
+                        align-items: center;
+                        justify-content: center;
+                        gap: 8px;
+                    }
+                    .btn-primary {
+                        background: #667eea;
+                        color: white;
+                    }
+                    .btn-primary:hover {
+                        background: #5a67d8;
+                        transform: translateY(-2px);
+                        box-shadow: 0 5px 15px rgba(102, 126, 234, 0.4);
+                    }
+                    .btn-secondary {
+                        background: #a0aec0;
+                        color: white;
+                    }
+                    .btn-secondary:hover {
+                        background: #718096;
+                    }
+                    .form-actions {
+                        display: flex;
+                        justify-content: space-between;
+                        margin-top: 40px;
+                        padding-top: 30px;
+                        border-top: 2px solid #e2e8f0;
+                    }
+                    .back-link {
+                        color: #667eea;
+                        text-decoration: none;
+                        display: flex;
+                        align-items: center;
+                        gap: 8px;
+                        font-weight: 500;
+                    }
+                    .back-link:hover {
+                        color: #5a67d8;
+                    }
+                </style>
+                <link rel="stylesheet" href="https://cdnjs.cloudflare.com/ajax/libs/font-awesome/6.0.0/css/all.min.css">
+            </head>
+            <body>
+                <div class="container">
+                    <div class="form-container">
+                        <h1><i class="fas fa-user-plus"></i> Add New Employee</h1>
+                        <p class="subtitle">Fill in the details below to register a new employee</p>
+
+                        <form method="POST" action="/employees/add">
+                            <div class="form-row">
+                                <div class="form-group">
+                                    <label for="firstName"><i class="fas fa-user"></i> First Name *</label>
+                                    <input type="text" id="firstName" name="firstName" required>
+                                </div>
+                                <div class="form-group">
+                                    <label for="lastName"><i class="fas fa-user"></i> Last Name *</label>
+                                    <input type="text" id="lastName" name="lastName" required>
+                                </div>
+                            </div>
+
+                            <div class="form-row">
+                                <div class="form-group">
+                                    <label for="email"><i class="fas fa-envelope"></i> Email *</label>
+                                    <input type="email" id="email" name="email" required>
+                                </div>
+                                <div class="form-group">
+                                    <label for="phone"><i class="fas fa-phone"></i> Phone</label>
+                                    <input type="tel" id="phone" name="phone">
+                                </div>
+                            </div>
+
+                            <div class="form-row">
+                                <div class="form-group">
+                                    <label for="employeeCode"><i class="fas fa-id-card"></i> Employee Code *</label>
+                                    <input type="text" id="employeeCode" name="employeeCode" required>
+                                </div>
+                                <div class="form-group">
+                                    <label for="jobTitle"><i class="fas fa-briefcase"></i> Job Title *</label>
+                                    <input type="text" id="jobTitle" name="jobTitle" required>
+                                </div>
+                            </div>
+
+                            <div class="form-row">
+                                <div class="form-group">
+                                    <label for="hireDate"><i class="fas fa-calendar-alt"></i> Hire Date *</label>
+                                    <input type="date" id="hireDate" name="hireDate" required>
+                                </div>
+                                <div class="form-group">
+                                    <label for="salary"><i class="fas fa-money-bill-wave"></i> Salary *</label>
+                                    <input type="number" id="salary" name="salary" step="0.01" min="0" required>
+                                </div>
+                            </div>
+
+                            <div class="form-group">
+                                <label for="departmentId"><i class="fas fa-building"></i> Department</label>
+                                <select id="departmentId" name="departmentId">
+                                    <option value="">Select Department</option>
+                                    <option value="1">Engineering</option>
+                                    <option value="2">Sales</option>
+                                    <option value="3">Marketing</option>
+                                    <option value="4">HR</option>
+                                    <option value="5">Finance</option>
+                                </select>
+                            </div>
+
+                            <div class="form-group">
+                                <label for="address"><i class="fas fa-map-marker-alt"></i> Address</label>
+                                <textarea id="address" name="address" rows="3"></textarea>
+                            </div>
+
+                            <div class="form-actions">
+                                <a href="/employees" class="back-link">
+                                    <i class="fas fa-arrow-left"></i> Back to Employees
+                                </a>
+                                <button type="submit" class="btn btn-primary">
+                                    <i class="fas fa-save"></i> Save Employee
+                                </button>
+                            </div>
+                        </form>
+                    </div>
+                </div>
+
+                <script>
+                    // Set today's date as default for hire date
+                    document.getElementById('hireDate').valueAsDate = new Date();
+
+                    // Generate employee code based on name
+                    document.getElementById('firstName').addEventListener('blur', generateEmployeeCode);
+                    document.getElementById('lastName').addEventListener('blur', generateEmployeeCode);
+
+                    function generateEmployeeCode() {
+                        const firstName = document.getElementById('firstName').value;
+                        const lastName = document.getElementById('lastName').value;
+
+                        if (firstName && lastName) {
+                            const code = (firstName.charAt(0) + lastName.charAt(0)).toUpperCase() +
+                                       Math.floor(1000 + Math.random() * 9000);
+                            document.getElementById('employeeCode').value = code;
+                        }
+                    }
+                </script>
+            </body>
+            </html>
+            """);
+
+    // Edit-employee form; slot departmentOptions is filled with {@link #DEPARTMENT_OPTION}s.
+    static final HtmlTemplate EDIT_EMPLOYEE = HtmlTemplate.compile("""
+            <!DOCTYPE html>
+            <html lang="en">
+            <head>
+                <meta charset="UTF-8">
+                <meta name="viewport" content="width=device-width, initial-scale=1.0">
+                <title>Edit Employee</title>
+                <style>
+                    * { margin: 0; padding: 0; box-sizing: border-box; }
+                    body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background: #f5f7fa; }
+                    .container { max-width: 800px; margin: 50px auto; padding: 30px; }
+                    .form-container { background: white; padding: 40px; border-radius: 15px; box-shadow: 0 10px 30px rgba(0,0,0,0.1); }
+                    h1 { color: #2d3748; margin-bottom: 30px; }
+                    .form-group { margin-bottom: 20px; }
+                    label { display: block; margin-bottom: 8px; font-weight: 500; color: #4a5568; }
+                    input, select { width: 100%; padding: 12px; border: 2px solid #e2e8f0; border-radius: 8px; font-size: 16px; }
+                    .form-actions { margin-top: 30px; display: flex; justify-content: space-between; }
+                    .btn { padding: 12px 24px; border: none; border-radius: 8px; cursor: pointer; font-weight: 500; }
+                    .btn-primary { background: #667eea; color: white; }
+                    .btn-secondary { background: #a0aec0; color: white; }
+                </style>
+            </head>
+            <body>
+                <div class="container">
+                    <div class="form-container">
+                        <h1>Edit Employee: {{firstName}} {{lastName}}</h1>
+                        <form method="POST" action="/employees/edit">
+                            <input type="hidden" name="id" value="{{id}}">
+
+                            <div class="form-group">
+                                <label>Employee Code</label>
+                                <input type="text" name="employeeCode" value="{{employeeCode}}" required>
+                            </div>
+
+                            <div class="form-group">
+                                <label>Job Title</label>
+                                <input type="text" name="jobTitle" value="{{jobTitle}}" required>
+                            </div>
+
+                            <div class="form-group">
+                                <label>Department</label>
+                                <select name="departmentId">
+                                    <option value="">Select Department</option>
+            {{departmentOptions}}\
+                                </select>
+                            </div>
+
+                            <div class="form-group">
+                                <label>Salary</label>
+                                <input type="number" name="salary" step="0.01" value="{{salary}}" required>
+                            </div>
+
+                            <div class="form-group">
+                                <label>Phone</label>
+                                <input type="text" name="phone" value="{{phone}}">
+                            </div>
+
+                            <div class="form-group">
+                                <label>Address</label>
+                                <input type="text" name="address" value="{{address}}" style="height: 80px;">
+                            </div>
+
+                            <div class="form-actions">
+                                <a href="/employees" class="btn btn-secondary">Cancel</a>
+                                <button type="submit" class="btn btn-primary">Update Employee</button>
+                            </div>
+                        </form>
+                    </div>
+                </div>
+            </body>
+            </html>
+            """);
+
+    static final HtmlTemplate DEPARTMENT_OPTION = HtmlTemplate.compile(
+            "                        <option value=\"{{id}}\"{{selected}}>{{name}}</option>\n");
+}
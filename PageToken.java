@@ -0,0 +1,75 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: PageToken.java
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination: the sort key of the last row of a
+ * page, either (hire date, id) or just (id). The next page is read with a
+ * {@code WHERE} on that key, which an index seeks straight to, so deep pages
+ * cost the same as the first. Clients see the key only as an opaque URL-safe string.
+ */
+public class PageToken {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // null for tokens keyed on id alone
+    private final LocalDate date;
+    private final int id;
+
+    private PageToken(LocalDate date, int id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static PageToken of(LocalDate date, int id) {
+        return new PageToken(date, id);
+    }
+
+    public static PageToken of(int id) {
+        return new PageToken(null, id);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PageToken decode(String token) {
+        try {
+            String[] key = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":");
+            PageToken decoded = null;
+            if (key.length == 2 && key[0].equals("i")) {
+                decoded = of(Integer.parseInt(key[1]));
+            } else if (key.length == 3 && key[0].equals("d")) {
+                decoded = of(LocalDate.parse(key[1]), Integer.parseInt(key[2]));
+            }
+            // Edited tokens such as "i:007" or "i:5:" parse, but are not what encode() writes
+            if (decoded != null && decoded.encode().equals(token)) {
+                return decoded;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Falls through to the error below
+        }
+        throw new IllegalArgumentException("Invalid page token: " + token);
+    }
+
+    public String encode() {
+        String key = date != null ? "d:" + date + ":" + id : "i:" + id;
+        return ENCODER.encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDate() { return date; }
+    public int getId() { return id; }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,21 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: PoolExhaustedException.java
+
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Thrown when a pool's connection wait queue is already full, so the caller is
+ * turned away immediately instead of queueing behind the pool.
+ */
+public class PoolExhaustedException extends SQLTransientConnectionException {
+    private static final long serialVersionUID = 1L;
+
+    public PoolExhaustedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,65 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: PoolStats.java
+
+/**
+ * Point-in-time snapshot of one connection pool and its wait queue.
+ * Wait times are in microseconds.
+ */
+public class PoolStats {
+    private final int maxPoolSize;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waitingThreads;
+    private final int maxWaiters;
+    private final long acquisitions;
+    private final long rejections;
+    private final long timeouts;
+    private final long averageWaitMicros;
+    private final long maxWaitMicros;
+
+    public PoolStats(int maxPoolSize, int activeConnections, int idleConnections, int waitingThreads,
+                     int maxWaiters, long acquisitions, long rejections, long timeouts,
+                     long averageWaitMicros, long maxWaitMicros) {
+        this.maxPoolSize = maxPoolSize;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waitingThreads = waitingThreads;
+        this.maxWaiters = maxWaiters;
+        this.acquisitions = acquisitions;
+        this.rejections = rejections;
+        this.timeouts = timeouts;
+        this.averageWaitMicros = averageWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+    }
+
+    public int getMaxPoolSize() { return maxPoolSize; }
+    public int getActiveConnections() { return activeConnections; }
+    public int getIdleConnections() { return idleConnections; }
+    public int getWaitingThreads() { return waitingThreads; }
+    public int getMaxWaiters() { return maxWaiters; }
+    public long getAcquisitions() { return acquisitions; }
+    public long getRejections() { return rejections; }
+    public long getTimeouts() { return timeouts; }
+    public long getAverageWaitMicros() { return averageWaitMicros; }
+    public long getMaxWaitMicros() { return maxWaitMicros; }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", max=" + maxPoolSize +
+                ", waiting=" + waitingThreads + "/" + maxWaiters +
+                ", acquisitions=" + acquisitions +
+                ", rejections=" + rejections +
+                ", timeouts=" + timeouts +
+                ", avgWaitMicros=" + averageWaitMicros +
+                ", maxWaitMicros=" + maxWaitMicros +
+                '}';
+    }
+}
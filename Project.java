@@ -0,0 +1,80 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: Project.java
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class Project {
+    public enum Status {
+        PLANNING, ACTIVE, ON_HOLD, COMPLETED, CANCELLED
+    }
+    
+    private int id;
+    private String name;
+    private String description;
+    private Integer departmentId;
+    private Integer managerId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal budget;
+    private Status status;
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public Project() {}
+    
+    public Project(String name, Integer departmentId, LocalDate startDate, BigDecimal budget) {
+        this.name = name;
+        this.departmentId = departmentId;
+        this.startDate = startDate;
+        this.budget = budget;
+        this.status = Status.PLANNING;
+    }
+    
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public Integer getDepartmentId() { return departmentId; }
+    public void setDepartmentId(Integer departmentId) { this.departmentId = departmentId; }
+    
+    public Integer getManagerId() { return managerId; }
+    public void setManagerId(Integer managerId) { this.managerId = managerId; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public LocalDate getEndDate() { return endDate; }
+    public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+    
+    public BigDecimal getBudget() { return budget; }
+    public void setBudget(BigDecimal budget) { this.budget = budget; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    @Override
+    public String toString() {
+        return "Project{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", status=" + status +
+                ", budget=" + budget +
+                '}';
+    }
+}
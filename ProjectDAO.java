@@ -0,0 +1,79 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: ProjectDAO.java
+
+import java.sql.*;
+import java.util.*;
+
+public class ProjectDAO {
+    
+    private static final String SELECT_PROJECT_BY_ID = "SELECT * FROM projects WHERE id = ?";
+    private static final String SELECT_ALL_PROJECTS = "SELECT * FROM projects ORDER BY created_at DESC, id DESC";
+    private static final String SELECT_PROJECTS_BY_DEPARTMENT =
+            "SELECT * FROM projects WHERE department_id = ? ORDER BY name";
+    private static final String SELECT_TASKS_BY_PROJECT =
+            "SELECT * FROM tasks WHERE project_id = ? ORDER BY due_date IS NULL, due_date, id";
+    private static final String SELECT_TASKS_BY_ASSIGNEE =
+            "SELECT * FROM tasks WHERE assigned_to = ? ORDER BY due_date IS NULL, due_date, id";
+    
+    // Statements pre-prepared on every pooled connection, see StatementCache
+    static final List<String> PREPARED_SQL = List.of(
+            SELECT_PROJECT_BY_ID, SELECT_ALL_PROJECTS, SELECT_PROJECTS_BY_DEPARTMENT,
+            SELECT_TASKS_BY_PROJECT, SELECT_TASKS_BY_ASSIGNEE);
+    
+    // Column names match the model properties, so the mappers are generated, see BeanMapper
+    private static final BeanMapper<Project> PROJECT = BeanMapper.of(Project.class);
+    private static final BeanMapper<Task> TASK = BeanMapper.of(Task.class);
+    
+    public Project getProjectById(int id) throws SQLException {
+        List<Project> projects = query(SELECT_PROJECT_BY_ID, id, PROJECT);
+        return projects.isEmpty() ? null : projects.get(0);
+    }
+    
+    public List<Project> getAllProjects() throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_ALL_PROJECTS);
+             ResultSet rs = pstmt.executeQuery()) {
+            
+            return readAll(rs, PROJECT);
+        }
+    }
+    
+    public List<Project> getProjectsByDepartment(int departmentId) throws SQLException {
+        return query(SELECT_PROJECTS_BY_DEPARTMENT, departmentId, PROJECT);
+    }
+    
+    // Soonest due first; tasks without a due date last
+    public List<Task> getTasksByProject(int projectId) throws SQLException {
+        return query(SELECT_TASKS_BY_PROJECT, projectId, TASK);
+    }
+    
+    public List<Task> getTasksAssignedTo(int employeeId) throws SQLException {
+        return query(SELECT_TASKS_BY_ASSIGNEE, employeeId, TASK);
+    }
+    
+    private static <T> List<T> query(String sql, int key, ResultMapper<T> mapper) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, sql)) {
+            
+            pstmt.setInt(1, key);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return readAll(rs, mapper);
+            }
+        }
+    }
+    
+    private static <T> List<T> readAll(ResultSet rs, ResultMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        RowCursor.RowMapper<T> row = mapper.bind(rs);
+        while (rs.next()) {
+            rows.add(row.map(rs));
+        }
+        return rows;
+    }
+}
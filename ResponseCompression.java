@@ -0,0 +1,214 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: ResponseCompression.java
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * {@code Accept-Encoding} negotiation and gzip/deflate output streams backed by
+ * pooled {@link Deflater}s. A Deflater holds about 256 KB of native memory. Pooling
+ * them avoids allocating and freeing that memory on every response.
+ */
+public class ResponseCompression {
+    public static final String GZIP = "gzip";
+    public static final String DEFLATE = "deflate";
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("http.compression.enabled", "true"));
+    // Bodies smaller than this (bytes) go out uncompressed; the framing overhead is not worth it
+    static final int MIN_SIZE = Integer.getInteger("http.compression.minSize", 1024);
+    static final int LEVEL = Integer.getInteger("http.compression.level", Deflater.DEFAULT_COMPRESSION);
+    // Bodies at least this large (chars) are compressed straight to the socket with chunked encoding
+    static final int STREAM_THRESHOLD = Integer.getInteger("http.compression.streamThreshold", 64 * 1024);
+    private static final int MAX_POOLED = Integer.getInteger("http.compression.pooledDeflaters", 64);
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
+    // gzip writes its own header and trailer around raw deflate data (nowrap);
+    // HTTP "deflate" is the zlib format, which the Deflater wraps itself
+    private static final DeflaterPool gzipDeflaters = new DeflaterPool(true);
+    private static final DeflaterPool zlibDeflaters = new DeflaterPool(false);
+
+    private ResponseCompression() {}
+
+    /**
+     * Picks the coding to use from an {@code Accept-Encoding} header. gzip wins
+     * over deflate when both are acceptable with the same quality.
+     *
+     * @return {@link #GZIP}, {@link #DEFLATE}, or {@code null} for identity
+     */
+    public static String negotiate(String acceptEncoding) {
+        if (!ENABLED || acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        // -1 = not listed
+        double gzip = -1;
+        double deflate = -1;
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (coding) {
+                case "gzip", "x-gzip" -> gzip = quality;
+                case "deflate" -> deflate = quality;
+                case "*" -> wildcard = quality;
+                default -> { }
+            }
+        }
+        // "*" covers codings the client did not list explicitly
+        if (gzip < 0) gzip = wildcard;
+        if (deflate < 0) deflate = wildcard;
+        if (gzip > 0 && gzip >= deflate) {
+            return GZIP;
+        }
+        return deflate > 0 ? DEFLATE : null;
+    }
+
+    public static boolean isCompressible(String contentType) {
+        return contentType != null
+                && (contentType.startsWith("text/") || contentType.startsWith("application/json"));
+    }
+
+    /**
+     * Wraps {@code out} in a compressing stream. Closing the returned stream
+     * finishes the compressed data, returns the Deflater to the pool and closes
+     * {@code out}.
+     */
+    public static OutputStream compress(String encoding, OutputStream out) throws IOException {
+        boolean gzip = GZIP.equals(encoding);
+        DeflaterPool pool = gzip ? gzipDeflaters : zlibDeflaters;
+        return new CompressingOutputStream(out, pool, gzip);
+    }
+
+    /**
+     * Gives up on a stream from {@link #compress} without finishing it: no
+     * trailer is written and the stream it wraps is left open. Does nothing for
+     * any other stream.
+     */
+    static void abort(OutputStream compressed) {
+        if (compressed instanceof CompressingOutputStream stream) {
+            stream.abort();
+        }
+    }
+
+    private static final class DeflaterPool {
+        private final boolean nowrap;
+        private final ConcurrentLinkedQueue<Deflater> free = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pooled = new AtomicInteger();
+
+        DeflaterPool(boolean nowrap) {
+            this.nowrap = nowrap;
+        }
+
+        Deflater acquire() {
+            Deflater deflater = free.poll();
+            if (deflater == null) {
+                return new Deflater(LEVEL, nowrap);
+            }
+            pooled.decrementAndGet();
+            return deflater;
+        }
+
+        void release(Deflater deflater) {
+            deflater.reset();
+            if (pooled.incrementAndGet() <= MAX_POOLED) {
+                free.offer(deflater);
+            } else {
+                pooled.decrementAndGet();
+                deflater.end();
+            }
+        }
+    }
+
+    private static final class CompressingOutputStream extends DeflaterOutputStream {
+        private static final byte[] GZIP_HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+        };
+
+        private final DeflaterPool pool;
+        private final CRC32 crc;
+        private boolean finished;
+        private boolean closed;
+
+        CompressingOutputStream(OutputStream out, DeflaterPool pool, boolean gzip) throws IOException {
+            super(out, pool.acquire(), STREAM_BUFFER_SIZE);
+            this.pool = pool;
+            this.crc = gzip ? new CRC32() : null;
+            if (gzip) {
+                out.write(GZIP_HEADER);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            if (crc != null) {
+                crc.update(b, off, len);
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            super.finish();
+            if (crc != null) {
+                writeIntLE((int) crc.getValue());
+                writeIntLE((int) def.getBytesRead());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                finish();
+            } finally {
+                // The Deflater was supplied, so DeflaterOutputStream does not end() it
+                pool.release(def);
+                out.close();
+            }
+        }
+
+        void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            finished = true;
+            pool.release(def);
+        }
+
+        private void writeIntLE(int value) throws IOException {
+            out.write(value & 0xff);
+            out.write((value >>> 8) & 0xff);
+            out.write((value >>> 16) & 0xff);
+            out.write((value >>> 24) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: ResultMapper.java
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps the rows of a query. {@link #bind(Columns)} runs once per result set: it
+ * looks up each column the mapper reads by label and returns a
+ * {@link RowCursor.RowMapper} that reads them by position. Per row, the driver
+ * then reads columns by index instead of searching the column labels.
+ */
+@FunctionalInterface
+public interface ResultMapper<T> {
+
+    RowCursor.RowMapper<T> bind(Columns columns) throws SQLException;
+
+    /**
+     * Binds to the columns of {@code rs}, before reading its rows.
+     */
+    default RowCursor.RowMapper<T> bind(ResultSet rs) throws SQLException {
+        return bind(new Columns(rs.getMetaData()));
+    }
+
+    /**
+     * Column positions of one result set by label, ignoring case. The first
+     * column wins when two share a label, as with {@link ResultSet#findColumn}.
+     */
+    final class Columns {
+        private final Map<String, Integer> positions = new HashMap<>();
+        private final String[] labels;
+
+        Columns(ResultSetMetaData metaData) throws SQLException {
+            labels = new String[metaData.getColumnCount()];
+            for (int i = 1; i <= labels.length; i++) {
+                labels[i - 1] = metaData.getColumnLabel(i);
+                positions.putIfAbsent(labels[i - 1].toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        /**
+         * @throws SQLException if the result set has no such column
+         */
+        public int index(String label) throws SQLException {
+            Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+            if (position == null) {
+                throw new SQLException("Column '" + label + "' not found");
+            }
+            return position;
+        }
+
+        public int count() {
+            return labels.length;
+        }
+
+        /**
+         * @param index 1-based, as for {@link ResultSet} getters
+         */
+        public String label(int index) {
+            return labels[index - 1];
+        }
+    }
+}
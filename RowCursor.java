@@ -0,0 +1,207 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: RowCursor.java
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.*;
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An open query whose rows are mapped as they are fetched, for
+ * responses that write rows straight to the client. The cursor owns its pooled
+ * connection until {@link #close()}.
+ *
+ * <p>Rows are read while the response is being written, so SQL failures after
+ * the query has started surface as {@link IOException}s. Rows are fetched and
+ * mapped a batch of {@code db.stream.fetchSize} at a time through
+ * {@link JdbcExecutor}, so a response written from a virtual thread hands only
+ * the fetches to a JDBC thread and holds none while the client reads.
+ *
+ * <p>{@link #stream()} hands the rows to code that is not writing a response,
+ * such as exports and reports, as a lazy {@link Stream}.
+ */
+public class RowCursor<T> implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface RowHandler<T> {
+        void accept(T row) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface ParameterSetter {
+        void set(PreparedStatement pstmt) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final Statement stmt;
+    private final ResultSet rs;
+    private final RowMapper<T> mapper;
+    // Rows fetched and mapped but not yet handed over
+    private final ArrayDeque<T> fetched = new ArrayDeque<>();
+    private boolean exhausted;
+    private int count;
+    private boolean closed;
+
+    RowCursor(Connection conn, Statement stmt, ResultSet rs, RowMapper<T> mapper) {
+        this.conn = conn;
+        this.stmt = stmt;
+        this.rs = rs;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Runs {@code sql} on a read connection through a server-side cursor that
+     * fetches {@code db.stream.fetchSize} rows per round trip, so the driver holds
+     * one batch of rows rather than the whole result.
+     */
+    static <T> RowCursor<T> open(String sql, ParameterSetter parameters, ResultMapper<T> mapper) throws SQLException {
+        Connection conn = DatabaseConnection.getReadConnection();
+        try {
+            PreparedStatement pstmt = StatementCache.prepare(conn, sql);
+            pstmt.setFetchSize(DatabaseConnection.getStreamFetchSize());
+            parameters.set(pstmt);
+            ResultSet rs = pstmt.executeQuery();
+            try {
+                return new RowCursor<>(conn, pstmt, rs, mapper.bind(rs));
+            } catch (SQLException e) {
+                rs.close();
+                throw e;
+            }
+        } catch (SQLException e) {
+            DatabaseConnection.releaseConnection(conn);
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches the first row if needed to tell whether there are any rows.
+     */
+    public boolean isEmpty() throws IOException {
+        if (count == 0 && fetched.isEmpty()) {
+            fetch();
+        }
+        return count == 0 && fetched.isEmpty();
+    }
+
+    /**
+     * Maps and hands over the remaining rows in order.
+     *
+     * @return rows handled so far, including earlier calls
+     */
+    public int forEach(RowHandler<T> handler) throws IOException {
+        T row;
+        while ((row = next()) != null) {
+            handler.accept(row);
+        }
+        return count;
+    }
+
+    /**
+     * The remaining rows as a sequential stream, fetched as it is consumed.
+     * Closing the stream closes this cursor, so use it in try-with-resources;
+     * the cursor also closes itself once the last row has been read. SQL
+     * failures are thrown as {@link UncheckedIOException}s.
+     */
+    public Stream<T> stream() {
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                T row;
+                try {
+                    row = next();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (row == null) {
+                    close();
+                    return false;
+                }
+                action.accept(row);
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(this::close);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // The next row, or null after the last
+    private T next() throws IOException {
+        if (fetched.isEmpty()) {
+            fetch();
+        }
+        T row = fetched.poll();
+        if (row != null) {
+            count++;
+        }
+        return row;
+    }
+
+    // Maps up to one fetch's worth of rows into fetched; the driver holds that many anyway
+    private void fetch() throws IOException {
+        if (exhausted) {
+            return;
+        }
+        int batch = Math.max(1, DatabaseConnection.getStreamFetchSize());
+        try {
+            JdbcExecutor.call(() -> {
+                while (fetched.size() < batch) {
+                    if (!rs.next()) {
+                        exhausted = true;
+                        break;
+                    }
+                    try {
+                        fetched.add(mapper.map(rs));
+                    } catch (SQLException e) {
+                        throw new SQLException("Failed to read row " + (count + fetched.size() + 1), e);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IOException("Failed to fetch rows", e);
+        }
+    }
+
+    /**
+     * Closes the result set and statement and returns the connection to the pool.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            JdbcExecutor.call(() -> {
+                rs.close();
+                // The statement goes back to the driver's statement cache; don't leave it in cursor mode
+                stmt.setFetchSize(0);
+                stmt.close();
+                return null;
+            });
+        } catch (SQLException e) {
+            System.err.println("Error closing row cursor: " + e.getMessage());
+        } finally {
+            DatabaseConnection.releaseConnection(conn);
+        }
+    }
+}
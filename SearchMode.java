@@ -0,0 +1,42 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: SearchMode.java
+
+import java.util.Locale;
+
+/**
+ * How {@link EmployeeDAO#searchEmployees(String)} and {@link UserDAO#searchUsers(String)}
+ * find matches. The default comes from {@code search.mode} and can be changed
+ * at runtime with {@link #setDefault(SearchMode)}.
+ */
+public enum SearchMode {
+    /** {@code LIKE '%keyword%'} on the database, which reads every row */
+    LIKE,
+    /** The in-memory trigram index, see {@link EmployeeSearchIndex}; employees only, users use LIKE */
+    INDEX,
+    /** {@code MATCH ... AGAINST} on FULLTEXT indexes, best matches first, see {@link FullTextSearch} */
+    FULLTEXT,
+    /** Typo-tolerant match on names and usernames, see {@link FuzzyIndex}; employees only, users use LIKE */
+    FUZZY;
+
+    private static volatile SearchMode current = parse(System.getProperty("search.mode", "index"));
+
+    public static SearchMode getDefault() {
+        return current;
+    }
+
+    public static void setDefault(SearchMode mode) {
+        current = mode;
+    }
+
+    /**
+     * @throws IllegalArgumentException for a name that is not a mode
+     */
+    public static SearchMode parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,162 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: SingleFlight.java
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shares one execution among concurrent identical reads. A read that arrives
+ * while the same SQL with the same parameters is already running waits for that
+ * execution instead of running its own. Only reads that overlap in time are
+ * shared; nothing is kept once the execution finishes.
+ *
+ * The key includes the {@link TableVersions} of the tables read. A read that
+ * starts after a write to one of them runs on its own rather than joining an
+ * execution that may predate the write. Writers never wait on anything here.
+ * Requests pinned to the primary, and code run through {@link #fresh(Query)},
+ * always execute their own query.
+ */
+public class SingleFlight {
+    public static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("db.singleFlight.enabled", "true"));
+
+    @FunctionalInterface
+    public interface Query<V> {
+        V run() throws SQLException;
+    }
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    private static final ConcurrentHashMap<List<Object>, Flight> inFlight = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Boolean> bypass = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final LongAdder executions = new LongAdder();
+    private static final LongAdder sharedResults = new LongAdder();
+
+    private SingleFlight() {}
+
+    /**
+     * Runs {@code query}, or waits for an identical one already running.
+     * Whenever a result is shared, every caller gets its own copy made with
+     * {@code copier}, so no caller can change another's result.
+     *
+     * @param tables the tables the query reads, as named in {@link TableVersions}
+     */
+    public static <V> V execute(String sql, List<?> params, String[] tables,
+                                UnaryOperator<V> copier, Query<V> query) throws SQLException {
+        if (!ENABLED || bypass.get() || DatabaseConnection.isPinnedToPrimary()) {
+            return query.run();
+        }
+
+        List<Object> key = new ArrayList<>(params.size() + tables.length + 1);
+        key.add(sql);
+        key.addAll(params);
+        for (String table : tables) {
+            key.add(TableVersions.version(table));
+        }
+        Flight mine = new Flight();
+        // Joining and leaving both lock the key's bin, so the leader sees every waiter
+        Flight flight = inFlight.compute(key, (k, running) -> {
+            if (running == null) {
+                return mine;
+            }
+            running.waiters.incrementAndGet();
+            return running;
+        });
+
+        if (flight != mine) {
+            sharedResults.increment();
+            return copyOf(await(flight), copier);
+        }
+
+        executions.increment();
+        V value;
+        try {
+            value = query.run();
+            mine.result.complete(value);
+        } catch (SQLException | RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        // Waiters copy from the original, so the leader must not hand it out either
+        return mine.waiters.get() > 0 ? copyOf(value, copier) : value;
+    }
+
+    /**
+     * Runs {@code query} with every read in it executing on its own, for callers
+     * that need results no older than the call.
+     */
+    public static <V> V fresh(Query<V> query) throws SQLException {
+        boolean outer = bypass.get();
+        bypass.set(Boolean.TRUE);
+        try {
+            return query.run();
+        } finally {
+            bypass.set(outer);
+        }
+    }
+
+    /**
+     * Copier for a list result: a new list of copied elements.
+     */
+    public static <T> UnaryOperator<List<T>> listCopier(UnaryOperator<T> elementCopier) {
+        return list -> {
+            List<T> copy = new ArrayList<>(list.size());
+            for (T element : list) {
+                copy.add(elementCopier.apply(element));
+            }
+            return copy;
+        };
+    }
+
+    public static List<Object> params(Object... params) {
+        return Arrays.asList(params);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V await(Flight flight) throws SQLException {
+        try {
+            return (V) flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a shared query", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Shared query failed", cause);
+        }
+    }
+
+    private static <V> V copyOf(V value, UnaryOperator<V> copier) {
+        return value == null ? null : copier.apply(value);
+    }
+
+    public static long getExecutions() { return executions.sum(); }
+
+    /**
+     * Reads answered from another caller's execution instead of their own.
+     */
+    public static long getSharedResults() { return sharedResults.sum(); }
+}
@@ -0,0 +1,151 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: StatementCache.java
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Front door for DAO statement preparation.
+ *
+ * The actual caching is done per physical connection by MySQL Connector/J
+ * ({@code cachePrepStmts} + {@code useServerPrepStmts}): closing a cached
+ * PreparedStatement keeps the server-side handle open, and the next
+ * {@code prepareStatement} with the same SQL reuses it without a parse round trip.
+ * This class warms that cache with every DAO statement when the pool opens a
+ * connection, and sizes it to hold every statement the DAOs can build (see
+ * {@link #getStatementShapeBound()}), so nothing should be evicted.
+ *
+ * The driver does not publish its cache statistics, so each connection's cache
+ * is mirrored here with the same size, SQL length limit and least-recently-used
+ * eviction. Hits, misses and evictions are counted against that mirror.
+ */
+public class StatementCache {
+
+    private static final List<String> WARM_SQL = new ArrayList<>();
+    static {
+        WARM_SQL.addAll(EmployeeDAO.PREPARED_SQL);
+        WARM_SQL.addAll(UserDAO.PREPARED_SQL);
+        WARM_SQL.addAll(DepartmentDAO.PREPARED_SQL);
+        WARM_SQL.addAll(ProjectDAO.PREPARED_SQL);
+        WARM_SQL.addAll(EmployeeSearchIndex.PREPARED_SQL);
+    }
+
+    // Warmed statements plus those the DAOs build at run time (IN lists, projections)
+    private static final int SHAPE_BOUND = WARM_SQL.size() + EmployeeDAO.DYNAMIC_SQL_SHAPES
+            + UserDAO.DYNAMIC_SQL_SHAPES + EmployeeSearchIndex.DYNAMIC_SQL_SHAPES;
+
+    // Connector/J prepStmtCacheSize and prepStmtCacheSqlLimit; longer SQL is never cached
+    static final int CACHE_SIZE = Math.max(Integer.getInteger("db.stmtCache.size", 250), SHAPE_BOUND);
+    static final int SQL_LIMIT = Integer.getInteger("db.stmtCache.sqlLimit", 2048);
+
+    // Physical connection -> mirror of its statement cache. Weak keys so retired connections drop out.
+    private static final Map<Connection, Map<String, Boolean>> cachedByConnection = new WeakHashMap<>();
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
+
+    private StatementCache() {}
+
+    /**
+     * Prepares every registered DAO statement on a freshly opened physical
+     * connection. A statement that fails to prepare (e.g. schema not migrated
+     * yet) is logged and skipped; it will be prepared on first use instead.
+     */
+    public static void warm(Connection physical) {
+        Map<String, Boolean> cached = cachedOn(physical);
+        for (String sql : WARM_SQL) {
+            try {
+                PreparedStatement pstmt = physical.prepareStatement(sql);
+                // Closing a cached statement parks it in the connection's cache instead of deallocating it
+                pstmt.close();
+                synchronized (cached) {
+                    cached.put(sql, Boolean.TRUE);
+                }
+            } catch (SQLException e) {
+                System.err.println("Statement warm-up failed for " + sql + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public static PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        record(conn, sql);
+        return conn.prepareStatement(sql);
+    }
+
+    public static PreparedStatement prepare(Connection conn, String sql, int autoGeneratedKeys) throws SQLException {
+        record(conn, sql);
+        return conn.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return statements pushed out of a connection's cache to make room; stays at
+     *         zero while {@link #getCacheSize()} covers {@link #getStatementShapeBound()}
+     */
+    public static long getEvictions() {
+        return evictions.sum();
+    }
+
+    public static int getCacheSize() {
+        return CACHE_SIZE;
+    }
+
+    public static int getWarmStatementCount() {
+        return WARM_SQL.size();
+    }
+
+    /**
+     * @return the most distinct statements the DAOs prepare: the warmed ones plus
+     *         every IN-list bucket and projection they build at run time
+     */
+    public static int getStatementShapeBound() {
+        return SHAPE_BOUND;
+    }
+
+    private static void record(Connection conn, String sql) throws SQLException {
+        // Pool proxies unwrap to the driver connection that owns the statement cache
+        Map<String, Boolean> cached = cachedOn(conn.unwrap(Connection.class));
+        boolean hit;
+        synchronized (cached) {
+            hit = cached.get(sql) != null;
+            if (!hit && sql.length() < SQL_LIMIT) {
+                cached.put(sql, Boolean.TRUE);
+            }
+        }
+        if (hit) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    private static Map<String, Boolean> cachedOn(Connection physical) {
+        synchronized (cachedByConnection) {
+            return cachedByConnection.computeIfAbsent(physical, c -> new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    if (size() <= CACHE_SIZE) {
+                        return false;
+                    }
+                    evictions.increment();
+                    return true;
+                }
+            });
+        }
+    }
+}
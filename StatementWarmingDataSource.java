@@ -0,0 +1,88 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: StatementWarmingDataSource.java
+
+import java.io.PrintWriter;
+import java.sql.*;
+import java.util.Properties;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * DataSource handed to HikariCP. Opens physical connections through the MySQL
+ * driver and pre-prepares all DAO statements on each one before the pool
+ * lends it out.
+ */
+class StatementWarmingDataSource implements DataSource {
+    private final String url;
+    private final Properties connectionProps;
+    private int loginTimeoutSeconds;
+
+    StatementWarmingDataSource(String url, Properties connectionProps) {
+        this.url = url;
+        this.connectionProps = connectionProps;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return open(connectionProps);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Properties props = new Properties();
+        props.putAll(connectionProps);
+        props.put("user", username);
+        props.put("password", password);
+        return open(props);
+    }
+
+    private Connection open(Properties props) throws SQLException {
+        Connection conn = DriverManager.getConnection(url, props);
+        StatementCache.warm(conn);
+        return conn;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return DriverManager.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        DriverManager.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        loginTimeoutSeconds = seconds;
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return loginTimeoutSeconds;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -0,0 +1,450 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: SuggestionTrie.java
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Radix tree of employee names, employee codes and job titles for search-box
+ * autocompletion. A suggestion is reachable from the start of any of its words,
+ * so "doe" finds "John Doe" and "eng" finds "Software Engineer". Suggestions are
+ * ranked by how many employees share them, then by length.
+ *
+ * Each node caches the best {@link #MAX_RESULTS} suggestions of its subtree the
+ * first time a prefix ends there. Later lookups of that prefix cost a walk down
+ * the tree. A change clears the cached lists on the paths to the keys it touches.
+ *
+ * Lookups share a lock; {@link #put} and {@link #remove} take it exclusively.
+ */
+public class SuggestionTrie {
+    // Most suggestions returned for a prefix, and the length of each node's cached list
+    public static final int MAX_RESULTS = Integer.getInteger("search.suggest.maxResults", 10);
+
+    /**
+     * One suggestion as returned by {@link #suggest(String, int)}.
+     */
+    public static final class Suggestion {
+        private final String text;
+        private final EmployeeField field;
+        private final int employeeCount;
+        private final int employeeId;
+
+        Suggestion(String text, EmployeeField field, int employeeCount, int employeeId) {
+            this.text = text;
+            this.field = field;
+            this.employeeCount = employeeCount;
+            this.employeeId = employeeId;
+        }
+
+        public String getText() { return text; }
+
+        /**
+         * @return {@link EmployeeField#NAME}, {@link EmployeeField#EMPLOYEE_CODE} or {@link EmployeeField#JOB_TITLE}
+         */
+        public EmployeeField getField() { return field; }
+        public int getEmployeeCount() { return employeeCount; }
+
+        /**
+         * @return the employee's id when exactly one has this suggestion, else 0
+         */
+        public int getEmployeeId() { return employeeId; }
+    }
+
+    // A distinct text of one field and the employees having it
+    private static final class Entry {
+        final String text;
+        final EmployeeField field;
+        final String[] keys;
+        final IdSet employees = new IdSet();
+
+        Entry(String text, EmployeeField field, String[] keys) {
+            this.text = text;
+            this.field = field;
+            this.keys = keys;
+        }
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        // Characters on the edge from the parent; empty for the root
+        String label;
+        // Sorted by the first character of their labels
+        Node[] children = NO_CHILDREN;
+        // Entries whose key ends here, or null
+        Entry[] entries;
+        // Best entries in this subtree, or null until the next lookup computes them
+        volatile Entry[] top;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char c = children[mid].label.charAt(0);
+                if (c < first) {
+                    low = mid + 1;
+                } else if (c > first) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -low - 1;
+        }
+    }
+
+    private static final Comparator<Entry> RANK = Comparator
+            .comparingInt((Entry entry) -> -entry.employees.size)
+            .thenComparingInt(entry -> entry.text.length())
+            .thenComparing(entry -> entry.text);
+
+    private final Node root = new Node("");
+    // Field and folded text -> entry
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<Integer, Entry[]> byEmployee = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds an employee's suggestions, replacing any it had. Null values are skipped.
+     */
+    public void put(int id, String firstName, String lastName, String employeeCode, String jobTitle) {
+        String name = ((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)).trim();
+        lock.writeLock().lock();
+        try {
+            removeEmployee(id);
+            List<Entry> added = new ArrayList<>(3);
+            addTo(added, id, EmployeeField.NAME, name);
+            addTo(added, id, EmployeeField.EMPLOYEE_CODE, employeeCode);
+            addTo(added, id, EmployeeField.JOB_TITLE, jobTitle);
+            byEmployee.put(id, added.toArray(new Entry[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeEmployee(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} (at most {@link #MAX_RESULTS}) suggestions with a
+     *         word starting with {@code prefix}, ignoring case, best first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = fold(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = find(key);
+            if (node == null) {
+                return List.of();
+            }
+            Entry[] top = node.top;
+            if (top == null) {
+                // Lookups compute the same list, so racing readers may both store it
+                top = best(node);
+                node.top = top;
+            }
+            List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                Entry entry = top[i];
+                int count = entry.employees.size;
+                suggestions.add(new Suggestion(entry.text, entry.field, count, count == 1 ? entry.employees.ids[0] : 0));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byEmployee.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of nodes in the tree, including the root
+     */
+    public int getNodeCount() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                count++;
+                for (Node child : node.children) {
+                    pending.push(child);
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void addTo(List<Entry> added, int id, EmployeeField field, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        String folded = fold(text);
+        Entry entry = entries.get(field.name() + '\0' + folded);
+        if (entry == null) {
+            entry = new Entry(text, field, keys(folded));
+            entries.put(field.name() + '\0' + folded, entry);
+            for (String key : entry.keys) {
+                insert(key, entry);
+            }
+        } else {
+            clearTop(entry);
+        }
+        entry.employees.add(id);
+        added.add(entry);
+    }
+
+    // Caller holds the write lock
+    private void removeEmployee(int id) {
+        Entry[] previous = byEmployee.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (Entry entry : previous) {
+            entry.employees.remove(id);
+            if (entry.employees.size > 0) {
+                clearTop(entry);
+                continue;
+            }
+            entries.remove(entry.field.name() + '\0' + fold(entry.text));
+            for (String key : entry.keys) {
+                delete(key, entry);
+            }
+        }
+    }
+
+    private void clearTop(Entry entry) {
+        for (String key : entry.keys) {
+            Node node = root;
+            int i = 0;
+            while (node != null) {
+                node.top = null;
+                if (i == key.length()) {
+                    break;
+                }
+                int at = node.childIndex(key.charAt(i));
+                if (at < 0) {
+                    break;
+                }
+                node = node.children[at];
+                i += node.label.length();
+            }
+        }
+    }
+
+    private void insert(String key, Entry entry) {
+        Node node = root;
+        int i = 0;
+        while (true) {
+            node.top = null;
+            if (i == key.length()) {
+                node.entries = append(node.entries, entry);
+                return;
+            }
+            int at = node.childIndex(key.charAt(i));
+            if (at < 0) {
+                Node leaf = new Node(key.substring(i));
+                leaf.entries = new Entry[] {entry};
+                node.children = insertChild(node.children, -at - 1, leaf);
+                return;
+            }
+            Node child = node.children[at];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                // The key leaves this edge part way along: split it there
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[] {child};
+                node.children[at] = split;
+                child = split;
+            }
+            i += common;
+            node = child;
+        }
+    }
+
+    private void delete(String key, Entry entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        while (true) {
+            node.top = null;
+            path.add(node);
+            if (i == key.length()) {
+                break;
+            }
+            int at = node.childIndex(key.charAt(i));
+            if (at < 0 || !key.startsWith(node.children[at].label, i)) {
+                return;
+            }
+            node = node.children[at];
+            i += node.label.length();
+        }
+        node.entries = without(node.entries, entry);
+
+        // Drop the node if it is now empty, and keep every other node branching or holding entries
+        for (int p = path.size() - 1; p > 0; p--) {
+            Node current = path.get(p);
+            Node parent = path.get(p - 1);
+            if (current.entries == null && current.children.length == 0) {
+                parent.children = removeChild(parent.children, parent.childIndex(current.label.charAt(0)));
+            } else if (current.entries == null && current.children.length == 1) {
+                Node only = current.children[0];
+                current.label = current.label + only.label;
+                current.children = only.children;
+                current.entries = only.entries;
+            } else {
+                break;
+            }
+        }
+    }
+
+    // Caller holds a lock
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            int at = node.childIndex(prefix.charAt(i));
+            if (at < 0) {
+                return null;
+            }
+            Node child = node.children[at];
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                // The prefix ends on or inside this edge
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            i += common;
+            node = child;
+        }
+        return node;
+    }
+
+    private static Entry[] best(Node subtree) {
+        PriorityQueue<Entry> worstFirst = new PriorityQueue<>(MAX_RESULTS + 1, RANK.reversed());
+        Set<Entry> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(subtree);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (node.entries != null) {
+                for (Entry entry : node.entries) {
+                    // An entry is reachable from each of its words, some maybe in this subtree
+                    if (seen.add(entry)) {
+                        worstFirst.add(entry);
+                        if (worstFirst.size() > MAX_RESULTS) {
+                            worstFirst.poll();
+                        }
+                    }
+                }
+            }
+            for (Node child : node.children) {
+                pending.push(child);
+            }
+        }
+        Entry[] top = worstFirst.toArray(new Entry[0]);
+        Arrays.sort(top, RANK);
+        return top;
+    }
+
+    // Keys of a folded text: the text from the start of each of its words
+    private static String[] keys(String folded) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < folded.length(); i++) {
+            if (Character.isLetterOrDigit(folded.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(folded.charAt(i - 1)))) {
+                keys.add(folded.substring(i));
+            }
+        }
+        if (keys.isEmpty()) {
+            keys.add(folded);
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min(label.length(), key.length() - from);
+        int n = 0;
+        while (n < max && label.charAt(n) == key.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    private static Entry[] append(Entry[] entries, Entry entry) {
+        if (entries == null) {
+            return new Entry[] {entry};
+        }
+        Entry[] grown = Arrays.copyOf(entries, entries.length + 1);
+        grown[entries.length] = entry;
+        return grown;
+    }
+
+    private static Entry[] without(Entry[] entries, Entry entry) {
+        if (entries == null) {
+            return null;
+        }
+        int n = 0;
+        Entry[] kept = new Entry[entries.length];
+        for (Entry e : entries) {
+            if (e != entry) {
+                kept[n++] = e;
+            }
+        }
+        return n == 0 ? null : Arrays.copyOf(kept, n);
+    }
+
+    private static Node[] insertChild(Node[] children, int at, Node child) {
+        Node[] grown = new Node[children.length + 1];
+        System.arraycopy(children, 0, grown, 0, at);
+        grown[at] = child;
+        System.arraycopy(children, at, grown, at + 1, children.length - at);
+        return grown;
+    }
+
+    private static Node[] removeChild(Node[] children, int at) {
+        if (children.length == 1) {
+            return Node.NO_CHILDREN;
+        }
+        Node[] shrunk = new Node[children.length - 1];
+        System.arraycopy(children, 0, shrunk, 0, at);
+        System.arraycopy(children, at + 1, shrunk, at, children.length - at - 1);
+        return shrunk;
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
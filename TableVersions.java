@@ -0,0 +1,62 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: TableVersions.java
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process change counters per table, bumped by the DAO write paths after a
+ * successful update. They are cheap validators for HTTP caching (see
+ * {@link ConditionalGet}). Only writes made through this process are seen.
+ * The boot epoch keeps versions from different runs apart.
+ */
+public class TableVersions {
+    public static final String EMPLOYEES = "employees";
+    public static final String USERS = "users";
+    public static final String DEPARTMENTS = "departments";
+
+    private static final long BOOT_EPOCH = System.currentTimeMillis();
+    private static final ConcurrentHashMap<String, Version> versions = new ConcurrentHashMap<>();
+
+    private TableVersions() {}
+
+    public static void bump(String table) {
+        Version version = versions.computeIfAbsent(table, t -> new Version());
+        version.counter.incrementAndGet();
+        version.lastModifiedMillis = System.currentTimeMillis();
+    }
+
+    public static long version(String table) {
+        Version version = versions.get(table);
+        return version == null ? 0 : version.counter.get();
+    }
+
+    /**
+     * Time of the most recent write to any of the tables; the boot time if none
+     * has been written since startup.
+     */
+    public static long lastModified(String... tables) {
+        long latest = BOOT_EPOCH;
+        for (String table : tables) {
+            Version version = versions.get(table);
+            if (version != null) {
+                latest = Math.max(latest, version.lastModifiedMillis);
+            }
+        }
+        return latest;
+    }
+
+    public static long getBootEpoch() {
+        return BOOT_EPOCH;
+    }
+
+    private static final class Version {
+        final AtomicLong counter = new AtomicLong();
+        volatile long lastModifiedMillis = BOOT_EPOCH;
+    }
+}
@@ -0,0 +1,93 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: Task.java
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class Task {
+    public enum Priority {
+        LOW, MEDIUM, HIGH, CRITICAL
+    }
+    
+    public enum Status {
+        TODO, IN_PROGRESS, REVIEW, COMPLETED, BLOCKED
+    }
+    
+    private int id;
+    private int projectId;
+    private String title;
+    private String description;
+    // Employee id
+    private Integer assignedTo;
+    private Priority priority;
+    private Status status;
+    private LocalDate dueDate;
+    private BigDecimal estimatedHours;
+    private BigDecimal actualHours;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public Task() {}
+    
+    public Task(int projectId, String title, Priority priority) {
+        this.projectId = projectId;
+        this.title = title;
+        this.priority = priority;
+        this.status = Status.TODO;
+    }
+    
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    
+    public int getProjectId() { return projectId; }
+    public void setProjectId(int projectId) { this.projectId = projectId; }
+    
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    
+    public Integer getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(Integer assignedTo) { this.assignedTo = assignedTo; }
+    
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+    
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    
+    public LocalDate getDueDate() { return dueDate; }
+    public void setDueDate(LocalDate dueDate) { this.dueDate = dueDate; }
+    
+    public BigDecimal getEstimatedHours() { return estimatedHours; }
+    public void setEstimatedHours(BigDecimal estimatedHours) { this.estimatedHours = estimatedHours; }
+    
+    public BigDecimal getActualHours() { return actualHours; }
+    public void setActualHours(BigDecimal actualHours) { this.actualHours = actualHours; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    @Override
+    public String toString() {
+        return "Task{" +
+                "id=" + id +
+                ", projectId=" + projectId +
+                ", title='" + title + '\'' +
+                ", priority=" + priority +
+                ", status=" + status +
+                '}';
+    }
+}
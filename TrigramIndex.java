@@ -0,0 +1,202 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: TrigramIndex.java
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from three-character sequences (trigrams) to the ids of the
+ * documents containing them, for {@code LIKE '%keyword%'} style search without
+ * looking at every document. A document is a few text fields; a keyword matches
+ * it if one of the fields contains the keyword, ignoring case.
+ *
+ * A search intersects the posting lists of the keyword's trigrams, shortest
+ * first, then checks the remaining candidates against their fields, so results
+ * are exact. Keywords shorter than three characters have no trigrams and are
+ * checked against every document instead.
+ *
+ * Searches share a lock; {@link #put} and {@link #remove} take it exclusively.
+ */
+public class TrigramIndex {
+
+    private final Map<Integer, String[]> documents = new HashMap<>();
+    // Trigram -> ids of the documents containing it
+    private final Map<Long, IdSet> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a document, or replaces the one with the same id. Null fields are
+     * skipped.
+     */
+    public void put(int id, String... fields) {
+        String[] folded = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            folded[i] = fields[i] == null ? null : fold(fields[i]);
+        }
+        Set<Long> added = trigrams(folded);
+
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.put(id, folded);
+            if (previous != null) {
+                for (Long trigram : trigrams(previous)) {
+                    if (!added.remove(trigram)) {
+                        removePosting(trigram, id);
+                    }
+                }
+            }
+            for (Long trigram : added) {
+                postings.computeIfAbsent(trigram, t -> new IdSet()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                for (Long trigram : trigrams(previous)) {
+                    removePosting(trigram, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePosting(Long trigram, int id) {
+        IdSet list = postings.get(trigram);
+        if (list != null) {
+            list.remove(id);
+            if (list.size == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * @return the ids of the documents with a field containing {@code keyword},
+     *         ignoring case, in ascending order
+     */
+    public int[] search(String keyword) {
+        String folded = fold(keyword);
+        Set<Long> wanted = trigrams(new String[] {folded});
+
+        lock.readLock().lock();
+        try {
+            if (wanted.isEmpty()) {
+                return scan(folded);
+            }
+            IdSet[] lists = new IdSet[wanted.size()];
+            int n = 0;
+            for (Long trigram : wanted) {
+                IdSet list = postings.get(trigram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists[n++] = list;
+            }
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+            // Candidates come from the shortest list and only ever shrink
+            int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                int kept = 0;
+                for (int c = 0; c < count; c++) {
+                    if (lists[i].contains(candidates[c])) {
+                        candidates[kept++] = candidates[c];
+                    }
+                }
+                count = kept;
+            }
+
+            // Sharing every trigram does not make the keyword a substring of one field
+            int matched = 0;
+            for (int c = 0; c < count; c++) {
+                if (matches(documents.get(candidates[c]), folded)) {
+                    candidates[matched++] = candidates[c];
+                }
+            }
+            return Arrays.copyOf(candidates, matched);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Caller holds the read lock
+    private int[] scan(String folded) {
+        int[] ids = new int[documents.size()];
+        int count = 0;
+        for (Map.Entry<Integer, String[]> document : documents.entrySet()) {
+            if (matches(document.getValue(), folded)) {
+                ids[count++] = document.getKey();
+            }
+        }
+        ids = Arrays.copyOf(ids, count);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static boolean matches(String[] fields, String folded) {
+        for (String field : fields) {
+            if (field != null && field.contains(folded)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Trigrams of each field on its own; none spans two fields
+    private static Set<Long> trigrams(String[] fields) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String field : fields) {
+            if (field == null) {
+                continue;
+            }
+            for (int i = 0; i + 3 <= field.length(); i++) {
+                trigrams.add(((long) field.charAt(i) << 32) | ((long) field.charAt(i + 1) << 16) | field.charAt(i + 2));
+            }
+        }
+        return trigrams;
+    }
+
+    private static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of distinct trigrams, i.e. posting lists
+     */
+    public int getTrigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -7,10 +7,29 @@ package com.company.db;
 // File: User.java
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class User {
     public enum Role {
-        ADMIN, MANAGER, USER
+        ADMIN, MANAGER, USER;
+        
+        // The role column holds lower-case names
+        private static final Map<String, Role> BY_COLUMN_VALUE = new HashMap<>();
+        static {
+            for (Role role : values()) {
+                BY_COLUMN_VALUE.put(role.name().toLowerCase(Locale.ROOT), role);
+            }
+        }
+        
+        /**
+         * Parses a value of the users.role column without allocating.
+         */
+        static Role fromColumn(String value) {
+            Role role = BY_COLUMN_VALUE.get(value);
+            return role != null ? role : valueOf(value.toUpperCase(Locale.ROOT));
+        }
     }
     
     private int id;
@@ -38,6 +57,25 @@ public class User {
         this.isActive = true;
     }
     
+    /**
+     * @return a copy that can be changed without affecting this user (all
+     *         fields are immutable values, so copying the references is enough)
+     */
+    public User copy() {
+        User copy = new User();
+        copy.id = id;
+        copy.username = username;
+        copy.email = email;
+        copy.passwordHash = passwordHash;
+        copy.firstName = firstName;
+        copy.lastName = lastName;
+        copy.role = role;
+        copy.isActive = isActive;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+    
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
@@ -8,16 +8,80 @@ package com.company.db;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public class UserDAO {
     
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, email, password_hash, first_name, last_name, role, is_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT_BY_ID = "SELECT * FROM users WHERE id = ?";
+    private static final String SELECT_BY_IDS = "SELECT * FROM users WHERE id IN ";
+    private static final String SELECT_BY_USERNAME = "SELECT * FROM users WHERE username = ?";
+    private static final String SELECT_ALL = "SELECT * FROM users ORDER BY created_at DESC";
+    private static final String SELECT_PAGE = "SELECT * FROM users ORDER BY id LIMIT ? OFFSET ?";
+    // Keyset pages, newest first, seeking on the primary key
+    private static final String SELECT_FIRST_KEYSET_PAGE = "SELECT * FROM users ORDER BY id DESC LIMIT ?";
+    private static final String SELECT_KEYSET_PAGE_AFTER = "SELECT * FROM users WHERE id < ? ORDER BY id DESC LIMIT ?";
+    private static final String UPDATE_USER =
+            "UPDATE users SET username = ?, email = ?, first_name = ?, " +
+            "last_name = ?, role = ?, is_active = ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ?";
+    private static final String UPDATE_PASSWORD =
+            "UPDATE users SET password_hash = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    private static final String DEACTIVATE_USER =
+            "UPDATE users SET is_active = FALSE, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    private static final String SEARCH =
+            "SELECT * FROM users WHERE username LIKE ? OR email LIKE ? " +
+            "OR first_name LIKE ? OR last_name LIKE ? ORDER BY id";
+    // Not pre-prepared: preparing it fails on a schema without the FULLTEXT indexes
+    private static final String FULLTEXT_SEARCH =
+            "SELECT * FROM users WHERE " + FullTextSearch.match("username, email, first_name, last_name") + " " +
+            "ORDER BY " + FullTextSearch.match("username, email, first_name, last_name") + " DESC, id LIMIT ?";
+    private static final String COUNT_USERS = "SELECT COUNT(*) as total FROM users";
+    
+    private static final String[] USER_TABLES = {TableVersions.USERS};
+    
+    // Statements pre-prepared on every pooled connection, see StatementCache
+    static final List<String> PREPARED_SQL = List.of(
+            INSERT_USER, SELECT_BY_ID, SELECT_BY_USERNAME, SELECT_ALL, SELECT_PAGE,
+            SELECT_FIRST_KEYSET_PAGE, SELECT_KEYSET_PAGE_AFTER,
+            UPDATE_USER, UPDATE_PASSWORD, DEACTIVATE_USER, SEARCH, COUNT_USERS);
+    // Most other statements built at run time: by-ids lookups, plus FULLTEXT_SEARCH
+    static final int DYNAMIC_SQL_SHAPES = InList.SHAPES + 1;
+    
+    // Rows of the users table
+    private static final ResultMapper<User> USER = columns -> {
+        int id = columns.index("id");
+        int username = columns.index("username");
+        int email = columns.index("email");
+        int passwordHash = columns.index("password_hash");
+        int firstName = columns.index("first_name");
+        int lastName = columns.index("last_name");
+        int role = columns.index("role");
+        int isActive = columns.index("is_active");
+        return rs -> {
+            User user = new User();
+            user.setId(rs.getInt(id));
+            user.setUsername(rs.getString(username));
+            user.setEmail(rs.getString(email));
+            user.setPasswordHash(rs.getString(passwordHash));
+            user.setFirstName(rs.getString(firstName));
+            user.setLastName(rs.getString(lastName));
+            user.setRole(User.Role.fromColumn(rs.getString(role)));
+            user.setActive(rs.getBoolean(isActive));
+            //user.setCreatedAt(rs.getTimestamp("created_at"));
+            //user.setUpdatedAt(rs.getTimestamp("updated_at"));
+            return user;
+        };
+    };
+    
     // CREATE
     public int createUser(User user) throws SQLException {
-        String sql = "INSERT INTO users (username, email, password_hash, first_name, last_name, role, is_active) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
-        
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, INSERT_USER, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getEmail());
@@ -30,6 +94,7 @@ public class UserDAO {
             int affectedRows = pstmt.executeUpdate();
             
             if (affectedRows > 0) {
+                TableVersions.bump(TableVersions.USERS);
                 try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
                     if (generatedKeys.next()) {
                         return generatedKeys.getInt(1);
@@ -41,18 +106,38 @@ public class UserDAO {
         }
     }
     
-    // READ - Get by ID
+    // Users by id and by username (see EntityCache); updates below invalidate both
+    private static final int CACHE_SIZE = Integer.getInteger("cache.users.maxSize", 1000);
+    private static final EntityCache<Integer, User> cache =
+            new EntityCache<>("users", CACHE_SIZE, EntityCache.TTL_SECONDS, User::copy);
+    private static final EntityCache<String, User> usernameCache =
+            new EntityCache<>("usernames", CACHE_SIZE, EntityCache.TTL_SECONDS, User::copy);
+    
+    // Concurrent getUserById cache misses, from any DAO instance, share one IN-list query
+    private static final BatchLoader<Integer, User> byIdLoader =
+            new BatchLoader<>("users", UserDAO::queryUsersByIds, User::copy);
+    
+    // READ - Get by ID: cached, misses batched with concurrent lookups; straight to the primary once the request has written
     public User getUserById(int id) throws SQLException {
-        String sql = "SELECT * FROM users WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        if (DatabaseConnection.isPinnedToPrimary()) {
+            return queryUserById(id);
+        }
+        return EntityCache.ENABLED ? cache.get(id, UserDAO::loadUserById) : loadUserById(id);
+    }
+    
+    private static User loadUserById(int id) throws SQLException {
+        return BatchLoader.ENABLED ? byIdLoader.load(id) : queryUserById(id);
+    }
+    
+    private static User queryUserById(int id) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_BY_ID)) {
             
             pstmt.setInt(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    return USER.bind(rs).map(rs);
                 }
             }
         }
@@ -60,18 +145,89 @@ public class UserDAO {
         return null;
     }
     
-    // READ - Get by Username
-    public User getUserByUsername(String username) throws SQLException {
-        String sql = "SELECT * FROM users WHERE username = ?";
+    // READ - Get many by ID, one query per InList.MAX_SIZE ids not in the cache; found users keyed by id in request order
+    public Map<Integer, User> getUsersByIds(Collection<Integer> ids) throws SQLException {
+        List<Integer> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        boolean cached = EntityCache.ENABLED && !DatabaseConnection.isPinnedToPrimary();
+        Map<Integer, User> found = new HashMap<>(unique.size() * 2);
+        List<Integer> missing = unique;
+        if (cached) {
+            missing = new ArrayList<>();
+            for (Integer id : unique) {
+                User user = cache.getIfPresent(id);
+                if (user != null) {
+                    found.put(id, user);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        long generation = cache.getGeneration();
+        Map<Integer, User> loaded = queryUsersByIds(missing);
+        found.putAll(loaded);
+        if (cached) {
+            loaded.forEach((id, user) -> cache.putIfCurrent(id, user, generation));
+        }
+        
+        Map<Integer, User> ordered = new LinkedHashMap<>(found.size() * 2);
+        for (Integer id : unique) {
+            User user = found.get(id);
+            if (user != null) {
+                ordered.put(id, user);
+            }
+        }
+        return ordered;
+    }
+    
+    private static Map<Integer, User> queryUsersByIds(List<Integer> ids) throws SQLException {
+        Map<Integer, User> found = new HashMap<>(ids.size() * 2);
+        if (ids.isEmpty()) {
+            return found;
+        }
+        
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            for (List<Integer> chunk : InList.chunks(ids)) {
+                try (PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_BY_IDS + InList.placeholders(chunk.size()))) {
+                    InList.bind(pstmt, 1, chunk);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        RowCursor.RowMapper<User> rows = USER.bind(rs);
+                        while (rs.next()) {
+                            User user = rows.map(rs);
+                            found.put(user.getId(), user);
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+    
+    public BatchLoader<Integer, User> getByIdLoader() {
+        return byIdLoader;
+    }
+    
+    public List<EntityCache<?, User>> getCaches() {
+        return List.of(cache, usernameCache);
+    }
+    
+    // READ - Get by Username (cached; straight to the primary once the request has written)
+    public User getUserByUsername(String username) throws SQLException {
+        if (EntityCache.ENABLED && !DatabaseConnection.isPinnedToPrimary()) {
+            return usernameCache.get(username, UserDAO::queryUserByUsername);
+        }
+        return queryUserByUsername(username);
+    }
+    
+    private static User queryUserByUsername(String username) throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_BY_USERNAME)) {
             
             pstmt.setString(1, username);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    return USER.bind(rs).map(rs);
                 }
             }
         }
@@ -79,37 +235,52 @@ public class UserDAO {
         return null;
     }
     
-    // READ - Get all users
+    // READ - Get all users (concurrent identical calls share one execution, see SingleFlight)
     public List<User> getAllUsers() throws SQLException {
+        return SingleFlight.execute(SELECT_ALL, List.of(), USER_TABLES,
+                SingleFlight.listCopier(User::copy), UserDAO::queryAllUsers);
+    }
+    
+    private static List<User> queryAllUsers() throws SQLException {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY created_at DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_ALL);
+             ResultSet rs = pstmt.executeQuery()) {
             
+            RowCursor.RowMapper<User> rows = USER.bind(rs);
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(rows.map(rs));
             }
         }
         
         return users;
     }
     
+    /**
+     * All users, in {@link #getAllUsers()} order, read lazily through a server-side
+     * cursor fetching {@code db.stream.fetchSize} rows per round trip, so heap use
+     * stays flat however many there are. The stream holds a pooled connection
+     * until it is closed or fully read: use it in try-with-resources.
+     */
+    public Stream<User> streamAllUsers() throws SQLException {
+        return RowCursor.open(SELECT_ALL, pstmt -> { }, USER).stream();
+    }
+    
     // READ - Get users with pagination
+    // The OFFSET rows are still read and discarded, so deep pages get slower; see getUsersPage
     public List<User> getUsersPaginated(int page, int pageSize) throws SQLException {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY id LIMIT ? OFFSET ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, SELECT_PAGE)) {
             
             pstmt.setInt(1, pageSize);
             pstmt.setInt(2, (page - 1) * pageSize);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<User> rows = USER.bind(rs);
                 while (rs.next()) {
-                    users.add(mapResultSetToUser(rs));
+                    users.add(rows.map(rs));
                 }
             }
         }
@@ -117,14 +288,39 @@ public class UserDAO {
         return users;
     }
     
+    // READ - Get users a page at a time, newest first, starting after a token (null for the first page)
+    public Page<User> getUsersPage(PageToken after, int limit) throws SQLException {
+        List<User> users = new ArrayList<>(limit + 1);
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, after == null ? SELECT_FIRST_KEYSET_PAGE : SELECT_KEYSET_PAGE_AFTER)) {
+            
+            int index = 1;
+            if (after != null) {
+                pstmt.setInt(index++, after.getId());
+            }
+            // One extra row tells whether there is a next page
+            pstmt.setInt(index, limit + 1);
+            
+            try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<User> rows = USER.bind(rs);
+                while (rs.next()) {
+                    users.add(rows.map(rs));
+                }
+            }
+        }
+        
+        if (users.size() <= limit) {
+            return new Page<>(users, null);
+        }
+        users.remove(limit);
+        return new Page<>(users, PageToken.of(users.get(limit - 1).getId()));
+    }
+    
     // UPDATE
     public boolean updateUser(User user) throws SQLException {
-        String sql = "UPDATE users SET username = ?, email = ?, first_name = ?, " +
-                    "last_name = ?, role = ?, is_active = ?, updated_at = CURRENT_TIMESTAMP " +
-                    "WHERE id = ?";
-        
+        boolean updated;
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, UPDATE_USER)) {
             
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getEmail());
@@ -134,55 +330,87 @@ public class UserDAO {
             pstmt.setBoolean(6, user.isActive());
             pstmt.setInt(7, user.getId());
             
-            return pstmt.executeUpdate() > 0;
+            updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.USERS);
+                invalidate(user.getId());
+            }
+        }
+        
+        if (updated) {
+            // The user's name is searchable through their employee record
+            EmployeeSearchIndex.refreshUser(user.getId());
         }
+        return updated;
     }
     
     // UPDATE Password
     public boolean updatePassword(int userId, String newPasswordHash) throws SQLException {
-        String sql = "UPDATE users SET password_hash = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-        
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, UPDATE_PASSWORD)) {
             
             pstmt.setString(1, newPasswordHash);
             pstmt.setInt(2, userId);
             
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.USERS);
+                invalidate(userId);
+            }
+            return updated;
         }
     }
     
     // DELETE (soft delete)
     public boolean deactivateUser(int userId) throws SQLException {
-        String sql = "UPDATE users SET is_active = FALSE, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
-        
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = StatementCache.prepare(conn, DEACTIVATE_USER)) {
             
             pstmt.setInt(1, userId);
             
-            return pstmt.executeUpdate() > 0;
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) {
+                TableVersions.bump(TableVersions.USERS);
+                invalidate(userId);
+            }
+            return updated;
         }
     }
     
+    // Drops the user, under any username, and the employee rows showing their details
+    private static void invalidate(int userId) {
+        cache.invalidate(userId);
+        usernameCache.invalidateIf(user -> user.getId() == userId);
+        EmployeeDAO.invalidateUser(userId);
+    }
+    
     // Search users
     public List<User> searchUsers(String keyword) throws SQLException {
+        return searchUsers(keyword, SearchMode.getDefault());
+    }
+    
+    /**
+     * {@link SearchMode#FULLTEXT} returns up to {@link FullTextSearch#LIMIT} users,
+     * most relevant first; the other modes run the LIKE query, as there are no
+     * in-memory user indexes.
+     */
+    public List<User> searchUsers(String keyword, SearchMode mode) throws SQLException {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users WHERE username LIKE ? OR email LIKE ? " +
-                    "OR first_name LIKE ? OR last_name LIKE ? ORDER BY id";
+        boolean fullText = mode == SearchMode.FULLTEXT;
+        String terms = fullText ? FullTextSearch.terms(keyword) : null;
+        if (fullText && terms.isEmpty()) {
+            return users;
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, fullText ? FULLTEXT_SEARCH : SEARCH)) {
             
-            String likeKeyword = "%" + keyword + "%";
-            pstmt.setString(1, likeKeyword);
-            pstmt.setString(2, likeKeyword);
-            pstmt.setString(3, likeKeyword);
-            pstmt.setString(4, likeKeyword);
+            setSearchParameters(pstmt, keyword, terms);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                RowCursor.RowMapper<User> rows = USER.bind(rs);
                 while (rs.next()) {
-                    users.add(mapResultSetToUser(rs));
+                    users.add(rows.map(rs));
                 }
             }
         }
@@ -190,13 +418,45 @@ public class UserDAO {
         return users;
     }
     
+    /**
+     * {@link #searchUsers(String, SearchMode)} read lazily through a server-side
+     * cursor; see {@link #streamAllUsers()}.
+     */
+    public Stream<User> streamSearchUsers(String keyword, SearchMode mode) throws SQLException {
+        boolean fullText = mode == SearchMode.FULLTEXT;
+        String terms = fullText ? FullTextSearch.terms(keyword) : null;
+        if (fullText && terms.isEmpty()) {
+            return Stream.empty();
+        }
+        return RowCursor.open(fullText ? FULLTEXT_SEARCH : SEARCH,
+                pstmt -> setSearchParameters(pstmt, keyword, terms), USER).stream();
+    }
+    
+    // FULLTEXT_SEARCH parameters when terms is not null, else SEARCH parameters
+    private static void setSearchParameters(PreparedStatement pstmt, String keyword, String terms) throws SQLException {
+        if (terms != null) {
+            pstmt.setString(1, terms);
+            pstmt.setString(2, terms);
+            pstmt.setInt(3, FullTextSearch.LIMIT);
+        } else {
+            String likeKeyword = "%" + keyword + "%";
+            pstmt.setString(1, likeKeyword);
+            pstmt.setString(2, likeKeyword);
+            pstmt.setString(3, likeKeyword);
+            pstmt.setString(4, likeKeyword);
+        }
+    }
+    
     // Count total users
     public int countUsers() throws SQLException {
-        String sql = "SELECT COUNT(*) as total FROM users";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        return SingleFlight.execute(COUNT_USERS, List.of(), USER_TABLES,
+                UnaryOperator.identity(), UserDAO::queryUserCount);
+    }
+    
+    private static int queryUserCount() throws SQLException {
+        try (Connection conn = DatabaseConnection.getReadConnection();
+             PreparedStatement pstmt = StatementCache.prepare(conn, COUNT_USERS);
+             ResultSet rs = pstmt.executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt("total");
@@ -206,19 +466,31 @@ public class UserDAO {
         return 0;
     }
     
-    // Helper method to map ResultSet to User object
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setId(rs.getInt("id"));
-        user.setUsername(rs.getString("username"));
-        user.setEmail(rs.getString("email"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setFirstName(rs.getString("first_name"));
-        user.setLastName(rs.getString("last_name"));
-        user.setRole(User.Role.valueOf(rs.getString("role").toUpperCase()));
-        user.setActive(rs.getBoolean("is_active"));
-        //user.setCreatedAt(rs.getTimestamp("created_at"));
-        //user.setUpdatedAt(rs.getTimestamp("updated_at"));
-        return user;
+    // Async variants, for handlers that issue independent queries in parallel. Each
+    // runs its synchronous counterpart on the AsyncQueries pool, with its timeout
+    // and cancellation.
+    
+    public CompletableFuture<User> getUserByIdAsync(int id) {
+        return AsyncQueries.supply(() -> getUserById(id));
+    }
+    
+    public CompletableFuture<User> getUserByUsernameAsync(String username) {
+        return AsyncQueries.supply(() -> getUserByUsername(username));
+    }
+    
+    public CompletableFuture<List<User>> getAllUsersAsync() {
+        return AsyncQueries.supply(this::getAllUsers);
+    }
+    
+    public CompletableFuture<Page<User>> getUsersPageAsync(PageToken after, int limit) {
+        return AsyncQueries.supply(() -> getUsersPage(after, limit));
+    }
+    
+    public CompletableFuture<Integer> countUsersAsync() {
+        return AsyncQueries.supply(this::countUsers);
+    }
+    
+    public CompletableFuture<List<User>> searchUsersAsync(String keyword, SearchMode mode) {
+        return AsyncQueries.supply(() -> searchUsers(keyword, mode));
     }
 }
@@ -266,7 +266,8 @@ ALTER TABLE `audit_logs`
 ALTER TABLE `departments`
   ADD PRIMARY KEY (`id`),
   ADD UNIQUE KEY `name` (`name`),
-  ADD KEY `manager_id` (`manager_id`);
+  ADD KEY `manager_id` (`manager_id`),
+  ADD FULLTEXT KEY `ft_department_name` (`name`);
 
 --
 -- Indexes for table `employees`
@@ -277,7 +278,9 @@ ALTER TABLE `employees`
   ADD UNIQUE KEY `employee_code` (`employee_code`),
   ADD KEY `idx_employee_code` (`employee_code`),
   ADD KEY `idx_department` (`department_id`),
-  ADD KEY `idx_job_title` (`job_title`);
+  ADD KEY `idx_job_title` (`job_title`),
+  ADD KEY `idx_hire_date_id` (`hire_date`,`id`),
+  ADD FULLTEXT KEY `ft_employee_search` (`job_title`,`employee_code`);
 
 --
 -- Indexes for table `projects`
@@ -315,7 +318,12 @@ ALTER TABLE `users`
   ADD UNIQUE KEY `email` (`email`),
   ADD KEY `idx_username` (`username`),
   ADD KEY `idx_email` (`email`),
-  ADD KEY `idx_role` (`role`);
+  ADD KEY `idx_role` (`role`),
+  ADD FULLTEXT KEY `ft_user_name` (`first_name`,`last_name`);
+
+-- InnoDB builds one FULLTEXT index per ALTER TABLE
+ALTER TABLE `users`
+  ADD FULLTEXT KEY `ft_user_search` (`username`,`email`,`first_name`,`last_name`);
 
 --
 -- AUTO_INCREMENT for dumped tables
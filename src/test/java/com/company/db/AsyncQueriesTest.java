@@ -0,0 +1,79 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: AsyncQueriesTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncQueriesTest {
+
+    @AfterEach
+    void clearInterrupt() {
+        // Keep a failed check from leaking into the next test on this thread
+        Thread.interrupted();
+    }
+
+    @Test
+    void completedCallLeavesTheWorkerUninterrupted() throws SQLException {
+        // Runs the task on this thread, so what it leaves behind is visible here
+        CompletableFuture<String> future = AsyncQueries.supply(() -> "done", Runnable::run);
+
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals("done", AsyncQueries.await(future));
+    }
+
+    @Test
+    void failedCallLeavesTheWorkerUninterrupted() {
+        CompletableFuture<String> future = AsyncQueries.supply(() -> {
+            throw new SQLException("query failed");
+        }, Runnable::run);
+
+        assertFalse(Thread.currentThread().isInterrupted());
+        SQLException e = assertThrows(SQLException.class, () -> AsyncQueries.await(future));
+        assertEquals("query failed", e.getMessage());
+    }
+
+    @Test
+    void cancellingARunningCallInterruptsIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<String> future = AsyncQueries.supply(() -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "not used";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        future.cancel(true);
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertThrows(CancellationException.class, () -> AsyncQueries.await(future));
+    }
+
+    @Test
+    void callsCarryOverWhetherTheRequestHasWritten() throws SQLException {
+        DatabaseConnection.beginRequest(true);
+        try {
+            assertTrue(AsyncQueries.await(AsyncQueries.supply(DatabaseConnection::isPinnedToPrimary)));
+        } finally {
+            DatabaseConnection.endRequest();
+        }
+        assertFalse(AsyncQueries.await(AsyncQueries.supply(DatabaseConnection::isPinnedToPrimary)));
+    }
+}
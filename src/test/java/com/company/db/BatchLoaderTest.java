@@ -0,0 +1,190 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: BatchLoaderTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BatchLoaderTest {
+    private static final long LONG_WINDOW_MICROS = TimeUnit.SECONDS.toMicros(5);
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    // Keys of each loadAll call, in order
+    private final List<List<Integer>> batches = new ArrayList<>();
+    // Values handed out by loadAll, by key
+    private final Map<Integer, StringBuilder> loaded = new HashMap<>();
+    // Holds the first loadAll call until released, so later loads see one in progress
+    private final CountDownLatch firstEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseFirst = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseFirst.countDown();
+        threads.shutdownNow();
+    }
+
+    private Map<Integer, StringBuilder> loadAll(List<Integer> keys, boolean holdFirst) {
+        boolean first;
+        synchronized (batches) {
+            first = batches.isEmpty();
+            batches.add(List.copyOf(keys));
+        }
+        if (first && holdFirst) {
+            firstEntered.countDown();
+            try {
+                releaseFirst.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Map<Integer, StringBuilder> values = new HashMap<>();
+        for (Integer key : keys) {
+            if (key >= 0) {
+                StringBuilder value = new StringBuilder("row-" + key);
+                synchronized (loaded) {
+                    loaded.put(key, value);
+                }
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    private BatchLoader<Integer, StringBuilder> loader(long windowMicros, int maxBatchSize, boolean holdFirst) {
+        return new BatchLoader<>("test", keys -> loadAll(keys, holdFirst), StringBuilder::new,
+                windowMicros, maxBatchSize);
+    }
+
+    private Future<StringBuilder> loadAsync(BatchLoader<Integer, StringBuilder> loader, int key) {
+        return threads.submit(() -> loader.load(key));
+    }
+
+    // Starts a load that stays in progress until releaseFirst, so the next batch waits out its window
+    private Future<StringBuilder> occupy(BatchLoader<Integer, StringBuilder> loader) throws InterruptedException {
+        Future<StringBuilder> first = loadAsync(loader, 1000);
+        assertTrue(firstEntered.await(5, TimeUnit.SECONDS));
+        return first;
+    }
+
+    @Test
+    void uncontendedLoadDoesNotWaitForTheWindow() throws SQLException {
+        BatchLoader<Integer, StringBuilder> loader = loader(LONG_WINDOW_MICROS, 64, false);
+
+        long started = System.nanoTime();
+        StringBuilder value = loader.load(7);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals("row-7", value.toString());
+        assertTrue(elapsedMillis < 1000, "took " + elapsedMillis + " ms");
+        assertEquals(List.of(List.of(7)), batches);
+    }
+
+    @Test
+    void concurrentLoadsShareOneLookup() throws Exception {
+        BatchLoader<Integer, StringBuilder> loader = loader(LONG_WINDOW_MICROS, 3, true);
+        Future<StringBuilder> first = occupy(loader);
+
+        List<Future<StringBuilder>> results = new ArrayList<>();
+        for (int key = 1; key <= 3; key++) {
+            results.add(loadAsync(loader, key));
+        }
+        // A full batch is sent without waiting out the window
+        for (int key = 1; key <= 3; key++) {
+            assertEquals("row-" + key, results.get(key - 1).get(2, TimeUnit.SECONDS).toString());
+        }
+        releaseFirst.countDown();
+        assertEquals("row-1000", first.get(5, TimeUnit.SECONDS).toString());
+
+        assertEquals(2, batches.size());
+        assertEquals(List.of(1, 2, 3), batches.get(1).stream().sorted().toList());
+        assertEquals(2, loader.getBatches());
+        assertEquals(4, loader.getLoads());
+        assertEquals(2.0, loader.getAverageBatchSize());
+    }
+
+    @Test
+    void callersOfOneKeyEachGetTheirOwnCopy() throws Exception {
+        BatchLoader<Integer, StringBuilder> loader = loader(TimeUnit.SECONDS.toMicros(1), 64, true);
+        Future<StringBuilder> first = occupy(loader);
+
+        Future<StringBuilder> a = loadAsync(loader, 5);
+        Future<StringBuilder> b = loadAsync(loader, 5);
+        StringBuilder valueA = a.get(5, TimeUnit.SECONDS);
+        StringBuilder valueB = b.get(5, TimeUnit.SECONDS);
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(5), batches.get(1));
+        assertEquals("row-5", valueA.toString());
+        assertEquals("row-5", valueB.toString());
+        assertNotSame(valueA, valueB);
+        // Neither caller holds the instance the copies were made from
+        assertNotSame(loaded.get(5), valueA);
+        assertNotSame(loaded.get(5), valueB);
+    }
+
+    @Test
+    void soleCallerOfAKeyGetsTheLoadedValue() throws SQLException {
+        BatchLoader<Integer, StringBuilder> loader = loader(LONG_WINDOW_MICROS, 64, false);
+
+        StringBuilder value = loader.load(3);
+
+        assertSame(loaded.get(3), value);
+    }
+
+    @Test
+    void missingKeyLoadsAsNull() throws SQLException {
+        BatchLoader<Integer, StringBuilder> loader = loader(LONG_WINDOW_MICROS, 64, false);
+
+        assertNull(loader.load(-1));
+    }
+
+    @Test
+    void failureReachesEveryWaiter() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchLoader<Integer, String> loader = new BatchLoader<>("failing", keys -> {
+            if (keys.contains(0)) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Map.of(0, "zero");
+            }
+            throw new SQLException("lookup failed");
+        }, value -> value, TimeUnit.MILLISECONDS.toMicros(300), 64);
+
+        Future<String> first = threads.submit(() -> loader.load(0));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        Future<String> a = threads.submit(() -> loader.load(1));
+        Future<String> b = threads.submit(() -> loader.load(2));
+
+        for (Future<String> waiter : List.of(a, b)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, e.getCause());
+            assertEquals("lookup failed", e.getCause().getMessage());
+        }
+        release.countDown();
+        assertEquals("zero", first.get(5, TimeUnit.SECONDS));
+    }
+}
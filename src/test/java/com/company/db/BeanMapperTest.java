@@ -0,0 +1,110 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: BeanMapperTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BeanMapperTest {
+
+    private static <T> List<T> map(BeanMapper<T> mapper, StubResultSet stub) throws SQLException {
+        ResultSet rs = stub.resultSet();
+        RowCursor.RowMapper<T> rows = mapper.bind(rs);
+        List<T> mapped = new ArrayList<>();
+        while (rs.next()) {
+            mapped.add(rows.map(rs));
+        }
+        return mapped;
+    }
+
+    @Test
+    void mapsSnakeCaseColumnsToSettersByType() throws SQLException {
+        LocalDateTime created = LocalDateTime.of(2024, 3, 1, 9, 30);
+        StubResultSet stub = StubResultSet.of(
+                new String[] {"id", "project_id", "title", "assigned_to", "priority", "status",
+                        "due_date", "estimated_hours", "created_at"},
+                List.<Object[]>of(new Object[] {7, 3, "Write tests", 12, "high", "IN_PROGRESS",
+                        LocalDate.of(2024, 4, 1), new BigDecimal("6.50"), created}));
+
+        Task task = map(BeanMapper.of(Task.class), stub).get(0);
+
+        assertEquals(7, task.getId());
+        assertEquals(3, task.getProjectId());
+        assertEquals("Write tests", task.getTitle());
+        assertEquals(Integer.valueOf(12), task.getAssignedTo());
+        assertEquals(Task.Priority.HIGH, task.getPriority());
+        assertEquals(Task.Status.IN_PROGRESS, task.getStatus());
+        assertEquals(LocalDate.of(2024, 4, 1), task.getDueDate());
+        assertEquals(new BigDecimal("6.50"), task.getEstimatedHours());
+        assertEquals(created, task.getCreatedAt());
+        assertEquals(0, stub.getLabelReads());
+    }
+
+    @Test
+    void sqlNullsMapToNullAndUnknownColumnsAreSkipped() throws SQLException {
+        StubResultSet stub = StubResultSet.of(
+                new String[] {"ID", "Manager_Id", "name", "employee_count", "budget", "status"},
+                List.of(new Object[] {1, null, "Payroll", 14L, null, null},
+                        new Object[] {2, 9, "Intranet", 3L, new BigDecimal("1000.00"), "on_hold"}));
+
+        List<Project> projects = map(BeanMapper.of(Project.class), stub);
+
+        assertEquals(1, projects.get(0).getId());
+        assertNull(projects.get(0).getManagerId());
+        assertNull(projects.get(0).getBudget());
+        assertNull(projects.get(0).getStatus());
+        assertEquals(Integer.valueOf(9), projects.get(1).getManagerId());
+        assertEquals("Intranet", projects.get(1).getName());
+        assertEquals(Project.Status.ON_HOLD, projects.get(1).getStatus());
+    }
+
+    @Test
+    void columnsAreResolvedPerResultSet() throws SQLException {
+        BeanMapper<Department> mapper = BeanMapper.of(Department.class);
+
+        Department first = map(mapper, StubResultSet.of(new String[] {"id", "name"},
+                List.<Object[]>of(new Object[] {1, "Engineering"}))).get(0);
+        Department second = map(mapper, StubResultSet.of(new String[] {"name", "description", "id"},
+                List.<Object[]>of(new Object[] {"Sales", "Field sales", 2}))).get(0);
+
+        assertEquals(1, first.getId());
+        assertEquals("Engineering", first.getName());
+        assertNull(first.getDescription());
+        assertEquals(2, second.getId());
+        assertEquals("Sales", second.getName());
+        assertEquals("Field sales", second.getDescription());
+    }
+
+    @Test
+    void unknownEnumValueFailsTheRow() {
+        StubResultSet stub = StubResultSet.of(new String[] {"id", "status"},
+                List.<Object[]>of(new Object[] {1, "ARCHIVED"}));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> map(BeanMapper.of(Task.class), stub));
+        assertEquals("No Status named ARCHIVED", e.getMessage());
+    }
+
+    public static class NoDefaultConstructor {
+        public NoDefaultConstructor(int id) {
+        }
+    }
+
+    @Test
+    void classWithoutANoArgumentConstructorIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> BeanMapper.of(NoDefaultConstructor.class));
+    }
+}
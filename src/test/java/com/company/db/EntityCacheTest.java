@@ -0,0 +1,194 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: EntityCacheTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class EntityCacheTest {
+    private static final long TTL_SECONDS = 300;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private EntityCache<Integer, StringBuilder> cache(int maximumSize) {
+        return new EntityCache<>("test", maximumSize, TTL_SECONDS, StringBuilder::new);
+    }
+
+    private StringBuilder load(int key) {
+        loads.incrementAndGet();
+        return new StringBuilder("row-" + key);
+    }
+
+    private StringBuilder get(EntityCache<Integer, StringBuilder> cache, int key) throws SQLException {
+        return cache.get(key, this::load);
+    }
+
+    @Test
+    void secondReadIsAHitAndReturnsACopy() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+
+        StringBuilder first = get(cache, 1);
+        StringBuilder second = get(cache, 1);
+        second.append("-changed");
+
+        assertEquals(1, loads.get());
+        assertEquals("row-1", get(cache, 1).toString());
+        assertNotSame(first, second);
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void missingValuesAreNotCached() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+
+        assertNull(cache.get(1, key -> null));
+        assertNull(cache.getIfPresent(1));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void entriesExpireAfterTheirTtl() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = new EntityCache<>("test", 100, 0, StringBuilder::new);
+
+        get(cache, 1);
+        get(cache, 1);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateDropsTheEntry() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+        get(cache, 1);
+
+        cache.invalidate(1);
+
+        assertNull(cache.getIfPresent(1));
+        get(cache, 1);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationOfItsKeyIsNotStored() {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+        long generation = cache.getGeneration();
+
+        cache.invalidate(1);
+        cache.putIfCurrent(1, new StringBuilder("old"), generation);
+
+        assertNull(cache.getIfPresent(1));
+    }
+
+    @Test
+    void invalidatingOneKeyDoesNotRefuseOthers() {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+        long generation = cache.getGeneration();
+        int other = 2;
+        // Pick a key outside the invalidated key's stripe
+        while (sameStripe(cache, 1, other)) {
+            other++;
+        }
+
+        cache.invalidate(1);
+        cache.putIfCurrent(other, new StringBuilder("fresh"), generation);
+
+        assertEquals("fresh", cache.getIfPresent(other).toString());
+    }
+
+    // True if a put of b is refused after invalidating a, i.e. they share a stripe
+    private static boolean sameStripe(EntityCache<Integer, StringBuilder> cache, int a, int b) {
+        EntityCache<Integer, StringBuilder> probe = new EntityCache<>("probe", 100, TTL_SECONDS, StringBuilder::new);
+        long generation = probe.getGeneration();
+        probe.invalidate(a);
+        probe.putIfCurrent(b, new StringBuilder(), generation);
+        return probe.getIfPresent(b) == null;
+    }
+
+    @Test
+    void invalidateIfRefusesOnlyMatchingValuesLoadedBeforeIt() {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+        long generation = cache.getGeneration();
+
+        cache.invalidateIf(value -> value.toString().startsWith("stale"));
+        cache.putIfCurrent(1, new StringBuilder("stale-1"), generation);
+        cache.putIfCurrent(2, new StringBuilder("fine-2"), generation);
+        cache.putIfCurrent(3, new StringBuilder("stale-3"), cache.getGeneration());
+
+        assertNull(cache.getIfPresent(1));
+        assertEquals("fine-2", cache.getIfPresent(2).toString());
+        assertEquals("stale-3", cache.getIfPresent(3).toString());
+    }
+
+    @Test
+    void loadsOlderThanForgottenPredicatesAreRefused() {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+        long generation = cache.getGeneration();
+
+        for (int i = 0; i < 100; i++) {
+            int id = i;
+            cache.invalidateIf(value -> value.length() == id + 1000);
+        }
+        cache.putIfCurrent(1, new StringBuilder("row-1"), generation);
+        cache.putIfCurrent(2, new StringBuilder("row-2"), cache.getGeneration());
+
+        assertNull(cache.getIfPresent(1));
+        assertEquals("row-2", cache.getIfPresent(2).toString());
+    }
+
+    @Test
+    void invalidateAllDropsEverything() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+        get(cache, 1);
+        get(cache, 2);
+        long generation = cache.getGeneration();
+
+        cache.invalidateAll();
+        cache.putIfCurrent(3, new StringBuilder("row-3"), generation);
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void sizeStaysWithinTheMaximum() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = cache(100);
+
+        for (int key = 0; key < 1000; key++) {
+            get(cache, key);
+        }
+
+        assertTrue(cache.size() <= 100, "size " + cache.size());
+        assertEquals(1000 - cache.size(), cache.getEvictions());
+    }
+
+    @Test
+    void oneOffSweepDoesNotFlushFrequentlyReadEntries() throws SQLException {
+        EntityCache<Integer, StringBuilder> cache = cache(200);
+        int hot = 100;
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < hot; key++) {
+                get(cache, key);
+            }
+        }
+
+        for (int key = 10_000; key < 12_000; key++) {
+            get(cache, key);
+        }
+
+        int stillCached = 0;
+        for (int key = 0; key < hot; key++) {
+            if (cache.getIfPresent(key) != null) {
+                stillCached++;
+            }
+        }
+        assertTrue(stillCached >= hot * 9 / 10, stillCached + " of " + hot + " hot entries left");
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: FullTextSearchTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+class FullTextSearchTest {
+
+    @Test
+    void matchNamesTheIndexColumns() {
+        assertTrue(FullTextSearch.match("e.job_title, e.employee_code")
+                .startsWith("MATCH (e.job_title, e.employee_code) AGAINST (? IN "));
+    }
+
+    @Test
+    void booleanModeTurnsEachWordIntoAPrefixTerm() {
+        assumeTrue(FullTextSearch.BOOLEAN_MODE);
+
+        assertEquals("jo* eng*", FullTextSearch.terms("jo eng"));
+        assertEquals("José* EMP_001*", FullTextSearch.terms("  José   EMP_001 "));
+    }
+
+    @Test
+    void booleanModeDropsOperators() {
+        assumeTrue(FullTextSearch.BOOLEAN_MODE);
+
+        assertEquals("john* doe*", FullTextSearch.terms("+john -\"doe\"*"));
+        assertEquals("o* brien*", FullTextSearch.terms("o'brien"));
+        assertEquals("", FullTextSearch.terms("+-<>()~*\""));
+    }
+
+    @Test
+    void naturalModePassesTheKeywordThrough() {
+        assumeTrue(!FullTextSearch.BOOLEAN_MODE);
+
+        assertEquals("+john -doe", FullTextSearch.terms(" +john -doe "));
+    }
+}
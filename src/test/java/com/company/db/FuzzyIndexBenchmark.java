@@ -0,0 +1,67 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: FuzzyIndexBenchmark.java
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link FuzzyIndex} searches over synthetic employees with pronounceable
+ * names: a one-word query with one letter changed, and the two-word query
+ * "Jonh Deo" for an employee named John Doe.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FuzzyIndexBenchmark {
+
+    @Param({"100000", "1000000"})
+    int employees;
+
+    private final FuzzyIndex index = new FuzzyIndex();
+    private final Random random = new Random(2);
+    private String[] lastNames;
+
+    @Setup
+    public void setUp() {
+        lastNames = new String[employees];
+        for (int id = 1; id <= employees; id++) {
+            String firstName = SuggestionTrieBenchmark.name(random);
+            String lastName = SuggestionTrieBenchmark.name(random);
+            lastNames[id - 1] = lastName;
+            index.put(id, firstName, lastName, (firstName.charAt(0) + lastName).toLowerCase());
+        }
+        index.put(employees + 1, "John", "Doe", "jdoe");
+    }
+
+    @Benchmark
+    public int[] oneWordTypo() {
+        char[] word = lastNames[random.nextInt(employees)].toLowerCase().toCharArray();
+        word[random.nextInt(word.length)] = (char) ('a' + random.nextInt(26));
+        return index.search(new String(word), FuzzyIndex.LIMIT);
+    }
+
+    @Benchmark
+    public int[] twoWordName() {
+        return index.search("Jonh Deo", FuzzyIndex.LIMIT);
+    }
+}
@@ -0,0 +1,189 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: FuzzyIndexTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class FuzzyIndexTest {
+
+    @Test
+    void distanceCountsATranspositionAsOneEdit() {
+        assertEquals(0, FuzzyIndex.distance("john", "john"));
+        assertEquals(1, FuzzyIndex.distance("jonh", "john"));
+        assertEquals(1, FuzzyIndex.distance("jon", "john"));
+        assertEquals(1, FuzzyIndex.distance("joan", "john"));
+        assertEquals(3, FuzzyIndex.distance("", "doe"));
+        // Transpose then insert between; the restricted variant would say 3
+        assertEquals(2, FuzzyIndex.distance("ca", "abc"));
+    }
+
+    @Test
+    void distanceIsAMetric() {
+        Random random = new Random(3);
+        for (int i = 0; i < 2000; i++) {
+            String a = word(random, 0, 6);
+            String b = word(random, 0, 6);
+            String c = word(random, 0, 6);
+            assertEquals(FuzzyIndex.distance(a, b), FuzzyIndex.distance(b, a), a + " " + b);
+            assertTrue(FuzzyIndex.distance(a, c) <= FuzzyIndex.distance(a, b) + FuzzyIndex.distance(b, c),
+                    a + " " + b + " " + c);
+        }
+    }
+
+    @Test
+    void shortWordsAllowFewerEdits() {
+        assertEquals(0, FuzzyIndex.maxEdits(2));
+        assertEquals(1, FuzzyIndex.maxEdits(3));
+        assertEquals(1, FuzzyIndex.maxEdits(5));
+        assertEquals(Math.min(2, FuzzyIndex.MAX_DISTANCE), FuzzyIndex.maxEdits(6));
+        assertEquals(FuzzyIndex.MAX_DISTANCE, FuzzyIndex.maxEdits(30));
+    }
+
+    @Test
+    void matchesWithinTheEditBoundOnly() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.put(1, "Jo", "Kamau", null);
+
+        assertArrayEquals(new int[] {1}, index.search("kamua", 10));
+        assertArrayEquals(new int[] {1}, index.search("kamu", 10));
+        // Five letters allow one edit, and "kmua" is two away
+        assertArrayEquals(new int[0], index.search("kmua", 10));
+        // Two letters allow none
+        assertArrayEquals(new int[] {1}, index.search("jo", 10));
+        assertArrayEquals(new int[0], index.search("ja", 10));
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.put(1, "John", "Doe", "jdoe");
+        index.put(2, "John", "Smith", "jsmith");
+
+        assertArrayEquals(new int[] {1}, index.search("Jonh Deo", 10));
+        assertArrayEquals(new int[0], index.search("Jonh Kamau", 10));
+        assertArrayEquals(new int[0], index.search("  -- ", 10));
+    }
+
+    @Test
+    void closerMatchesThenHeavierFieldsRankFirst() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.put(1, "Mark", "Otieno", "mark");
+        index.put(2, "Marko", "Otieno", "mo");
+        index.put(3, "Ann", "Marks", "ann");
+        index.put(4, "Marks", "Wekesa", "mw");
+        index.put(5, "Tom", "Wekesa", "marks");
+
+        // An exact last name beats an exact first name, which beats an exact username
+        assertArrayEquals(new int[] {3, 4, 5, 1, 2}, index.search("marks", 10));
+        assertArrayEquals(new int[] {3, 4}, index.search("marks", 2));
+    }
+
+    @Test
+    void removedEmployeesAreNotFoundButTheirWordsStay() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.put(1, "Grace", "Njeri", "gnjeri");
+        index.put(2, "Grace", "Achieng", "gachieng");
+        int words = index.getWordCount();
+
+        index.remove(1);
+
+        assertArrayEquals(new int[] {2}, index.search("grcae", 10));
+        assertArrayEquals(new int[0], index.search("njeri", 10));
+        assertEquals(words, index.getWordCount());
+
+        // The word is found again once an employee has it
+        index.put(3, "Joy", "Njeri", null);
+        assertArrayEquals(new int[] {3}, index.search("njery", 10));
+    }
+
+    @Test
+    void putReplacesAnEmployeesWords() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.put(1, "Peter", "Kariuki", "pkariuki");
+
+        index.put(1, "Peter", "Mwangi", "pmwangi");
+
+        assertArrayEquals(new int[0], index.search("kariuki", 10));
+        assertArrayEquals(new int[] {1}, index.search("mwagni", 10));
+    }
+
+    @Test
+    void treeLookupAgreesWithABruteForceScan() {
+        Random random = new Random(11);
+        FuzzyIndex index = new FuzzyIndex();
+        Map<Integer, String[]> employees = new HashMap<>();
+        for (int round = 0; round < 3000; round++) {
+            int id = 1 + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                employees.remove(id);
+            } else {
+                String[] employee = {word(random, 2, 7), word(random, 2, 7), word(random, 2, 7)};
+                index.put(id, employee[0], employee[1], employee[2]);
+                employees.put(id, employee);
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String query = random.nextInt(3) == 0
+                    ? word(random, 2, 7) + " " + word(random, 2, 7)
+                    : word(random, 2, 8);
+            assertArrayEquals(scan(employees, query), index.search(query, Integer.MAX_VALUE), query);
+        }
+    }
+
+    // Words over a small alphabet, so many are a few edits apart
+    private static String word(Random random, int minLength, int maxLength) {
+        StringBuilder word = new StringBuilder();
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+
+    private static int[] scan(Map<Integer, String[]> employees, String query) {
+        FuzzyIndex.Field[] fields = FuzzyIndex.Field.values();
+        String[] words = query.split(" ");
+        Map<Integer, int[]> scores = new HashMap<>();
+        employees.forEach((id, employee) -> {
+            int distance = 0;
+            int weight = 0;
+            for (String word : words) {
+                int best = Integer.MAX_VALUE;
+                int bestWeight = 0;
+                for (int f = 0; f < fields.length; f++) {
+                    int d = FuzzyIndex.distance(word, employee[f]);
+                    if (d < best || (d == best && fields[f].weight > bestWeight)) {
+                        best = d;
+                        bestWeight = fields[f].weight;
+                    }
+                }
+                if (best > FuzzyIndex.maxEdits(word.length())) {
+                    return;
+                }
+                distance += best;
+                weight += bestWeight;
+            }
+            scores.put(id, new int[] {distance, weight});
+        });
+        List<Integer> ids = new ArrayList<>(scores.keySet());
+        ids.sort(Comparator.comparingInt((Integer id) -> scores.get(id)[0])
+                .thenComparingInt(id -> -scores.get(id)[1])
+                .thenComparingInt(id -> id));
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
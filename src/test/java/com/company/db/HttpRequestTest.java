@@ -0,0 +1,74 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: HttpRequestTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class HttpRequestTest {
+
+    private static InputStream stream(String bytes) {
+        return new ByteArrayInputStream(bytes.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static HttpRequest head(String requestLine, String... headers) {
+        return HttpRequest.parseHead(requestLine, List.of(headers));
+    }
+
+    @Test
+    void keepAliveDependsOnVersionAndConnectionHeader() {
+        assertTrue(head("GET / HTTP/1.1").isKeepAlive());
+        assertFalse(head("GET / HTTP/1.1", "Connection: Close").isKeepAlive());
+        assertFalse(head("GET / HTTP/1.0").isKeepAlive());
+        assertTrue(head("GET / HTTP/1.0", "connection: keep-alive").isKeepAlive());
+        // No version is HTTP/1.0
+        assertFalse(head("GET /").isKeepAlive());
+    }
+
+    @Test
+    void contentLengthIsZeroWhenAbsentOrInvalid() {
+        assertEquals(0, head("GET / HTTP/1.1").getContentLength());
+        assertEquals(12, head("POST / HTTP/1.1", "Content-Length:  12 ").getContentLength());
+        assertEquals(0, head("POST / HTTP/1.1", "Content-Length: twelve").getContentLength());
+        assertEquals(0, head("POST / HTTP/1.1", "Content-Length: -5").getContentLength());
+    }
+
+    @Test
+    void malformedRequestLineParsesToNull() {
+        assertNull(head("GET"));
+        assertThrows(IOException.class, () -> HttpRequest.read(stream("GET\r\n\r\n")));
+    }
+
+    @Test
+    void readLeavesPipelinedRequestsUnread() throws IOException {
+        InputStream in = stream("POST /a HTTP/1.1\r\nContent-Length: 3\r\n\r\nx=1"
+                + "\r\nGET /b HTTP/1.1\r\n\r\n");
+
+        HttpRequest first = HttpRequest.read(in);
+        HttpRequest second = HttpRequest.read(in);
+
+        assertEquals("/a", first.getTarget());
+        assertEquals("x=1", first.getBody());
+        // After the blank line some clients send between requests
+        assertEquals("/b", second.getTarget());
+        assertNull(HttpRequest.read(in));
+    }
+
+    @Test
+    void truncatedBodyIsAnError() {
+        assertThrows(EOFException.class,
+                () -> HttpRequest.read(stream("POST /a HTTP/1.1\r\nContent-Length: 10\r\n\r\nshort")));
+    }
+}
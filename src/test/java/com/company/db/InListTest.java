@@ -0,0 +1,92 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: InListTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class InListTest {
+
+    private static List<Integer> ids(int count) {
+        return IntStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    @Test
+    void slotsRoundUpToAPowerOfTwoWithinTheMaximum() {
+        assertEquals(1, InList.slots(0));
+        assertEquals(1, InList.slots(1));
+        assertEquals(2, InList.slots(2));
+        assertEquals(4, InList.slots(3));
+        assertEquals(4, InList.slots(4));
+        assertEquals(8, InList.slots(5));
+        assertEquals(InList.MAX_SIZE, InList.slots(InList.MAX_SIZE));
+        assertEquals(InList.MAX_SIZE, InList.slots(InList.MAX_SIZE + 1));
+        for (int count = 1; count <= InList.MAX_SIZE; count++) {
+            assertTrue(InList.slots(count) >= count, "slots for " + count);
+        }
+    }
+
+    @Test
+    void placeholdersMatchSlotsAndComeInShapesSizes() {
+        assertEquals("(?)", InList.placeholders(1));
+        assertEquals("(?, ?, ?, ?)", InList.placeholders(3));
+
+        Set<String> shapes = new HashSet<>();
+        for (int count = 1; count <= InList.MAX_SIZE; count++) {
+            String placeholders = InList.placeholders(count);
+            assertEquals(InList.slots(count), placeholders.chars().filter(c -> c == '?').count());
+            shapes.add(placeholders);
+        }
+        assertEquals(InList.SHAPES, shapes.size());
+    }
+
+    @Test
+    void bindRepeatsTheLastIdIntoThePadding() throws SQLException {
+        TreeMap<Integer, Object> bound = new TreeMap<>();
+        PreparedStatement pstmt = (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("setInt")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    bound.put((Integer) args[0], args[1]);
+                    return null;
+                });
+
+        InList.bind(pstmt, 2, List.of(5, 9, 2));
+
+        assertEquals(List.of(2, 3, 4, 5), new ArrayList<>(bound.keySet()));
+        assertEquals(List.of(5, 9, 2, 2), new ArrayList<>(bound.values()));
+    }
+
+    @Test
+    void chunksSplitAtTheMaximumInOrder() {
+        assertEquals(List.of(), InList.chunks(List.of()));
+        assertEquals(List.of(ids(3)), InList.chunks(ids(3)));
+        assertEquals(1, InList.chunks(ids(InList.MAX_SIZE)).size());
+
+        List<Integer> ids = ids(2 * InList.MAX_SIZE + 3);
+        List<List<Integer>> chunks = InList.chunks(ids);
+
+        assertEquals(3, chunks.size());
+        assertEquals(InList.MAX_SIZE, chunks.get(0).size());
+        assertEquals(InList.MAX_SIZE, chunks.get(1).size());
+        assertEquals(3, chunks.get(2).size());
+        assertEquals(ids, chunks.stream().flatMap(List::stream).toList());
+    }
+}
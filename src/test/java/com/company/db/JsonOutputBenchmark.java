@@ -0,0 +1,102 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: JsonOutputBenchmark.java
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code /api/employees} body written by the Jackson generator
+ * ({@link JsonOutput}) against the String.format writer it replaced, for the
+ * same in-memory rows. Both write into a reused byte buffer, so the figures are
+ * serialisation cost only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonOutputBenchmark {
+
+    @Param({"1000"})
+    int rows;
+
+    private List<Employee> employees;
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        employees = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            Employee employee = new Employee();
+            employee.setId(i);
+            employee.setFirstName("First" + i);
+            employee.setLastName("Last" + i);
+            employee.setEmployeeCode("EMP" + (10000 + i));
+            employee.setJobTitle(i % 3 == 0 ? "Software Engineer" : "Account Manager");
+            employee.setDepartmentName(i % 2 == 0 ? "Engineering" : "Sales");
+            employee.setEmail("user" + i + "@company.com");
+            employees.add(employee);
+        }
+    }
+
+    @Benchmark
+    public int jackson() throws IOException {
+        out.reset();
+        JsonOutput.body(json -> {
+            json.writeStartArray();
+            for (Employee emp : employees) {
+                EmployeeManagementApp.writeEmployeeJson(json, emp, EmployeeField.LIST_DEFAULT);
+            }
+            json.writeEndArray();
+        }).writeTo(out);
+        return out.size();
+    }
+
+    // The writer /api/employees used before JsonOutput (values were not escaped)
+    @Benchmark
+    public int stringFormat() throws IOException {
+        out.reset();
+        Writer json = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        json.write("[");
+        for (int i = 0; i < employees.size(); i++) {
+            Employee emp = employees.get(i);
+            if (i > 0) {
+                json.write(",");
+            }
+            json.write(String.format(
+                "{\"id\":%d,\"firstName\":\"%s\",\"lastName\":\"%s\",\"employeeCode\":\"%s\",\"jobTitle\":\"%s\",\"department\":\"%s\",\"email\":\"%s\"}",
+                emp.getId(), emp.getFirstName(), emp.getLastName(), emp.getEmployeeCode(),
+                emp.getJobTitle(), emp.getDepartmentName() != null ? emp.getDepartmentName() : "",
+                emp.getEmail()
+            ));
+        }
+        json.write("]");
+        json.flush();
+        return out.size();
+    }
+}
@@ -0,0 +1,262 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: NioHttpServerTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class NioHttpServerTest {
+    private static int port;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        Thread server = new Thread(() -> {
+            try {
+                new NioHttpServer(port, 2).run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, "nio-server-test");
+        server.setDaemon(true);
+        server.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try (Socket socket = new Socket("localhost", port)) {
+                return;
+            } catch (IOException e) {
+                assertTrue(System.currentTimeMillis() < deadline, "server did not start");
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    // A buffer in write mode holding the bytes, as the selector thread leaves it after a read
+    private static ByteBuffer received(String bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        buffer.put(bytes.getBytes(StandardCharsets.ISO_8859_1));
+        return buffer;
+    }
+
+    @Test
+    void parsesHeadAndBody() {
+        String request = "POST /employees/add HTTP/1.1\r\nHost: localhost\r\ncontent-length: 9\r\n\r\nname=Jane";
+
+        NioHttpServer.ParsedRequest parsed = NioHttpServer.parse(received(request));
+
+        assertEquals("POST", parsed.request.getMethod());
+        assertEquals("/employees/add", parsed.request.getTarget());
+        assertEquals("HTTP/1.1", parsed.request.getVersion());
+        assertEquals("localhost", parsed.request.getHeader("HOST"));
+        assertEquals("name=Jane", parsed.request.getBody());
+        assertEquals(request.length(), parsed.length);
+    }
+
+    @Test
+    void waitsForTheRestOfAPartialRequest() {
+        String request = "POST /a HTTP/1.1\r\nContent-Length: 5\r\n\r\nhello";
+
+        for (int cut = 0; cut < request.length(); cut++) {
+            ByteBuffer buffer = received(request.substring(0, cut));
+            assertNull(NioHttpServer.parse(buffer), "parsed after " + cut + " bytes");
+            // Nothing is consumed while waiting
+            assertEquals(cut, buffer.position());
+        }
+        assertNotNull(NioHttpServer.parse(received(request)));
+    }
+
+    @Test
+    void pipelinedRequestsParseOneAtATime() {
+        String first = "POST /a HTTP/1.1\r\nContent-Length: 3\r\n\r\nx=1";
+        String second = "GET /b HTTP/1.1\r\n\r\n";
+        ByteBuffer buffer = received(first + second + "GET /c HT");
+
+        NioHttpServer.ParsedRequest parsed = NioHttpServer.parse(buffer);
+        assertEquals("/a", parsed.request.getTarget());
+        assertEquals("x=1", parsed.request.getBody());
+        assertEquals(first.length(), parsed.length);
+
+        // As the server does: keep the bytes after this request for the next round
+        buffer.flip();
+        buffer.position(parsed.length);
+        buffer.compact();
+        parsed = NioHttpServer.parse(buffer);
+        assertEquals("/b", parsed.request.getTarget());
+        assertEquals("", parsed.request.getBody());
+
+        buffer.flip();
+        buffer.position(parsed.length);
+        buffer.compact();
+        assertNull(NioHttpServer.parse(buffer));
+    }
+
+    @Test
+    void blankLinesBeforeARequestAreSkipped() {
+        String request = "\r\n\r\nGET /b HTTP/1.1\r\n\r\n";
+
+        NioHttpServer.ParsedRequest parsed = NioHttpServer.parse(received(request));
+
+        assertEquals("/b", parsed.request.getTarget());
+        assertEquals(request.length(), parsed.length);
+        assertNull(NioHttpServer.parse(received("\r\n")));
+    }
+
+    @Test
+    void malformedRequestLineIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> NioHttpServer.parse(received("GARBAGE\r\n\r\n")));
+    }
+
+    @Test
+    void contentLengthBeyondTheBufferIsRejectedWithoutWaiting() {
+        for (String length : new String[] {"2000", "2147483640", String.valueOf(Integer.MAX_VALUE)}) {
+            assertThrows(NioHttpServer.ContentTooLargeException.class,
+                    () -> NioHttpServer.parse(received("POST /a HTTP/1.1\r\nContent-Length: " + length + "\r\n\r\n")),
+                    length);
+        }
+        // A body that exactly fills the buffer is still waited for
+        String head = "POST /a HTTP/1.1\r\nContent-Length: 983\r\n\r\n";
+        assertEquals(1024, head.length() + 983);
+        assertNull(NioHttpServer.parse(received(head)));
+    }
+
+    @Test
+    void pipelinedResponsesComeBackInRequestOrder() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            OutputStream out = socket.getOutputStream();
+            // All three in one write, and the last one split across two
+            out.write(("GET /employees/add HTTP/1.1\r\nHost: localhost\r\n\r\n"
+                    + "POST /no-such-page HTTP/1.1\r\nHost: localhost\r\nContent-Length: 7\r\n\r\nq=hello"
+                    + "GET /employees/add HTTP/1.1\r\nHo").getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            InputStream in = socket.getInputStream();
+
+            Response first = Response.read(in);
+            out.write("st: localhost\r\nConnection: close\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            Response second = Response.read(in);
+            Response third = Response.read(in);
+
+            assertEquals(200, first.status);
+            assertTrue(first.body.contains("Add"), first.body);
+            assertTrue(second.body.contains("Page Not Found"), second.body);
+            assertEquals(200, third.status);
+            assertTrue(third.body.contains("Add"), third.body);
+            assertEquals("keep-alive", first.headers.get("connection").toLowerCase(Locale.ROOT));
+            assertEquals("close", third.headers.get("connection").toLowerCase(Locale.ROOT));
+            // The server closes the connection after the last response
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void malformedRequestGets400AndTheConnectionCloses() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write("GARBAGE\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            InputStream in = socket.getInputStream();
+
+            assertEquals(400, Response.read(in).status);
+            assertEquals(-1, in.read());
+        }
+    }
+
+    @Test
+    void oversizedContentLengthGets413AndTheServerKeepsServing() throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write("POST /employees/add HTTP/1.1\r\nContent-Length: 2147483640\r\n\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+            InputStream in = socket.getInputStream();
+
+            assertEquals(413, Response.read(in).status);
+            assertEquals(-1, in.read());
+        }
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(10_000);
+            socket.getOutputStream().write("GET /employees/add HTTP/1.1\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.ISO_8859_1));
+
+            assertEquals(200, Response.read(socket.getInputStream()).status);
+        }
+    }
+
+    // One response read off a connection, with a Content-Length or chunked body
+    private static final class Response {
+        final int status;
+        final Map<String, String> headers;
+        final String body;
+
+        private Response(int status, Map<String, String> headers, String body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        static Response read(InputStream in) throws IOException {
+            String statusLine = line(in);
+            int status = Integer.parseInt(statusLine.split(" ")[1]);
+            Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            String header;
+            while (!(header = line(in)).isEmpty()) {
+                int colon = header.indexOf(':');
+                headers.put(header.substring(0, colon).trim(), header.substring(colon + 1).trim());
+            }
+            assertNull(headers.get("Content-Encoding"), "the test client asks for no compression");
+            byte[] body;
+            if ("chunked".equalsIgnoreCase(headers.get("Transfer-Encoding"))) {
+                List<byte[]> chunks = new ArrayList<>();
+                int size;
+                while ((size = Integer.parseInt(line(in).trim(), 16)) > 0) {
+                    chunks.add(in.readNBytes(size));
+                    line(in);
+                }
+                line(in);
+                ByteArrayOutputStream all = new ByteArrayOutputStream();
+                for (byte[] chunk : chunks) {
+                    all.write(chunk);
+                }
+                body = all.toByteArray();
+            } else {
+                body = in.readNBytes(Integer.parseInt(headers.get("Content-Length")));
+            }
+            return new Response(status, headers, new String(body, StandardCharsets.UTF_8));
+        }
+
+        private static String line(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    throw new IOException("Connection closed mid-response");
+                }
+                if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return line.toString(StandardCharsets.ISO_8859_1);
+        }
+    }
+}
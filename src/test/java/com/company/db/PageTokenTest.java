@@ -0,0 +1,69 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: PageTokenTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class PageTokenTest {
+
+    // A token for any key text, as an edited token would arrive
+    private static String token(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void idTokensRoundTrip() {
+        for (int id : new int[] {0, 1, 42, Integer.MAX_VALUE}) {
+            PageToken token = PageToken.decode(PageToken.of(id).encode());
+
+            assertNull(token.getDate());
+            assertEquals(id, token.getId());
+        }
+    }
+
+    @Test
+    void dateTokensRoundTrip() {
+        PageToken token = PageToken.decode(PageToken.of(LocalDate.of(2023, 12, 31), 917).encode());
+
+        assertEquals(LocalDate.of(2023, 12, 31), token.getDate());
+        assertEquals(917, token.getId());
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String token = PageToken.of(LocalDate.of(2024, 2, 29), 1_000_000).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(token, PageToken.of(LocalDate.of(2024, 2, 29), 1_000_000).toString());
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String token : new String[] {
+                "", "not base64!", token("x:1"), token("i"), token("i:"), token("i:abc"), token("i:1:2"),
+                token("d:2024-01-01"), token("d:2024-02-30:1"), token("d:yesterday:1"), token("i:99999999999")}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> PageToken.decode(token),
+                    token);
+            assertEquals("Invalid page token: " + token, e.getMessage());
+        }
+    }
+
+    @Test
+    void editedTokensThatStillParseAreRejected() {
+        for (String key : new String[] {"i:007", "i:+7", "i:7:", "d:2024-01-01:07", "d:+2024-01-01:7"}) {
+            assertThrows(IllegalArgumentException.class, () -> PageToken.decode(token(key)), key);
+        }
+        // A padded copy of a valid token
+        assertThrows(IllegalArgumentException.class, () -> PageToken.decode(PageToken.of(7).encode() + "="));
+    }
+}
@@ -0,0 +1,90 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: ResultMapperTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ResultMapperTest {
+
+    private static ResultMapper.Columns columns(String... labels) throws SQLException {
+        return new ResultMapper.Columns(StubResultSet.of(labels, List.of()).resultSet().getMetaData());
+    }
+
+    @Test
+    void columnsResolveLabelsIgnoringCase() throws SQLException {
+        ResultMapper.Columns columns = columns("id", "First_Name", "LAST_NAME");
+
+        assertEquals(1, columns.index("ID"));
+        assertEquals(2, columns.index("first_name"));
+        assertEquals(3, columns.index("last_name"));
+        assertEquals(3, columns.count());
+        assertEquals("First_Name", columns.label(2));
+    }
+
+    @Test
+    void firstOfTwoColumnsWithOneLabelWins() throws SQLException {
+        // e.g. SELECT e.id, d.id FROM ...
+        ResultMapper.Columns columns = columns("id", "name", "id");
+
+        assertEquals(1, columns.index("id"));
+    }
+
+    @Test
+    void missingColumnIsAnSqlException() throws SQLException {
+        ResultMapper.Columns columns = columns("id");
+
+        SQLException e = assertThrows(SQLException.class, () -> columns.index("salary"));
+        assertEquals("Column 'salary' not found", e.getMessage());
+    }
+
+    @Test
+    void boundMapperReadsEveryRowByPosition() throws SQLException {
+        StubResultSet stub = StubResultSet.of(new String[] {"last_name", "id", "first_name"}, List.of(
+                new Object[] {"Doe", 1, "John"},
+                new Object[] {"Wanjiru", 2, "Sara"}));
+        ResultMapper<Employee> mapper = columns -> {
+            EmployeeField.Reader id = EmployeeField.ID.bind(columns);
+            EmployeeField.Reader name = EmployeeField.NAME.bind(columns);
+            return rs -> {
+                Employee employee = new Employee();
+                id.read(rs, employee);
+                name.read(rs, employee);
+                return employee;
+            };
+        };
+
+        ResultSet rs = stub.resultSet();
+        RowCursor.RowMapper<Employee> rows = mapper.bind(rs);
+        List<Employee> employees = new ArrayList<>();
+        while (rs.next()) {
+            employees.add(rows.map(rs));
+        }
+
+        assertEquals(2, employees.size());
+        assertEquals(1, employees.get(0).getId());
+        assertEquals("John", employees.get(0).getFirstName());
+        assertEquals("Doe", employees.get(0).getLastName());
+        assertEquals(2, employees.get(1).getId());
+        assertEquals("Sara", employees.get(1).getFirstName());
+        assertEquals(0, stub.getLabelReads());
+    }
+
+    @Test
+    void bindingFailsBeforeAnyRowWhenAColumnIsMissing() {
+        StubResultSet stub = StubResultSet.of(new String[] {"id"}, List.<Object[]>of(new Object[] {1}));
+
+        assertThrows(SQLException.class, () -> EmployeeField.NAME.bind(new ResultMapper.Columns(
+                stub.resultSet().getMetaData())));
+    }
+}
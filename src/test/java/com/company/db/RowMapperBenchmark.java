@@ -0,0 +1,157 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: RowMapperBenchmark.java
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mapping result set rows to models, reading columns by label on every row as
+ * the DAOs used to, against the index-bound {@link ResultMapper}s and
+ * {@link BeanMapper}. The rows come from a {@link StubResultSet}, whose label
+ * lookup is a hash map like Connector/J's; its proxy dispatch is in every
+ * variant's figure alike.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RowMapperBenchmark {
+    private static final BeanMapper<Task> TASK = BeanMapper.of(Task.class);
+
+    @Param({"1000"})
+    int rows;
+
+    private StubResultSet employees;
+    private StubResultSet tasks;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> employeeRows = new ArrayList<>(rows);
+        List<Object[]> taskRows = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            employeeRows.add(new Object[] {i, 1000 + i, i % 5 == 0 ? null : i % 7, "EMP" + (10000 + i),
+                    LocalDate.of(2020, 1, 1).plusDays(i), new BigDecimal("55000.00"), "Software Engineer",
+                    "+254700000000", "Nairobi", "user" + i, "user" + i + "@company.com", "First" + i, "Last" + i,
+                    "Engineering"});
+            taskRows.add(new Object[] {i, 1 + i % 20, "Task " + i, "Details of task " + i, i % 3 == 0 ? null : i,
+                    "medium", "todo", LocalDate.of(2024, 1, 1).plusDays(i % 300), new BigDecimal("4.00"), null,
+                    LocalDateTime.of(2024, 1, 1, 9, 0), LocalDateTime.of(2024, 1, 2, 9, 0)});
+        }
+        // The column order of EmployeeDAO.SELECT_EMPLOYEE and of SELECT * FROM tasks
+        employees = StubResultSet.of(new String[] {"id", "user_id", "department_id", "employee_code", "hire_date",
+                "salary", "job_title", "phone", "address", "username", "email", "first_name", "last_name",
+                "department_name"}, employeeRows);
+        tasks = StubResultSet.of(new String[] {"id", "project_id", "title", "description", "assigned_to",
+                "priority", "status", "due_date", "estimated_hours", "actual_hours", "created_at", "updated_at"},
+                taskRows);
+    }
+
+    private static <T> List<T> readAll(StubResultSet stub, ResultMapper<T> mapper) throws SQLException {
+        stub.rewind();
+        ResultSet rs = stub.resultSet();
+        RowCursor.RowMapper<T> rowMapper = mapper.bind(rs);
+        List<T> mapped = new ArrayList<>();
+        while (rs.next()) {
+            mapped.add(rowMapper.map(rs));
+        }
+        return mapped;
+    }
+
+    private static <T> List<T> readAllByLabel(StubResultSet stub, RowCursor.RowMapper<T> mapper) throws SQLException {
+        stub.rewind();
+        ResultSet rs = stub.resultSet();
+        List<T> mapped = new ArrayList<>();
+        while (rs.next()) {
+            mapped.add(mapper.map(rs));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<Employee> employeeByLabel() throws SQLException {
+        return readAllByLabel(employees, RowMapperBenchmark::employeeByLabel);
+    }
+
+    @Benchmark
+    public List<Employee> employeeByIndex() throws SQLException {
+        return readAll(employees, EmployeeDAO.EMPLOYEE);
+    }
+
+    @Benchmark
+    public List<Task> taskByLabel() throws SQLException {
+        return readAllByLabel(tasks, RowMapperBenchmark::taskByLabel);
+    }
+
+    @Benchmark
+    public List<Task> taskBeanMapper() throws SQLException {
+        return readAll(tasks, TASK);
+    }
+
+    // EmployeeDAO's row mapping before ResultMapper
+    private static Employee employeeByLabel(ResultSet rs) throws SQLException {
+        Employee employee = new Employee();
+        employee.setId(rs.getInt("id"));
+        employee.setUserId(rs.getInt("user_id"));
+        employee.setDepartmentId(rs.getInt("department_id"));
+        if (rs.wasNull()) {
+            employee.setDepartmentId(null);
+        }
+        employee.setEmployeeCode(rs.getString("employee_code"));
+        employee.setHireDate(rs.getDate("hire_date").toLocalDate());
+        employee.setSalary(rs.getBigDecimal("salary"));
+        employee.setJobTitle(rs.getString("job_title"));
+        employee.setPhone(rs.getString("phone"));
+        employee.setAddress(rs.getString("address"));
+        employee.setUsername(rs.getString("username"));
+        employee.setEmail(rs.getString("email"));
+        employee.setFirstName(rs.getString("first_name"));
+        employee.setLastName(rs.getString("last_name"));
+        employee.setDepartmentName(rs.getString("department_name"));
+        return employee;
+    }
+
+    // A hand-written label-based mapper of the kind BeanMapper stands in for
+    private static Task taskByLabel(ResultSet rs) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getInt("id"));
+        task.setProjectId(rs.getInt("project_id"));
+        task.setTitle(rs.getString("title"));
+        task.setDescription(rs.getString("description"));
+        task.setAssignedTo(rs.getObject("assigned_to", Integer.class));
+        String priority = rs.getString("priority");
+        task.setPriority(priority == null ? null : Task.Priority.valueOf(priority.toUpperCase()));
+        String status = rs.getString("status");
+        task.setStatus(status == null ? null : Task.Status.valueOf(status.toUpperCase()));
+        task.setDueDate(rs.getObject("due_date", LocalDate.class));
+        task.setEstimatedHours(rs.getBigDecimal("estimated_hours"));
+        task.setActualHours(rs.getBigDecimal("actual_hours"));
+        task.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        task.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        return task;
+    }
+}
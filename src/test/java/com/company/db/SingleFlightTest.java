@@ -0,0 +1,182 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: SingleFlightTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+    private static final String[] TABLES = {TableVersions.EMPLOYEES};
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+    private final AtomicInteger runs = new AtomicInteger();
+    // Holds the first execution until released, so later reads overlap it
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        threads.shutdownNow();
+    }
+
+    private StringBuilder run(String value) {
+        if (runs.incrementAndGet() == 1) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return new StringBuilder(value);
+    }
+
+    private StringBuilder read(String sql, Object param) throws SQLException {
+        return SingleFlight.execute(sql, SingleFlight.params(param), TABLES, StringBuilder::new,
+                () -> run(sql + ":" + param));
+    }
+
+    private Future<StringBuilder> readAsync(String sql, Object param) {
+        return threads.submit(() -> read(sql, param));
+    }
+
+    // Starts a read that stays in progress until release
+    private Future<StringBuilder> lead(String sql, Object param) throws InterruptedException {
+        Future<StringBuilder> leader = readAsync(sql, param);
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    // Waits until as many more reads as given have joined a running execution
+    private static void awaitShared(long before, int joined) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (SingleFlight.getSharedResults() < before + joined) {
+            assertTrue(System.nanoTime() < deadline, "reads did not join the running execution");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void overlappingIdenticalReadsShareOneExecution() throws Exception {
+        long shared = SingleFlight.getSharedResults();
+        Future<StringBuilder> leader = lead("SELECT shared", 1);
+
+        Future<StringBuilder> a = readAsync("SELECT shared", 1);
+        Future<StringBuilder> b = readAsync("SELECT shared", 1);
+        awaitShared(shared, 2);
+        release.countDown();
+
+        StringBuilder leaderValue = leader.get(5, TimeUnit.SECONDS);
+        StringBuilder valueA = a.get(5, TimeUnit.SECONDS);
+        StringBuilder valueB = b.get(5, TimeUnit.SECONDS);
+        assertEquals(1, runs.get());
+        assertEquals("SELECT shared:1", leaderValue.toString());
+        assertEquals("SELECT shared:1", valueA.toString());
+        assertEquals("SELECT shared:1", valueB.toString());
+        // Every caller has its own copy
+        assertNotSame(leaderValue, valueA);
+        assertNotSame(leaderValue, valueB);
+        assertNotSame(valueA, valueB);
+    }
+
+    @Test
+    void readsWithOtherParametersRunOnTheirOwn() throws Exception {
+        Future<StringBuilder> leader = lead("SELECT params", 1);
+
+        assertEquals("SELECT params:2", readAsync("SELECT params", 2).get(5, TimeUnit.SECONDS).toString());
+        assertEquals("SELECT other:1", readAsync("SELECT other", 1).get(5, TimeUnit.SECONDS).toString());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void readStartedAfterAWriteDoesNotJoinAnEarlierExecution() throws Exception {
+        Future<StringBuilder> leader = lead("SELECT written", 1);
+
+        TableVersions.bump(TableVersions.EMPLOYEES);
+
+        assertEquals("SELECT written:1", readAsync("SELECT written", 1).get(5, TimeUnit.SECONDS).toString());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void pinnedAndFreshReadsRunOnTheirOwn() throws Exception {
+        Future<StringBuilder> leader = lead("SELECT own", 1);
+
+        Future<StringBuilder> pinned = threads.submit(() -> {
+            DatabaseConnection.beginRequest(true);
+            try {
+                return read("SELECT own", 1);
+            } finally {
+                DatabaseConnection.endRequest();
+            }
+        });
+        Future<StringBuilder> fresh = threads.submit(() -> SingleFlight.fresh(() -> read("SELECT own", 1)));
+
+        assertEquals("SELECT own:1", pinned.get(5, TimeUnit.SECONDS).toString());
+        assertEquals("SELECT own:1", fresh.get(5, TimeUnit.SECONDS).toString());
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void soleReaderGetsTheResultItselfAndNothingIsKept() throws SQLException {
+        StringBuilder first = new StringBuilder("first");
+        StringBuilder result = SingleFlight.execute("SELECT sole", SingleFlight.params(1), TABLES,
+                StringBuilder::new, () -> first);
+        runs.set(1);
+
+        assertSame(first, result);
+        assertEquals("SELECT sole:1", read("SELECT sole", 1).toString());
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void failureReachesEveryWaiter() throws Exception {
+        long shared = SingleFlight.getSharedResults();
+        CountDownLatch failing = new CountDownLatch(1);
+        Future<String> leader = threads.submit(() -> SingleFlight.execute("SELECT failing", List.of(), TABLES,
+                value -> value, () -> {
+                    failing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new SQLException("query failed");
+                }));
+        assertTrue(failing.await(5, TimeUnit.SECONDS));
+        Future<String> waiter = threads.submit(() -> SingleFlight.execute("SELECT failing", List.of(), TABLES,
+                value -> value, () -> "not run"));
+        awaitShared(shared, 1);
+        release.countDown();
+
+        for (Future<String> caller : List.of(leader, waiter)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, e.getCause());
+            assertEquals("query failed", e.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: StubResultSet.java
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory {@link ResultSet} over fixed rows, for testing row mappers without a
+ * database. Only the calls the mappers make are implemented. Values are given
+ * in their Java types; getters convert the way MySQL Connector/J does for the
+ * common cases. Reads by column label are counted, so tests can check that a
+ * mapper reads by position.
+ */
+final class StubResultSet {
+    private final String[] labels;
+    // Positions by exact label, then by lower-case label, as Connector/J looks them up
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final Map<String, Integer> foldedPositions = new HashMap<>();
+    private final List<Object[]> rows;
+    private int row = -1;
+    private boolean lastWasNull;
+    private int labelReads;
+
+    private StubResultSet(String[] labels, List<Object[]> rows) {
+        this.labels = labels;
+        this.rows = rows;
+        for (int i = labels.length; i >= 1; i--) {
+            positions.put(labels[i - 1], i);
+            foldedPositions.put(labels[i - 1].toLowerCase(Locale.ROOT), i);
+        }
+    }
+
+    static StubResultSet of(String[] labels, List<Object[]> rows) {
+        return new StubResultSet(labels, rows);
+    }
+
+    /**
+     * @return how many getters were called with a column label rather than an index
+     */
+    int getLabelReads() {
+        return labelReads;
+    }
+
+    /**
+     * Moves back before the first row, so the rows can be read again.
+     */
+    void rewind() {
+        row = -1;
+    }
+
+    ResultSet resultSet() {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "next" -> ++row < rows.size();
+                    case "getMetaData" -> metaData();
+                    case "findColumn" -> findColumn((String) args[0]);
+                    case "wasNull" -> lastWasNull;
+                    case "close" -> null;
+                    case "isClosed" -> false;
+                    case "getObject" -> args.length == 2 && args[1] instanceof Class<?> type
+                            ? convert(value(args[0]), type)
+                            : value(args[0]);
+                    case "getString" -> {
+                        Object value = value(args[0]);
+                        yield value == null ? null : value.toString();
+                    }
+                    case "getInt" -> value(args[0]) instanceof Number n ? n.intValue() : 0;
+                    case "getLong" -> value(args[0]) instanceof Number n ? n.longValue() : 0L;
+                    case "getDouble" -> value(args[0]) instanceof Number n ? n.doubleValue() : 0.0;
+                    case "getBoolean" -> {
+                        Object value = value(args[0]);
+                        yield value instanceof Number n ? n.intValue() != 0 : Boolean.TRUE.equals(value);
+                    }
+                    case "getBigDecimal" -> convert(value(args[0]), BigDecimal.class);
+                    case "getDate" -> {
+                        Object value = value(args[0]);
+                        yield value == null ? null : Date.valueOf((LocalDate) value);
+                    }
+                    case "getTimestamp" -> {
+                        Object value = value(args[0]);
+                        yield value == null ? null : Timestamp.valueOf((LocalDateTime) value);
+                    }
+                    case "unwrap", "isWrapperFor" -> throw new SQLException("Not a wrapper");
+                    default -> throw new UnsupportedOperationException("StubResultSet." + method.getName());
+                });
+    }
+
+    private ResultSetMetaData metaData() {
+        return (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[] {ResultSetMetaData.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getColumnCount" -> labels.length;
+                    case "getColumnLabel", "getColumnName" -> labels[(Integer) args[0] - 1];
+                    default -> throw new UnsupportedOperationException("ResultSetMetaData." + method.getName());
+                });
+    }
+
+    private int findColumn(String label) throws SQLException {
+        Integer position = positions.get(label);
+        if (position == null) {
+            position = foldedPositions.get(label.toLowerCase(Locale.ROOT));
+        }
+        if (position == null) {
+            throw new SQLException("Column '" + label + "' not found");
+        }
+        return position;
+    }
+
+    private Object value(Object column) throws SQLException {
+        int index;
+        if (column instanceof String label) {
+            labelReads++;
+            index = findColumn(label);
+        } else {
+            index = (Integer) column;
+        }
+        if (row < 0 || row >= rows.size()) {
+            throw new SQLException("Not on a row");
+        }
+        Object value = rows.get(row)[index - 1];
+        lastWasNull = value == null;
+        return value;
+    }
+
+    private static Object convert(Object value, Class<?> type) throws SQLException {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number n) {
+            if (type == Integer.class) {
+                return n.intValue();
+            }
+            if (type == Long.class) {
+                return n.longValue();
+            }
+            if (type == Double.class) {
+                return n.doubleValue();
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(n.toString());
+            }
+            if (type == Boolean.class) {
+                return n.intValue() != 0;
+            }
+        }
+        throw new SQLException("Cannot convert " + value.getClass().getSimpleName() + " to " + type.getSimpleName());
+    }
+}
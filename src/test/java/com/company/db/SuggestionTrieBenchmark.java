@@ -0,0 +1,117 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: SuggestionTrieBenchmark.java
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link SuggestionTrie} lookups over synthetic employees: a two-letter prefix
+ * whose cached list is current, and the same prefix just after a write under it
+ * has cleared that list.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SuggestionTrieBenchmark {
+    static final String[] JOB_TITLES = {
+        "Software Engineer", "Senior Software Engineer", "Account Manager", "Sales Representative",
+        "Data Analyst", "HR Specialist", "Product Manager", "QA Engineer", "Office Administrator",
+        "Marketing Coordinator", "Financial Analyst", "Support Engineer",
+    };
+
+    @State(Scope.Thread)
+    public static class Employees {
+        @Param({"100000", "1000000"})
+        int employees;
+
+        final SuggestionTrie trie = new SuggestionTrie();
+        String[][] rows;
+        int next;
+
+        @Setup
+        public void setUp() {
+            Random random = new Random(1);
+            rows = new String[employees][];
+            for (int id = 1; id <= employees; id++) {
+                String[] row = {name(random), name(random), "EMP" + (100000 + id), JOB_TITLES[id % JOB_TITLES.length]};
+                rows[id - 1] = row;
+                trie.put(id, row[0], row[1], row[2], row[3]);
+            }
+        }
+
+        // The next employee in turn, by id
+        int nextId() {
+            return 1 + next++ % employees;
+        }
+
+        // First two letters of an employee's last name
+        String prefix(int id) {
+            return rows[id - 1][1].substring(0, 2);
+        }
+    }
+
+    /**
+     * Rewrites one employee, which clears the cached lists on the paths to their
+     * keys, including the one {@link #afterWrite} looks up.
+     */
+    @State(Scope.Thread)
+    public static class Written {
+        // Reached through here, as JMH would give the benchmark method its own instance
+        SuggestionTrie trie;
+        String prefix;
+
+        @Setup(Level.Invocation)
+        public void write(Employees employees) {
+            int id = employees.nextId();
+            String[] row = employees.rows[id - 1];
+            employees.trie.put(id, row[0], row[1], row[2], row[3]);
+            trie = employees.trie;
+            prefix = employees.prefix(id);
+        }
+    }
+
+    // A capitalised pronounceable word, so prefixes are shared the way real names share them
+    static String name(Random random) {
+        String consonants = "bdfghjklmnprstvwyz";
+        String vowels = "aeiou";
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(2);
+        for (int i = 0; i < syllables; i++) {
+            name.append(consonants.charAt(random.nextInt(consonants.length())));
+            name.append(vowels.charAt(random.nextInt(vowels.length())));
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    @Benchmark
+    public List<SuggestionTrie.Suggestion> cached(Employees employees) {
+        return employees.trie.suggest(employees.prefix(employees.nextId()), SuggestionTrie.MAX_RESULTS);
+    }
+
+    @Benchmark
+    public List<SuggestionTrie.Suggestion> afterWrite(Written written) {
+        return written.trie.suggest(written.prefix, SuggestionTrie.MAX_RESULTS);
+    }
+}
@@ -0,0 +1,192 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: SuggestionTrieTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class SuggestionTrieTest {
+
+    private static List<String> texts(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionTrie.Suggestion::getText).toList();
+    }
+
+    @Test
+    void suggestsFromTheStartOfAnyWordIgnoringCase() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(1, "John", "Doe", "JD001", "Software Engineer");
+
+        assertEquals(List.of("John Doe"), texts(trie.suggest("DOE", 10)));
+        assertEquals(List.of("Software Engineer"), texts(trie.suggest("eng", 10)));
+        assertEquals(List.of("JD001"), texts(trie.suggest("jd0", 10)));
+        // Not from the middle of a word
+        assertEquals(List.of(), trie.suggest("oh", 10));
+    }
+
+    @Test
+    void sharedSuggestionsRankFirstAndNameTheirOnlyEmployee() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(1, "Sam", "Otieno", "E1", "Sales Manager");
+        trie.put(2, "Sara", "Wanjiru", "E2", "Sales Manager");
+        trie.put(3, "Salim", "Kamau", "E3", "Sales Lead");
+
+        List<SuggestionTrie.Suggestion> suggestions = trie.suggest("sa", 10);
+
+        assertEquals(List.of("Sales Manager", "Sales Lead", "Sam Otieno", "Salim Kamau", "Sara Wanjiru"),
+                texts(suggestions));
+        assertEquals(EmployeeField.JOB_TITLE, suggestions.get(0).getField());
+        assertEquals(2, suggestions.get(0).getEmployeeCount());
+        assertEquals(0, suggestions.get(0).getEmployeeId());
+        assertEquals(3, suggestions.get(1).getEmployeeId());
+        assertEquals(EmployeeField.NAME, suggestions.get(2).getField());
+        assertEquals(1, suggestions.get(2).getEmployeeId());
+        assertEquals(List.of("Sales Manager", "Sales Lead"), texts(trie.suggest("sa", 2)));
+    }
+
+    @Test
+    void insertSplitsAnEdgeWhereKeysDiverge() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(1, "Johnson", null, null, null);
+        // Root and the "johnson" leaf
+        assertEquals(2, trie.getNodeCount());
+
+        trie.put(2, "Joanna", null, null, null);
+        // "jo" is split off, with "hnson" and "anna" below it
+        assertEquals(4, trie.getNodeCount());
+
+        trie.put(3, "John", null, null, null);
+        // "hnson" splits again at "hn", which now holds "john"
+        assertEquals(5, trie.getNodeCount());
+
+        assertEquals(List.of("John", "Joanna", "Johnson"), texts(trie.suggest("jo", 10)));
+        assertEquals(List.of("John", "Johnson"), texts(trie.suggest("joh", 10)));
+        assertEquals(List.of("Johnson"), texts(trie.suggest("johns", 10)));
+        assertEquals(List.of(), trie.suggest("jon", 10));
+    }
+
+    @Test
+    void removeMergesNodesLeftWithOneChild() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(1, "Johnson", null, null, null);
+        trie.put(2, "Joanna", null, null, null);
+        trie.put(3, "John", null, null, null);
+
+        trie.remove(3);
+        assertEquals(4, trie.getNodeCount());
+        assertEquals(List.of("Johnson"), texts(trie.suggest("joh", 10)));
+
+        trie.remove(2);
+        // "jo" and "hnson" merge back into one edge
+        assertEquals(2, trie.getNodeCount());
+        assertEquals(List.of("Johnson"), texts(trie.suggest("jo", 10)));
+
+        trie.remove(1);
+        assertEquals(1, trie.getNodeCount());
+        assertEquals(0, trie.size());
+        assertEquals(List.of(), trie.suggest("jo", 10));
+    }
+
+    @Test
+    void writesClearCachedSuggestions() {
+        SuggestionTrie trie = new SuggestionTrie();
+        trie.put(1, "Joanna", "Mwangi", null, null);
+        assertEquals(List.of("Joanna Mwangi"), texts(trie.suggest("jo", 10)));
+
+        trie.put(2, "Jo", "Kim", null, null);
+        assertEquals(List.of("Jo Kim", "Joanna Mwangi"), texts(trie.suggest("jo", 10)));
+
+        // Replacing an employee drops their old suggestions
+        trie.put(1, "Peter", "Mwangi", null, null);
+        assertEquals(List.of("Jo Kim"), texts(trie.suggest("jo", 10)));
+        assertEquals(List.of("Peter Mwangi"), texts(trie.suggest("mw", 10)));
+    }
+
+    @Test
+    void agreesWithABruteForceScanThroughPutsAndRemoves() {
+        Random random = new Random(7);
+        SuggestionTrie trie = new SuggestionTrie();
+        Map<Integer, String[]> employees = new HashMap<>();
+        for (int round = 0; round < 4000; round++) {
+            int id = 1 + random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                trie.remove(id);
+                employees.remove(id);
+            } else {
+                // Names have a space, titles a "t", codes digits, so no text is in two fields
+                String[] employee = {word(random), word(random), "e" + random.nextInt(500), "t" + word(random)};
+                trie.put(id, employee[0], employee[1], employee[2], employee[3]);
+                employees.put(id, employee);
+            }
+
+            if (round % 100 == 0) {
+                for (int i = 0; i < 20; i++) {
+                    String prefix = (word(random) + word(random)).substring(0, 1 + random.nextInt(2));
+                    assertEquals(scan(employees, prefix), describe(trie.suggest(prefix, SuggestionTrie.MAX_RESULTS)),
+                            prefix);
+                }
+            }
+        }
+
+        // A radix tree of a set of keys has one shape, however it was built
+        SuggestionTrie rebuilt = new SuggestionTrie();
+        employees.forEach((id, employee) -> rebuilt.put(id, employee[0], employee[1], employee[2], employee[3]));
+        assertEquals(rebuilt.getNodeCount(), trie.getNodeCount());
+        assertEquals(employees.size(), trie.size());
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static List<String> describe(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream()
+                .map(s -> s.getField() + ":" + s.getText() + ":" + s.getEmployeeCount() + ":" + s.getEmployeeId())
+                .toList();
+    }
+
+    private static List<String> scan(Map<Integer, String[]> employees, String prefix) {
+        Map<String, TreeSet<Integer>> byText = new HashMap<>();
+        Map<String, String> fieldOf = new HashMap<>();
+        employees.forEach((id, employee) -> {
+            String[] texts = {employee[0] + " " + employee[1], employee[2], employee[3]};
+            EmployeeField[] fields = {EmployeeField.NAME, EmployeeField.EMPLOYEE_CODE, EmployeeField.JOB_TITLE};
+            for (int f = 0; f < texts.length; f++) {
+                for (String word : texts[f].split(" ")) {
+                    if (word.startsWith(prefix)) {
+                        byText.computeIfAbsent(texts[f], text -> new TreeSet<>()).add(id);
+                        fieldOf.put(texts[f], fields[f].name());
+                        break;
+                    }
+                }
+            }
+        });
+        List<String> ranked = new ArrayList<>(byText.keySet());
+        ranked.sort(Comparator.comparingInt((String text) -> -byText.get(text).size())
+                .thenComparingInt(String::length)
+                .thenComparing(text -> text));
+        List<String> expected = new ArrayList<>();
+        for (String text : ranked.subList(0, Math.min(SuggestionTrie.MAX_RESULTS, ranked.size()))) {
+            int count = byText.get(text).size();
+            expected.add(fieldOf.get(text) + ":" + text + ":" + count + ":" + (count == 1 ? byText.get(text).first() : 0));
+        }
+        return expected;
+    }
+}
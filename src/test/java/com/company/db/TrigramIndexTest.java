@@ -0,0 +1,123 @@
+package com.company.db;
+
+/**
+ *
+ * @author Kipyegon M
+ */
+// File: TrigramIndexTest.java
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+    @Test
+    void findsSubstringsOfAnyFieldIgnoringCase() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Alice", "Johnson", "Software Engineer");
+        index.put(2, "Bob", "Smith", "Account Manager");
+        index.put(3, "Carol", "Johnston", null);
+
+        assertArrayEquals(new int[] {1, 3}, index.search("JOHNS"));
+        assertArrayEquals(new int[] {1}, index.search("ware eng"));
+        assertArrayEquals(new int[] {2}, index.search("manager"));
+        assertArrayEquals(new int[0], index.search("zebra"));
+    }
+
+    @Test
+    void sharingTrigramsIsNotEnoughToMatch() {
+        TrigramIndex index = new TrigramIndex();
+        // Has "abc" and "bcd" but not "abcd"
+        index.put(1, "abc-bcd");
+        // Spans two fields, which are matched separately
+        index.put(2, "ab", "cd");
+
+        assertArrayEquals(new int[0], index.search("abcd"));
+    }
+
+    @Test
+    void shortKeywordsScanEveryDocument() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(5, "Xy");
+        index.put(2, "axb");
+        index.put(9, "yx");
+
+        assertArrayEquals(new int[] {2, 5, 9}, index.search("x"));
+        assertArrayEquals(new int[] {5}, index.search("xY"));
+        assertArrayEquals(new int[] {2, 5, 9}, index.search(""));
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsTheDocument() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1, "Engineering");
+        index.put(1, "Marketing");
+
+        assertArrayEquals(new int[0], index.search("engineer"));
+        assertArrayEquals(new int[] {1}, index.search("market"));
+        assertEquals(1, index.size());
+
+        index.remove(1);
+
+        assertArrayEquals(new int[0], index.search("market"));
+        assertEquals(0, index.size());
+        // No empty posting lists are left behind
+        assertEquals(0, index.getTrigramCount());
+    }
+
+    @Test
+    void agreesWithABruteForceScan() {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+        Map<Integer, String[]> documents = new HashMap<>();
+        for (int round = 0; round < 3000; round++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(5) == 0) {
+                index.remove(id);
+                documents.remove(id);
+            } else {
+                String[] fields = {word(random), word(random)};
+                index.put(id, fields);
+                documents.put(id, fields);
+            }
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String keyword = word(random).substring(0, 1 + random.nextInt(4));
+            assertArrayEquals(scan(documents, keyword), index.search(keyword), keyword);
+        }
+    }
+
+    // Short words over a small alphabet, so trigrams are shared a lot
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 4 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(4));
+            word.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return word.toString();
+    }
+
+    private static int[] scan(Map<Integer, String[]> documents, String keyword) {
+        String folded = keyword.toLowerCase(Locale.ROOT);
+        List<Integer> ids = new ArrayList<>();
+        documents.forEach((id, fields) -> {
+            for (String field : fields) {
+                if (field.toLowerCase(Locale.ROOT).contains(folded)) {
+                    ids.add(id);
+                    return;
+                }
+            }
+        });
+        return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}